@@ -0,0 +1,48 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Accepts the usual JMH command line options and, unless a result
+ * format is given, writes the results as JSON to target/jmh-result.json so that runs can be compared.
+ */
+public final class BenchmarkRunner {
+
+  private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+  private BenchmarkRunner() {
+    // Prevent Instantiation of Static Class
+  }
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+    ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLineOptions);
+    if (!commandLineOptions.getResultFormat().hasValue()) {
+      builder.resultFormat(ResultFormatType.JSON);
+    }
+    if (!commandLineOptions.getResult().hasValue()) {
+      builder.result(DEFAULT_RESULT_FILE);
+    }
+    new Runner(builder.build()).run();
+  }
+
+}
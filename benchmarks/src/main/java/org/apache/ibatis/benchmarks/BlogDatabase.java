@@ -0,0 +1,88 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmarks;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+
+/**
+ * Shared in-memory HSQLDB database the benchmarks run against.
+ */
+public final class BlogDatabase {
+
+  public static final int AUTHORS = 100;
+  public static final int POSTS_PER_AUTHOR = 10;
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  private BlogDatabase() {
+    // Prevent Instantiation of Static Class
+  }
+
+  public static synchronized SqlSessionFactory getSqlSessionFactory() throws IOException, SQLException {
+    if (sqlSessionFactory == null) {
+      try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/benchmarks/mybatis-config.xml")) {
+        sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+      }
+      try (SqlSession session = sqlSessionFactory.openSession()) {
+        populate(session.getConnection());
+        session.commit(true);
+      }
+    }
+    return sqlSessionFactory;
+  }
+
+  private static void populate(Connection connection) throws IOException, SQLException {
+    ScriptRunner runner = new ScriptRunner(connection);
+    runner.setLogWriter(null);
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/benchmarks/CreateDB.sql")) {
+      runner.runScript(reader);
+    }
+    try (PreparedStatement authors = connection.prepareStatement("insert into author (id, username, email, bio) values (?, ?, ?, ?)");
+         PreparedStatement posts = connection.prepareStatement("insert into post (id, author_id, subject, body, created_on) values (?, ?, ?, ?, ?)")) {
+      Timestamp now = new Timestamp(System.currentTimeMillis());
+      for (int a = 1; a <= AUTHORS; a++) {
+        authors.setInt(1, a);
+        authors.setString(2, "author" + a);
+        authors.setString(3, "author" + a + "@mybatis.org");
+        authors.setString(4, "Bio of author " + a);
+        authors.addBatch();
+        for (int p = 1; p <= POSTS_PER_AUTHOR; p++) {
+          int id = (a - 1) * POSTS_PER_AUTHOR + p;
+          posts.setInt(1, id);
+          posts.setInt(2, a);
+          posts.setString(3, "Subject " + id);
+          posts.setString(4, "Body of post " + id);
+          posts.setTimestamp(5, now);
+          posts.addBatch();
+        }
+      }
+      authors.executeBatch();
+      posts.executeBatch();
+    }
+  }
+
+}
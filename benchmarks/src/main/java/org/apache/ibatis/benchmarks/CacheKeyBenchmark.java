@@ -0,0 +1,125 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.SimpleExecutor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CacheKey creation as done by BaseExecutor for every query, and hashing/equality of row keys as used by
+ * the nested result map lookups of DefaultResultSetHandler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CacheKeyBenchmark {
+
+  private static final int ROW_KEYS = 10000;
+
+  private Executor executor;
+  private MappedStatement mappedStatement;
+  private Map<String, Object> parameter;
+  private BoundSql boundSql;
+  private CacheKey cacheKey;
+  private CacheKey equalCacheKey;
+  private Map<CacheKey, Object> rowKeys;
+  private CacheKey[] lookupKeys;
+  private int next;
+
+  @Setup
+  public void setup() throws Exception {
+    Configuration configuration = BlogDatabase.getSqlSessionFactory().getConfiguration();
+    executor = new SimpleExecutor(configuration, null);
+    mappedStatement = configuration.getMappedStatement("org.apache.ibatis.benchmarks.BlogMapper.findPosts");
+    List<Integer> authorIds = new ArrayList<Integer>();
+    for (int i = 1; i <= 10; i++) {
+      authorIds.add(i);
+    }
+    parameter = new HashMap<String, Object>();
+    parameter.put("subject", "Subject%");
+    parameter.put("authorIds", authorIds);
+    boundSql = mappedStatement.getBoundSql(parameter);
+    cacheKey = createCacheKey();
+    equalCacheKey = createCacheKey();
+    rowKeys = new HashMap<CacheKey, Object>();
+    lookupKeys = new CacheKey[ROW_KEYS];
+    for (int i = 0; i < ROW_KEYS; i++) {
+      rowKeys.put(createRowKey(i), i);
+      lookupKeys[i] = createRowKey(i);
+    }
+  }
+
+  @Benchmark
+  public CacheKey createCacheKey() {
+    return executor.createCacheKey(mappedStatement, parameter, RowBounds.DEFAULT, boundSql);
+  }
+
+  @Benchmark
+  public boolean hashCodeAndEquals() {
+    return cacheKey.hashCode() == equalCacheKey.hashCode() && cacheKey.equals(equalCacheKey);
+  }
+
+  @Benchmark
+  public CacheKey cloneCacheKey() throws CloneNotSupportedException {
+    return cacheKey.clone();
+  }
+
+  @Benchmark
+  public Object createAndLookupRowKey() {
+    return rowKeys.get(createRowKey(next++ % ROW_KEYS));
+  }
+
+  @Benchmark
+  public Object lookupRowKey() {
+    return rowKeys.get(lookupKeys[next++ % ROW_KEYS]);
+  }
+
+  /*
+   * Same shape as the keys built by DefaultResultSetHandler.createRowKey
+   */
+  private CacheKey createRowKey(int id) {
+    CacheKey rowKey = new CacheKey();
+    rowKey.update("org.apache.ibatis.benchmarks.BlogMapper.authorWithPostsResult");
+    rowKey.update("ID");
+    rowKey.update(String.valueOf(id));
+    return rowKey;
+  }
+
+}
@@ -0,0 +1,82 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SQL generation of DynamicSqlSource for a statement with &lt;where&gt;, &lt;if&gt; and &lt;foreach&gt;.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DynamicSqlBenchmark {
+
+  @Param({"1", "10", "100"})
+  private int foreachSize;
+
+  private MappedStatement mappedStatement;
+  private Map<String, Object> ifOnlyParameter;
+  private Map<String, Object> foreachParameter;
+
+  @Setup
+  public void setup() throws Exception {
+    mappedStatement = BlogDatabase.getSqlSessionFactory().getConfiguration()
+        .getMappedStatement("org.apache.ibatis.benchmarks.BlogMapper.findPosts");
+    ifOnlyParameter = new HashMap<String, Object>();
+    ifOnlyParameter.put("subject", "Subject%");
+    ifOnlyParameter.put("authorIds", null);
+    List<Integer> authorIds = new ArrayList<Integer>();
+    for (int i = 1; i <= foreachSize; i++) {
+      authorIds.add(i);
+    }
+    foreachParameter = new HashMap<String, Object>();
+    foreachParameter.put("subject", "Subject%");
+    foreachParameter.put("authorIds", authorIds);
+  }
+
+  @Benchmark
+  public BoundSql ifOnly() {
+    return mappedStatement.getBoundSql(ifOnlyParameter);
+  }
+
+  @Benchmark
+  public BoundSql ifAndForeach() {
+    return mappedStatement.getBoundSql(foreachParameter);
+  }
+
+}
@@ -0,0 +1,68 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.session.SqlSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single row select through MapperProxy/MapperMethod compared with the same statement called on the SqlSession.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperProxyBenchmark {
+
+  private SqlSession sqlSession;
+  private BlogMapper mapper;
+
+  @Setup
+  public void setup() throws Exception {
+    sqlSession = BlogDatabase.getSqlSessionFactory().openSession();
+    mapper = sqlSession.getMapper(BlogMapper.class);
+  }
+
+  @TearDown
+  public void tearDown() {
+    sqlSession.close();
+  }
+
+  @Benchmark
+  public Author selectThroughMapperProxy() {
+    return mapper.selectAuthor(1);
+  }
+
+  @Benchmark
+  public Author selectThroughSqlSession() {
+    return sqlSession.selectOne("org.apache.ibatis.benchmarks.BlogMapper.selectAuthor", 1);
+  }
+
+}
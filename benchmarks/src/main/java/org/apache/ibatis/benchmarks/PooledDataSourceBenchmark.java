@@ -0,0 +1,87 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmarks;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Connection borrow/return of the pooled data sources with more threads than pooled connections.
+ * Use -t to change the number of threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class PooledDataSourceBenchmark {
+
+  @Param({"synchronized", "concurrent"})
+  private String poolType;
+
+  @Param({"8"})
+  private int poolSize;
+
+  private DataSource dataSource;
+
+  @Setup
+  public void setup() {
+    Properties properties = new Properties();
+    properties.setProperty("driver", "org.hsqldb.jdbcDriver");
+    properties.setProperty("url", "jdbc:hsqldb:mem:pool");
+    properties.setProperty("username", "sa");
+    properties.setProperty("poolType", poolType);
+    properties.setProperty("poolMaximumActiveConnections", String.valueOf(poolSize));
+    properties.setProperty("poolMaximumIdleConnections", String.valueOf(poolSize));
+    PooledDataSourceFactory factory = new PooledDataSourceFactory();
+    factory.setProperties(properties);
+    dataSource = factory.getDataSource();
+  }
+
+  @TearDown
+  public void tearDown() {
+    ((PooledDataSource) dataSource).forceCloseAll();
+  }
+
+  @Benchmark
+  public void borrowAndReturn() throws SQLException {
+    Connection connection = dataSource.getConnection();
+    connection.close();
+  }
+
+}
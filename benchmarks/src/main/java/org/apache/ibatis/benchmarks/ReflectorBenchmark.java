@@ -0,0 +1,84 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.session.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Property access through Reflector and MetaObject as used by parameter binding and result mapping.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReflectorBenchmark {
+
+  private Configuration configuration;
+  private Post post;
+
+  @Setup
+  public void setup() throws Exception {
+    configuration = BlogDatabase.getSqlSessionFactory().getConfiguration();
+    Author author = new Author();
+    author.setId(1);
+    author.setUsername("author1");
+    post = new Post();
+    post.setId(1);
+    post.setSubject("Subject 1");
+    post.setAuthor(author);
+  }
+
+  @Benchmark
+  public Reflector createReflector() {
+    return new Reflector(Post.class);
+  }
+
+  @Benchmark
+  public Object getSimpleProperty() {
+    return configuration.newMetaObject(post).getValue("subject");
+  }
+
+  @Benchmark
+  public Object getNestedProperty() {
+    return configuration.newMetaObject(post).getValue("author.username");
+  }
+
+  @Benchmark
+  public Post setProperties() {
+    MetaObject metaObject = configuration.newMetaObject(post);
+    metaObject.setValue("id", 2);
+    metaObject.setValue("subject", "Subject 2");
+    metaObject.setValue("author.id", 3);
+    return post;
+  }
+
+}
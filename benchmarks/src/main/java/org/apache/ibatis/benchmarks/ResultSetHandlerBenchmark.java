@@ -0,0 +1,75 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.session.SqlSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Result mapping through DefaultResultSetHandler: explicit result map, auto-mapping and a nested
+ * (joined) result map, each selecting {@link BlogDatabase#AUTHORS} authors.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResultSetHandlerBenchmark {
+
+  private SqlSession sqlSession;
+  private BlogMapper mapper;
+
+  @Setup
+  public void setup() throws Exception {
+    sqlSession = BlogDatabase.getSqlSessionFactory().openSession();
+    mapper = sqlSession.getMapper(BlogMapper.class);
+  }
+
+  @TearDown
+  public void tearDown() {
+    sqlSession.close();
+  }
+
+  @Benchmark
+  public List<Author> simpleResultMap() {
+    return mapper.selectAuthorsWithResultMap();
+  }
+
+  @Benchmark
+  public List<Author> autoMapping() {
+    return mapper.selectAuthorsAutoMapped();
+  }
+
+  @Benchmark
+  public List<Author> nestedResultMap() {
+    return mapper.selectAuthorsWithPosts();
+  }
+
+}
@@ -18,6 +18,7 @@ package org.apache.ibatis.binding;
 import org.apache.ibatis.annotations.Flush;
 import org.apache.ibatis.annotations.MapKey;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.Flow;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
@@ -28,12 +29,22 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * MapperMethod 对象会完成参数转换以及 SQL 语句的执行功能
@@ -62,6 +73,30 @@ public class MapperMethod {
     }
 
     public Object execute(SqlSession sqlSession, Object[] args) {
+        if (method.returnsFuture()) {
+            return executeAsync(sqlSession.getConfiguration(), args);
+        }
+        return executeCommand(sqlSession, args);
+    }
+
+    /**
+     * Runs the statement on the async executor, in a session of its own that is committed when the statement
+     * succeeds and rolled back otherwise.
+     */
+    private CompletableFuture<Object> executeAsync(Configuration configuration, Object[] args) {
+        final SqlSessionFactory sqlSessionFactory = new DefaultSqlSessionFactory(configuration);
+        final Executor executor = configuration.getAsyncExecutor() != null
+                ? configuration.getAsyncExecutor() : DefaultAsyncExecutor.INSTANCE;
+        return CompletableFuture.supplyAsync(() -> {
+            try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+                Object result = executeCommand(sqlSession, args);
+                sqlSession.commit();
+                return result;
+            }
+        }, executor);
+    }
+
+    private Object executeCommand(SqlSession sqlSession, Object[] args) {
         Object result;
         switch (command.getType()) {
             case INSERT: {
@@ -89,6 +124,8 @@ public class MapperMethod {
                     result = executeForMap(sqlSession, args);
                 } else if (method.returnsCursor()) {
                     result = executeForCursor(sqlSession, args);
+                } else if (method.returnsPublisher()) {
+                    result = executeForPublisher(sqlSession, args);
                 } else {
                     Object param = method.convertArgsToSqlCommandParam(args);
                     result = sqlSession.selectOne(command.getName(), param);
@@ -176,6 +213,18 @@ public class MapperMethod {
         return result;
     }
 
+    private <T> Flow.Publisher<T> executeForPublisher(SqlSession sqlSession, Object[] args) {
+        Flow.Publisher<T> result;
+        Object param = method.convertArgsToSqlCommandParam(args);
+        if (method.hasRowBounds()) {
+            RowBounds rowBounds = method.extractRowBounds(args);
+            result = sqlSession.<T>selectPublisher(command.getName(), param, rowBounds);
+        } else {
+            result = sqlSession.<T>selectPublisher(command.getName(), param);
+        }
+        return result;
+    }
+
     private <E> Object convertToDeclaredCollection(Configuration config, List<E> list) {
         Object collection = config.getObjectFactory().create(method.getReturnType());
         MetaObject metaObject = config.newMetaObject(collection);
@@ -209,6 +258,35 @@ public class MapperMethod {
         return result;
     }
 
+    /**
+     * Runs the async mapper methods when no executor is configured.
+     */
+    private static class DefaultAsyncExecutor {
+
+        private static final long KEEP_ALIVE_SECONDS = 60L;
+
+        private static final Executor INSTANCE = newExecutor();
+
+        private static Executor newExecutor() {
+            try {
+                // Java 21+
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (Exception e) {
+                // 线程数有上限, 空闲的线程在 KEEP_ALIVE_SECONDS 后结束, 不需要关闭
+                final AtomicInteger threadNumber = new AtomicInteger();
+                int poolSize = Math.max(2, Runtime.getRuntime().availableProcessors());
+                ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize,
+                        KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "mybatis-async-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                executor.allowCoreThreadTimeOut(true);
+                return executor;
+            }
+        }
+    }
+
     public static class ParamMap<V> extends HashMap<String, V> {
 
         private static final long serialVersionUID = -2212268410512043556L;
@@ -304,10 +382,18 @@ public class MapperMethod {
          * 返回值类型是否为 Cursor 类型
          */
         private final boolean returnsCursor;
+        /**
+         * 返回值类型是否为 Flow.Publisher 类型
+         */
+        private final boolean returnsPublisher;
         /**
          * 返回值类型是否为 optional
          */
         private final boolean returnsOptional;
+        /**
+         * 返回值类型是否为 CompletableFuture 或 CompletionStage，其他字段描述的是其中的结果类型
+         */
+        private final boolean returnsFuture;
         /**
          * 返回值类型
          */
@@ -331,6 +417,14 @@ public class MapperMethod {
 
         public MethodSignature(Configuration configuration, Class<?> mapperInterface, Method method) {
             Type resolvedReturnType = TypeParameterResolver.resolveReturnType(method, mapperInterface);
+            this.returnsFuture = isFuture(resolvedReturnType);
+            if (this.returnsFuture) {
+                if (!(resolvedReturnType instanceof ParameterizedType)) {
+                    throw new BindingException("Mapper method '" + mapperInterface.getName() + "." + method.getName()
+                            + "' must declare the result type of its " + method.getReturnType().getSimpleName() + ".");
+                }
+                resolvedReturnType = ((ParameterizedType) resolvedReturnType).getActualTypeArguments()[0];
+            }
             if (resolvedReturnType instanceof Class<?>) {
                 this.returnType = (Class<?>) resolvedReturnType;
             } else if (resolvedReturnType instanceof ParameterizedType) {
@@ -338,11 +432,20 @@ public class MapperMethod {
             } else {
                 this.returnType = method.getReturnType();
             }
-            this.returnsVoid = void.class.equals(this.returnType);
+            this.returnsVoid = void.class.equals(this.returnType) || (this.returnsFuture && Void.class.equals(this.returnType));
             this.returnsMany = configuration.getObjectFactory().isCollection(this.returnType) || this.returnType.isArray();
             this.returnsCursor = Cursor.class.equals(this.returnType);
+            this.returnsPublisher = Flow.Publisher.class.equals(this.returnType);
             this.returnsOptional = Optional.class.equals(this.returnType);
-            this.mapKey = getMapKey(method);
+            if (this.returnsFuture && this.returnsCursor) {
+                throw new BindingException("Mapper method '" + mapperInterface.getName() + "." + method.getName()
+                        + "' cannot return a Cursor asynchronously, the session is closed when the future completes.");
+            }
+            if (this.returnsFuture && this.returnsPublisher) {
+                throw new BindingException("Mapper method '" + mapperInterface.getName() + "." + method.getName()
+                        + "' cannot return a Publisher asynchronously, a Publisher is asynchronous already.");
+            }
+            this.mapKey = getMapKey(method, this.returnsFuture ? this.returnType : method.getReturnType());
             this.returnsMap = this.mapKey != null;
             this.rowBoundsIndex = getUniqueParamIndex(method, RowBounds.class);
             this.resultHandlerIndex = getUniqueParamIndex(method, ResultHandler.class);
@@ -393,6 +496,15 @@ public class MapperMethod {
             return returnsCursor;
         }
 
+        /**
+         * return whether return type is {@code org.apache.ibatis.cursor.Flow.Publisher}
+         * @return return {@code true}, if the rows are published as they are requested
+         * @since 3.5.0
+         */
+        public boolean returnsPublisher() {
+            return returnsPublisher;
+        }
+
         /**
          * return whether return type is {@code java.util.Optional}
          * @return return {@code true}, if return type is {@code java.util.Optional}
@@ -402,6 +514,21 @@ public class MapperMethod {
             return returnsOptional;
         }
 
+        /**
+         * return whether return type is {@code java.util.concurrent.CompletableFuture} or
+         * {@code java.util.concurrent.CompletionStage}, in which case the other methods describe its result type
+         * @return return {@code true}, if the method runs asynchronously
+         * @since 3.5.0
+         */
+        public boolean returnsFuture() {
+            return returnsFuture;
+        }
+
+        private static boolean isFuture(Type type) {
+            Type rawType = type instanceof ParameterizedType ? ((ParameterizedType) type).getRawType() : type;
+            return CompletableFuture.class.equals(rawType) || CompletionStage.class.equals(rawType);
+        }
+
         private Integer getUniqueParamIndex(Method method, Class<?> paramType) {
             Integer index = null;
             final Class<?>[] argTypes = method.getParameterTypes();
@@ -417,9 +544,9 @@ public class MapperMethod {
             return index;
         }
 
-        private String getMapKey(Method method) {
+        private String getMapKey(Method method, Class<?> returnType) {
             String mapKey = null;
-            if (Map.class.isAssignableFrom(method.getReturnType())) {
+            if (Map.class.isAssignableFrom(returnType)) {
                 final MapKey mapKeyAnnotation = method.getAnnotation(MapKey.class);
                 if (mapKeyAnnotation != null) {
                     mapKey = mapKeyAnnotation.value();
@@ -373,6 +373,28 @@ public class MapperBuilderAssistant extends BaseBuilder {
       String resultSet,
       String foreignColumn,
       boolean lazy) {
+    return buildResultMapping(resultType, property, column, javaType, jdbcType, nestedSelect, nestedResultMap, notNullColumn,
+        columnPrefix, typeHandler, flags, resultSet, foreignColumn, lazy, null, null, null);
+  }
+
+  public ResultMapping buildResultMapping(
+      Class<?> resultType,
+      String property,
+      String column,
+      Class<?> javaType,
+      JdbcType jdbcType,
+      String nestedSelect,
+      String nestedResultMap,
+      String notNullColumn,
+      String columnPrefix,
+      Class<? extends TypeHandler<?>> typeHandler,
+      List<ResultFlag> flags,
+      String resultSet,
+      String foreignColumn,
+      boolean lazy,
+      String batchSelect,
+      String batchKeyProperty,
+      Integer batchSize) {
     Class<?> javaTypeClass = resolveResultJavaType(resultType, property, javaType);
     TypeHandler<?> typeHandlerInstance = resolveTypeHandler(javaTypeClass, typeHandler);
     List<ResultMapping> composites = parseCompositeColumnName(column);
@@ -388,6 +410,9 @@ public class MapperBuilderAssistant extends BaseBuilder {
         .columnPrefix(columnPrefix)
         .foreignColumn(foreignColumn)
         .lazy(lazy)
+        .batchQueryId(applyCurrentNamespace(batchSelect, true))
+        .batchKeyProperty(batchKeyProperty)
+        .batchSize(batchSize == null ? ResultMapping.DEFAULT_BATCH_SIZE : batchSize)
         .build();
   }
 
@@ -15,14 +15,21 @@
  */
 package org.apache.ibatis.builder.xml;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 import javax.sql.DataSource;
 
 import org.apache.ibatis.builder.BaseBuilder;
 import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.datasource.DataSourceFactory;
+import org.apache.ibatis.executor.BatchFlushListener;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.io.Resources;
@@ -106,6 +113,8 @@ public class XMLConfigBuilder extends BaseBuilder {
       propertiesElement(root.evalNode("properties"));
       Properties settings = settingsAsProperties(root.evalNode("settings"));
       loadCustomVfs(settings);
+      // the type aliases packages are resolved before the other settings are applied
+      configuration.setClassIndexEnabled(booleanValueOf(settings.getProperty("classIndexEnabled"), false));
       typeAliasesElement(root.evalNode("typeAliases"));
       pluginElement(root.evalNode("plugins"));
       objectFactoryElement(root.evalNode("objectFactory"));
@@ -248,6 +257,12 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setDefaultExecutorType(ExecutorType.valueOf(props.getProperty("defaultExecutorType", "SIMPLE")));
     configuration.setDefaultStatementTimeout(integerValueOf(props.getProperty("defaultStatementTimeout"), null));
     configuration.setDefaultFetchSize(integerValueOf(props.getProperty("defaultFetchSize"), null));
+    configuration.setMultiRowInsertSize(integerValueOf(props.getProperty("multiRowInsertSize"), null));
+    configuration.setBatchAutoFlushStatements(integerValueOf(props.getProperty("batchAutoFlushStatements"), null));
+    configuration.setBatchAutoFlushSize(integerValueOf(props.getProperty("batchAutoFlushSize"), null));
+    configuration.setBatchAutoFlushBytes(longValueOf(props.getProperty("batchAutoFlushBytes"), null));
+    configuration.setBatchFlushListener((BatchFlushListener) createInstance(props.getProperty("batchFlushListener")));
+    configuration.setAsyncExecutor((java.util.concurrent.Executor) createInstance(props.getProperty("asyncExecutor")));
     configuration.setMapUnderscoreToCamelCase(booleanValueOf(props.getProperty("mapUnderscoreToCamelCase"), false));
     configuration.setSafeRowBoundsEnabled(booleanValueOf(props.getProperty("safeRowBoundsEnabled"), false));
     configuration.setLocalCacheScope(LocalCacheScope.valueOf(props.getProperty("localCacheScope", "SESSION")));
@@ -261,6 +276,11 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setCallSettersOnNulls(booleanValueOf(props.getProperty("callSettersOnNulls"), false));
     configuration.setUseActualParamName(booleanValueOf(props.getProperty("useActualParamName"), true));
     configuration.setReturnInstanceForEmptyRow(booleanValueOf(props.getProperty("returnInstanceForEmptyRow"), false));
+    configuration.setCompiledRowMappersEnabled(booleanValueOf(props.getProperty("compiledRowMappersEnabled"), false));
+    configuration.setParallelRowMappingEnabled(booleanValueOf(props.getProperty("parallelRowMappingEnabled"), false));
+    configuration.setParallelRowMappingOrdered(booleanValueOf(props.getProperty("parallelRowMappingOrdered"), true));
+    configuration.setFreezeTypeHandlers(booleanValueOf(props.getProperty("freezeTypeHandlers"), false));
+    configuration.setParallelMapperParsingEnabled(booleanValueOf(props.getProperty("parallelMapperParsingEnabled"), false));
     configuration.setLogPrefix(props.getProperty("logPrefix"));
     @SuppressWarnings("unchecked")
     Class<? extends Log> logImpl = (Class<? extends Log>)resolveClass(props.getProperty("logImpl"));
@@ -359,7 +379,10 @@ public class XMLConfigBuilder extends BaseBuilder {
 
   private void mapperElement(XNode parent) throws Exception {
     if (parent != null) {
-      for (XNode child : parent.getChildren()) {
+      List<XNode> children = parent.getChildren();
+      List<CompletableFuture<XPathParser>> mapperDocuments = parseMapperDocuments(children);
+      for (int i = 0; i < children.size(); i++) {
+        XNode child = children.get(i);
         if ("package".equals(child.getName())) {
           String mapperPackage = child.getStringAttribute("name");
           configuration.addMappers(mapperPackage);
@@ -369,13 +392,23 @@ public class XMLConfigBuilder extends BaseBuilder {
           String mapperClass = child.getStringAttribute("class");
           if (resource != null && url == null && mapperClass == null) {
             ErrorContext.instance().resource(resource);
-            InputStream inputStream = Resources.getResourceAsStream(resource);
-            XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
+            XMLMapperBuilder mapperParser;
+            if (mapperDocuments.get(i) != null) {
+              mapperParser = new XMLMapperBuilder(joinMapperDocument(mapperDocuments.get(i)), configuration, resource, configuration.getSqlFragments());
+            } else {
+              InputStream inputStream = Resources.getResourceAsStream(resource);
+              mapperParser = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
+            }
             mapperParser.parse();
           } else if (resource == null && url != null && mapperClass == null) {
             ErrorContext.instance().resource(url);
-            InputStream inputStream = Resources.getUrlAsStream(url);
-            XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, url, configuration.getSqlFragments());
+            XMLMapperBuilder mapperParser;
+            if (mapperDocuments.get(i) != null) {
+              mapperParser = new XMLMapperBuilder(joinMapperDocument(mapperDocuments.get(i)), configuration, url, configuration.getSqlFragments());
+            } else {
+              InputStream inputStream = Resources.getUrlAsStream(url);
+              mapperParser = new XMLMapperBuilder(inputStream, configuration, url, configuration.getSqlFragments());
+            }
             mapperParser.parse();
           } else if (resource == null && url == null && mapperClass != null) {
             Class<?> mapperInterface = Resources.classForName(mapperClass);
@@ -388,6 +421,59 @@ public class XMLConfigBuilder extends BaseBuilder {
     }
   }
 
+  /*
+   * Reading and parsing the mapper files does not touch the configuration, so it can be done in parallel. The
+   * documents are then registered by mapperElement one by one in the order of declaration, which keeps the
+   * statements, result maps and pending cache-refs exactly as with a sequential parsing.
+   */
+  private List<CompletableFuture<XPathParser>> parseMapperDocuments(List<XNode> children) {
+    List<CompletableFuture<XPathParser>> mapperDocuments = new ArrayList<>(children.size());
+    // the pool threads do not share the context class loader of the caller
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    for (XNode child : children) {
+      CompletableFuture<XPathParser> mapperDocument = null;
+      if (configuration.isParallelMapperParsingEnabled() && !"package".equals(child.getName())
+          && child.getStringAttribute("class") == null) {
+        String resource = child.getStringAttribute("resource");
+        String url = child.getStringAttribute("url");
+        if (resource != null && url == null) {
+          mapperDocument = CompletableFuture.supplyAsync(() -> {
+            try (InputStream inputStream = Resources.getResourceAsStream(classLoader, resource)) {
+              return newMapperDocument(inputStream);
+            } catch (IOException e) {
+              throw new BuilderException("Error reading mapper resource " + resource + ". Cause: " + e, e);
+            }
+          }, ForkJoinPool.commonPool());
+        } else if (resource == null && url != null) {
+          mapperDocument = CompletableFuture.supplyAsync(() -> {
+            try (InputStream inputStream = Resources.getUrlAsStream(url)) {
+              return newMapperDocument(inputStream);
+            } catch (IOException e) {
+              throw new BuilderException("Error reading mapper url " + url + ". Cause: " + e, e);
+            }
+          }, ForkJoinPool.commonPool());
+        }
+      }
+      mapperDocuments.add(mapperDocument);
+    }
+    return mapperDocuments;
+  }
+
+  private XPathParser newMapperDocument(InputStream inputStream) {
+    return new XPathParser(inputStream, true, configuration.getVariables(), new XMLMapperEntityResolver());
+  }
+
+  private XPathParser joinMapperDocument(CompletableFuture<XPathParser> mapperDocument) {
+    try {
+      return mapperDocument.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
   private boolean isSpecifiedEnvironment(String id) {
     if (environment == null) {
       throw new BuilderException("No environment specified.");
@@ -15,9 +15,10 @@
  */
 package org.apache.ibatis.cache;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import org.apache.ibatis.reflection.ArrayUtil;
 
@@ -32,47 +33,48 @@ import org.apache.ibatis.reflection.ArrayUtil;
  */
 public class CacheKey implements Cloneable, Serializable {
 
-    private static final long serialVersionUID = 1146682552656046210L;
+    private static final long serialVersionUID = -1434373557093834390L;
 
     public static final CacheKey NULL_CACHE_KEY = new NullCacheKey();
 
-    private static final int DEFAULT_MULTIPLYER = 37;
-    /**
-     * 默认的 hashcode
-     */
-    private static final int DEFAULT_HASHCODE = 17;
+    private static final Object[] EMPTY_COMPONENTS = new Object[0];
 
+    private static final int DEFAULT_CAPACITY = 8;
     /**
-     * 参与计算的 hash 值
+     * 参与计算的 hash 值（64 位黄金分割常数）
      */
-    private final int multiplier;
+    private static final long DEFAULT_MULTIPLYER = 0x9E3779B97F4A7C15L;
     /**
-     * 哈希值
+     * 默认的 hashcode
      */
-    private int hashcode;
+    private static final long DEFAULT_HASHCODE = 17;
+
     /**
-     * 冗余校验值
+     * 64 位哈希值，每次 update 时增量计算，hashCode() 返回其高低 32 位的异或
      */
-    private long checksum;
+    private long hashcode;
     /**
      * 数量
      */
     private int count;
     // 8/21/2017 - Sonarlint flags this as needing to be marked transient.  While true if content is not serializable, this is not always true and thus should not be marked transient.
     /**
-     * 以下四部分都会记录到该集合中
+     * 以下四部分都会记录到该数组中，只有前 count 个元素有效
      * 1. MappedStatement 的 id
      * 2. 指定查询结果集的范围，也就是 RowBounds.offset 和 RowBounds.limit
      * 3. 查询所使用的 SQL 语句，也就是 boundSql.getSql() 方法返回的 SQL 语句，其中可能包含 "?" 占位符
      * 4. 用户传递给上述 SQL 语句的实际参数值
      */
-    private List<Object> updateList;
+    private Object[] components;
+    /**
+     * clone() 之后两个 CacheKey 共用同一个数组，先 update 的一方在写入前复制数组
+     */
+    private transient boolean shared;
 
     public CacheKey() {
         this.hashcode = DEFAULT_HASHCODE;
-        this.multiplier = DEFAULT_MULTIPLYER;
         this.count = 0;
-        this.updateList = new ArrayList<Object>();
+        this.components = EMPTY_COMPONENTS;
     }
 
     public CacheKey(Object[] objects) {
@@ -81,19 +83,20 @@ public class CacheKey implements Cloneable, Serializable {
     }
 
     public int getUpdateCount() {
-        return updateList.size();
+        return count;
     }
 
     public void update(Object object) {
         int baseHashCode = object == null ? 1 : ArrayUtil.hashCode(object);
 
-        count++;
-        checksum += baseHashCode;
-        baseHashCode *= count;
-
-        hashcode = multiplier * hashcode + baseHashCode;
+        if (shared || count == components.length) {
+            int capacity = count == components.length ? Math.max(DEFAULT_CAPACITY, count << 1) : components.length;
+            components = Arrays.copyOf(components, capacity);
+            shared = false;
+        }
+        components[count++] = object;
 
-        updateList.add(object);
+        hashcode = DEFAULT_MULTIPLYER * hashcode + mix((long) count << 32 | (baseHashCode & 0xFFFFFFFFL));
     }
 
     public void updateAll(Object[] objects) {
@@ -116,17 +119,15 @@ public class CacheKey implements Cloneable, Serializable {
         if (hashcode != cacheKey.hashcode) {
             return false;
         }
-        if (checksum != cacheKey.checksum) {
-            return false;
-        }
         if (count != cacheKey.count) {
             return false;
         }
 
-        for (int i = 0; i < updateList.size(); i++) {
-            Object thisObject = updateList.get(i);
-            Object thatObject = cacheKey.updateList.get(i);
-            if (!ArrayUtil.equals(thisObject, thatObject)) {
+        // 最后加入的通常是参数值和列值，最容易不同，所以从后往前比较
+        for (int i = count - 1; i >= 0; i--) {
+            Object thisObject = components[i];
+            Object thatObject = cacheKey.components[i];
+            if (thisObject != thatObject && !ArrayUtil.equals(thisObject, thatObject)) {
                 return false;
             }
         }
@@ -135,14 +136,14 @@ public class CacheKey implements Cloneable, Serializable {
 
     @Override
     public int hashCode() {
-        return hashcode;
+        return (int) (hashcode ^ (hashcode >>> 32));
     }
 
     @Override
     public String toString() {
-        StringBuilder returnValue = new StringBuilder().append(hashcode).append(':').append(checksum);
-        for (Object object : updateList) {
-            returnValue.append(':').append(ArrayUtil.toString(object));
+        StringBuilder returnValue = new StringBuilder().append(hashcode);
+        for (int i = 0; i < count; i++) {
+            returnValue.append(':').append(ArrayUtil.toString(components[i]));
         }
         return returnValue.toString();
     }
@@ -150,8 +151,32 @@ public class CacheKey implements Cloneable, Serializable {
     @Override
     public CacheKey clone() throws CloneNotSupportedException {
         CacheKey clonedCacheKey = (CacheKey) super.clone();
-        clonedCacheKey.updateList = new ArrayList<Object>(updateList);
+        if (count > 0) {
+            // 不再复制集合，两个 CacheKey 共享数组直到其中一个被 update
+            shared = true;
+            clonedCacheKey.shared = true;
+        }
         return clonedCacheKey;
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        if (components.length != count) {
+            components = Arrays.copyOf(components, count);
+            shared = false;
+        }
+        out.defaultWriteObject();
+    }
+
+    /**
+     * MurmurHash3 的 fmix64，让每个组成部分的 32 位哈希值分散到 64 位上
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
 }
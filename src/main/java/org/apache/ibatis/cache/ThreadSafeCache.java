@@ -0,0 +1,28 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+/**
+ * Marker for the caches that can be called by several threads at once.
+ * <p>
+ * When the base cache and all its eviction decorators implement it, the {@link org.apache.ibatis.mapping.CacheBuilder}
+ * does not wrap the namespace cache in a {@link org.apache.ibatis.cache.decorators.SynchronizedCache}.
+ *
+ * @since 3.5.0
+ */
+public interface ThreadSafeCache extends Cache {
+
+}
@@ -15,21 +15,25 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
 
 /**
- * Simple blocking decorator 
+ * Simple blocking decorator
  *
- * Simple and inefficient version of EhCache's BlockingCache decorator.
- * It sets a lock over a cache key when the element is not found in cache.
- * This way, other threads will wait until this element is filled instead of hitting the database.
+ * When an element is not found in cache, the first thread that asks for it becomes responsible for loading it
+ * and the other threads that ask for the same key wait until it is filled instead of hitting the database.
+ * The element is filled when the loading thread puts it in the cache, that is, when its session commits
+ * (see {@link TransactionalCache}). If the loading thread removes the key instead (rollback), one of the waiting
+ * threads takes over the load. A thread waits at most <code>timeout</code> milliseconds, if set.
  * 阻塞缓存
  *
  * @author Eduardo Macarron
@@ -46,13 +50,17 @@ public class BlockingCache implements Cache {
      */
     private final Cache delegate;
     /**
-     * 加锁
+     * 正在加载的 Key
      */
-    private final ConcurrentHashMap<Object, ReentrantLock> locks;
+    private final ConcurrentHashMap<Object, Load> loads;
+
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
 
     public BlockingCache(Cache delegate) {
         this.delegate = delegate;
-        this.locks = new ConcurrentHashMap<>();
+        this.loads = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -70,7 +78,8 @@ public class BlockingCache implements Cache {
         try {
             delegate.putObject(key, value);
         } finally {
-            releaseLock(key);
+            // a value is available to anyone, an empty result only ends the load of its owner
+            releaseLoad(key, value != null);
         }
     }
 
@@ -82,18 +91,36 @@ public class BlockingCache implements Cache {
      */
     @Override
     public Object getObject(Object key) {
-        acquireLock(key);
-        Object value = delegate.getObject(key);
-        if (value != null) {
-            releaseLock(key);
+        final long deadline = timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0;
+        while (true) {
+            Load load = loads.get(key);
+            if (load == null || load.owner == Thread.currentThread()) {
+                Object value = delegate.getObject(key);
+                if (value != null || load != null) {
+                    return value;
+                }
+                load = new Load();
+                Load previous = loads.putIfAbsent(key, load);
+                if (previous == null) {
+                    // filled while this thread was looking for it?
+                    value = delegate.getObject(key);
+                    if (value != null) {
+                        releaseLoad(key, true);
+                        return value;
+                    }
+                    loadCount.incrementAndGet();
+                    return null;
+                }
+                load = previous;
+            }
+            await(key, load, deadline);
         }
-        return value;
     }
 
     @Override
     public Object removeObject(Object key) {
         // despite of its name, this method is called only to release locks
-        releaseLock(key);
+        releaseLoad(key, false);
         return null;
     }
 
@@ -107,43 +134,75 @@ public class BlockingCache implements Cache {
         return null;
     }
 
-    private ReentrantLock getLockForKey(Object key) {
-        ReentrantLock lock = new ReentrantLock();
-        ReentrantLock previous = locks.putIfAbsent(key, lock);
-        return previous == null ? lock : previous;
+    public long getTimeout() {
+        return timeout;
     }
 
-    private void acquireLock(Object key) {
-        Lock lock = getLockForKey(key);
-        if (timeout > 0) {
-            try {
-                /*
-                 * 尝试获取一把超时锁
-                 */
-                boolean acquired = lock.tryLock(timeout, TimeUnit.MILLISECONDS);
-                if (!acquired) {
-                    throw new CacheException("Couldn't get a lock in " + timeout + " for the key " + key + " at the cache " + delegate.getId());
-                }
-            } catch (InterruptedException e) {
-                throw new CacheException("Got interrupted while trying to acquire lock for key " + key, e);
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return the number of misses that this cache let through to the database
+     */
+    public long getLoadCount() {
+        return loadCount.get();
+    }
+
+    /**
+     * @return the number of times a thread waited for the load of another thread
+     */
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    /**
+     * @return the number of times a thread gave up waiting after the timeout
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    /**
+     * @return the number of keys being loaded
+     */
+    public int getPendingLoadCount() {
+        return loads.size();
+    }
+
+    private void await(Object key, Load load, long deadline) {
+        waitCount.incrementAndGet();
+        try {
+            if (deadline == 0) {
+                load.done.get();
+            } else {
+                load.done.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
             }
-        } else {
-            lock.lock();
+        } catch (TimeoutException e) {
+            timeoutCount.incrementAndGet();
+            throw new CacheException("Couldn't get a lock in " + timeout + " for the key " + key + " at the cache " + delegate.getId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheException("Got interrupted while trying to acquire lock for key " + key, e);
+        } catch (ExecutionException e) {
+            // never completed exceptionally
+            throw new CacheException("Error waiting for key " + key + ".  Cause: " + e, e);
         }
     }
 
-    private void releaseLock(Object key) {
-        ReentrantLock lock = locks.get(key);
-        if (lock.isHeldByCurrentThread()) {
-            lock.unlock();
+    private void releaseLoad(Object key, boolean anyOwner) {
+        Load load = loads.get(key);
+        if (load != null && (anyOwner || load.owner == Thread.currentThread()) && loads.remove(key, load)) {
+            load.done.complete(null);
         }
     }
 
-    public long getTimeout() {
-        return timeout;
-    }
+    /**
+     * A key that is being loaded by the {@link #owner} thread.
+     */
+    private static class Load {
 
-    public void setTimeout(long timeout) {
-        this.timeout = timeout;
+        private final Thread owner = Thread.currentThread();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
     }
-}
\ No newline at end of file
+}
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReadWriteLock;
 
 import org.apache.ibatis.cache.Cache;
@@ -33,13 +34,13 @@ public class LoggingCache implements Cache {
     private final Log log;
     private final Cache delegate;
     /**
-     * 访问次数
+     * 访问次数，线程安全的缓存不再经过 SynchronizedCache，因此使用 LongAdder 计数
      */
-    protected int requests = 0;
+    protected final LongAdder requests = new LongAdder();
     /**
      * 命中次数
      */
-    protected int hits = 0;
+    protected final LongAdder hits = new LongAdder();
 
     public LoggingCache(Cache delegate) {
         this.delegate = delegate;
@@ -63,10 +64,10 @@ public class LoggingCache implements Cache {
 
     @Override
     public Object getObject(Object key) {
-        requests++;
+        requests.increment();
         final Object value = delegate.getObject(key);
         if (value != null) {
-            hits++;
+            hits.increment();
         }
         if (log.isDebugEnabled()) {
             log.debug("Cache Hit Ratio [" + getId() + "]: " + getHitRatio());
@@ -100,7 +101,7 @@ public class LoggingCache implements Cache {
     }
 
     private double getHitRatio() {
-        return (double) hits / (double) requests;
+        return (double) hits.sum() / (double) requests.sum();
     }
 
 }
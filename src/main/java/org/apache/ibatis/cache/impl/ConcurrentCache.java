@@ -0,0 +1,207 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.ThreadSafeCache;
+
+/**
+ * Thread-safe cache with a bounded size and an optional expiry of the entries.
+ * <p>
+ * The entries are spread over up to 16 stripes, each one an access ordered map guarded by its own lock, so threads
+ * only contend when they use keys of the same stripe. Every stripe evicts its least recently used entry when it holds
+ * its share of <code>size</code>, which makes the eviction of the whole cache an approximate LRU. When
+ * <code>clearInterval</code> is set, the entries older than it are dropped when they are read.
+ * <p>
+ * As it does not need a {@link org.apache.ibatis.cache.decorators.SynchronizedCache}, the namespaces that use it
+ * (<code>&lt;cache type="CONCURRENT"/&gt;</code>) can be read by several threads at once.
+ *
+ * @since 3.5.0
+ */
+public class ConcurrentCache implements ThreadSafeCache {
+
+    private static final int MAX_STRIPES = 16;
+    private static final int MIN_STRIPE_SIZE = 32;
+
+    private final String id;
+
+    private int size = 1024;
+    private volatile long clearInterval;
+    private volatile Stripe[] stripes;
+
+    public ConcurrentCache(String id) {
+        this.id = id;
+        this.stripes = newStripes(size);
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    public void setSize(final int size) {
+        if (size <= 0) {
+            throw new CacheException("The size of cache " + id + " must be greater than 0.");
+        }
+        this.size = size;
+        this.stripes = newStripes(size);
+    }
+
+    /**
+     * @param clearInterval milliseconds after which an entry expires, 0 to keep the entries until they are evicted
+     */
+    public void setClearInterval(long clearInterval) {
+        this.clearInterval = clearInterval;
+    }
+
+    @Override
+    public int getSize() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.size();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void putObject(Object key, Object value) {
+        final long interval = clearInterval;
+        final long expiresAt = interval > 0 ? System.currentTimeMillis() + interval : Long.MAX_VALUE;
+        final Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.put(key, new CacheEntry(value, expiresAt));
+        }
+    }
+
+    @Override
+    public Object getObject(Object key) {
+        final Stripe stripe = stripeFor(key);
+        final CacheEntry entry;
+        synchronized (stripe) {
+            entry = stripe.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt != Long.MAX_VALUE && entry.expiresAt < System.currentTimeMillis()) {
+                stripe.remove(key);
+                return null;
+            }
+        }
+        return entry.value;
+    }
+
+    @Override
+    public Object removeObject(Object key) {
+        final Stripe stripe = stripeFor(key);
+        final CacheEntry entry;
+        synchronized (stripe) {
+            entry = stripe.remove(key);
+        }
+        return entry == null ? null : entry.value;
+    }
+
+    @Override
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    @Override
+    public ReadWriteLock getReadWriteLock() {
+        return null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (getId() == null) {
+            throw new CacheException("Cache instances require an ID.");
+        }
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Cache)) {
+            return false;
+        }
+
+        Cache otherCache = (Cache) o;
+        return getId().equals(otherCache.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        if (getId() == null) {
+            throw new CacheException("Cache instances require an ID.");
+        }
+        return getId().hashCode();
+    }
+
+    private Stripe stripeFor(Object key) {
+        final Stripe[] current = stripes;
+        final int h = key == null ? 0 : key.hashCode();
+        return current[(h ^ (h >>> 16)) & (current.length - 1)];
+    }
+
+    private static Stripe[] newStripes(int size) {
+        int count = 1;
+        while (count < MAX_STRIPES && count * 2 * MIN_STRIPE_SIZE <= size) {
+            count *= 2;
+        }
+        final Stripe[] stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(size / count + (i < size % count ? 1 : 0));
+        }
+        return stripes;
+    }
+
+    private static class Stripe extends LinkedHashMap<Object, CacheEntry> {
+
+        private static final long serialVersionUID = 4267176411845948333L;
+
+        private final int maxSize;
+
+        private Stripe(int maxSize) {
+            super(16, 0.75F, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, CacheEntry> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    private static class CacheEntry {
+
+        private final Object value;
+        private final long expiresAt;
+
+        private CacheEntry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
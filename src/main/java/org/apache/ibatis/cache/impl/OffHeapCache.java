@@ -0,0 +1,325 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.ThreadSafeCache;
+import org.apache.ibatis.cache.decorators.SerializedCache;
+
+/**
+ * Cache that keeps the values serialized outside of the Java heap.
+ * <p>
+ * The values must be serializable, as with a read/write cache ({@link SerializedCache}), and every
+ * {@link #getObject(Object)} returns a new copy. The serialized values are written in fixed size blocks of direct
+ * {@link ByteBuffer} segments, which are allocated as needed up to <code>capacity</code> bytes. Only the keys and
+ * the block tables stay on the heap. When there are not enough free blocks the least recently used entries are
+ * evicted. A null value takes no block but counts as one toward the capacity. Values larger than the whole capacity
+ * are not cached.
+ * <p>
+ * It can be selected with <code>&lt;cache type="org.apache.ibatis.cache.impl.OffHeapCache"&gt;</code> or
+ * <code>@CacheNamespace(implementation = OffHeapCache.class)</code>, and configured with the
+ * <code>capacity</code> and <code>blockSize</code> properties. It is thread-safe.
+ *
+ * @since 3.5.0
+ */
+public class OffHeapCache implements ThreadSafeCache {
+
+    private static final int MAX_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private static final int[] NO_BLOCKS = new int[0];
+
+    private final String id;
+
+    private long capacity = 64L * 1024 * 1024;
+    private int blockSize = 1024;
+
+    /**
+     * Entries in access order, the eldest one is evicted first.
+     */
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private int blocksPerSegment;
+    private int totalBlocks;
+    /**
+     * Blocks that have been used and released
+     */
+    private int[] freeBlocks = NO_BLOCKS;
+    private int freeBlockCount;
+    /**
+     * Blocks below this index have been handed out at least once
+     */
+    private int allocatedBlocks;
+    /**
+     * Entries of null values, each counted as one block
+     */
+    private int nullEntries;
+
+    public OffHeapCache(String id) {
+        this.id = id;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public synchronized void setCapacity(long capacity) {
+        if (capacity <= 0) {
+            throw new CacheException("The capacity of cache " + id + " must be greater than 0.");
+        }
+        this.capacity = capacity;
+        reset();
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public synchronized void setBlockSize(int blockSize) {
+        if (blockSize <= 0) {
+            throw new CacheException("The blockSize of cache " + id + " must be greater than 0.");
+        }
+        this.blockSize = blockSize;
+        reset();
+    }
+
+    @Override
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of bytes of the blocks used by the entries
+     */
+    public synchronized long getUsedBytes() {
+        return (long) (allocatedBlocks - freeBlockCount) * blockSize;
+    }
+
+    @Override
+    public void putObject(Object key, Object value) {
+        if (value != null && !(value instanceof Serializable)) {
+            throw new CacheException("OffHeapCache cannot store a non-serializable object: " + value);
+        }
+        final byte[] bytes = value == null ? null : serialize((Serializable) value);
+        synchronized (this) {
+            release(entries.remove(key));
+            initialize();
+            final int neededBlocks = bytes == null ? 1 : (bytes.length + blockSize - 1) / blockSize;
+            if (neededBlocks > totalBlocks) {
+                // larger than the whole cache
+                return;
+            }
+            while (availableBlocks() < neededBlocks) {
+                Iterator<Entry> eldest = entries.values().iterator();
+                release(eldest.next());
+                eldest.remove();
+            }
+            if (bytes == null) {
+                entries.put(key, new Entry(NO_BLOCKS, -1));
+                nullEntries++;
+                return;
+            }
+            final int[] blocks = new int[neededBlocks];
+            for (int i = 0; i < neededBlocks; i++) {
+                blocks[i] = allocateBlock();
+                final int offset = i * blockSize;
+                write(blocks[i], bytes, offset, Math.min(blockSize, bytes.length - offset));
+            }
+            entries.put(key, new Entry(blocks, bytes.length));
+        }
+    }
+
+    @Override
+    public Object getObject(Object key) {
+        final byte[] bytes;
+        synchronized (this) {
+            bytes = read(entries.get(key));
+        }
+        return bytes == null ? null : deserialize(bytes);
+    }
+
+    @Override
+    public Object removeObject(Object key) {
+        final byte[] bytes;
+        synchronized (this) {
+            final Entry entry = entries.remove(key);
+            bytes = read(entry);
+            release(entry);
+        }
+        return bytes == null ? null : deserialize(bytes);
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        freeBlockCount = 0;
+        allocatedBlocks = 0;
+        nullEntries = 0;
+    }
+
+    @Override
+    public ReadWriteLock getReadWriteLock() {
+        return null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (getId() == null) {
+            throw new CacheException("Cache instances require an ID.");
+        }
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Cache)) {
+            return false;
+        }
+
+        Cache otherCache = (Cache) o;
+        return getId().equals(otherCache.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        if (getId() == null) {
+            throw new CacheException("Cache instances require an ID.");
+        }
+        return getId().hashCode();
+    }
+
+    private void reset() {
+        entries.clear();
+        segments.clear();
+        totalBlocks = 0;
+        freeBlocks = NO_BLOCKS;
+        freeBlockCount = 0;
+        allocatedBlocks = 0;
+        nullEntries = 0;
+    }
+
+    private void initialize() {
+        if (totalBlocks == 0) {
+            long blocks = Math.max(1, capacity / blockSize);
+            totalBlocks = (int) Math.min(blocks, Integer.MAX_VALUE);
+            blocksPerSegment = Math.max(1, Math.min(totalBlocks, MAX_SEGMENT_SIZE / blockSize));
+        }
+    }
+
+    private int availableBlocks() {
+        return totalBlocks - allocatedBlocks + freeBlockCount - nullEntries;
+    }
+
+    private int allocateBlock() {
+        if (freeBlockCount > 0) {
+            return freeBlocks[--freeBlockCount];
+        }
+        final int block = allocatedBlocks++;
+        if (block / blocksPerSegment == segments.size()) {
+            final int segmentBlocks = Math.min(blocksPerSegment, totalBlocks - block);
+            segments.add(ByteBuffer.allocateDirect(segmentBlocks * blockSize));
+        }
+        return block;
+    }
+
+    private void release(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        if (entry.length < 0) {
+            nullEntries--;
+            return;
+        }
+        if (freeBlocks.length < freeBlockCount + entry.blocks.length) {
+            final int[] newFreeBlocks = new int[Math.max(freeBlockCount + entry.blocks.length, freeBlocks.length * 2)];
+            System.arraycopy(freeBlocks, 0, newFreeBlocks, 0, freeBlockCount);
+            freeBlocks = newFreeBlocks;
+        }
+        System.arraycopy(entry.blocks, 0, freeBlocks, freeBlockCount, entry.blocks.length);
+        freeBlockCount += entry.blocks.length;
+    }
+
+    private void write(int block, byte[] bytes, int offset, int length) {
+        final ByteBuffer segment = segments.get(block / blocksPerSegment);
+        segment.position((block % blocksPerSegment) * blockSize);
+        segment.put(bytes, offset, length);
+    }
+
+    private byte[] read(Entry entry) {
+        if (entry == null || entry.length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[entry.length];
+        for (int i = 0; i < entry.blocks.length; i++) {
+            final int block = entry.blocks[i];
+            final int offset = i * blockSize;
+            final ByteBuffer segment = segments.get(block / blocksPerSegment);
+            segment.position((block % blocksPerSegment) * blockSize);
+            segment.get(bytes, offset, Math.min(blockSize, bytes.length - offset));
+        }
+        return bytes;
+    }
+
+    private byte[] serialize(Serializable value) {
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+             ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(value);
+            oos.flush();
+            return bos.toByteArray();
+        } catch (Exception e) {
+            throw new CacheException("Error serializing object.  Cause: " + e, e);
+        }
+    }
+
+    private Serializable deserialize(byte[] value) {
+        try (ByteArrayInputStream bis = new ByteArrayInputStream(value);
+             ObjectInputStream ois = new SerializedCache.CustomObjectInputStream(bis)) {
+            return (Serializable) ois.readObject();
+        } catch (Exception e) {
+            throw new CacheException("Error deserializing object.  Cause: " + e, e);
+        }
+    }
+
+    private static class Entry {
+
+        private final int[] blocks;
+        /**
+         * Number of serialized bytes, -1 for a null value
+         */
+        private final int length;
+
+        private Entry(int[] blocks, int length) {
+            this.blocks = blocks;
+            this.length = length;
+        }
+    }
+
+}
@@ -21,6 +21,8 @@ import java.io.Closeable;
  * Cursor contract to handle fetching items lazily using an Iterator.
  * Cursors are a perfect fit to handle millions of items queries that would not normally fits in memory.
  * Cursor SQL queries must be ordered (resultOrdered="true") using the id columns of the resultMap.
+ * Items mapped with nested result maps are then released as soon as the id columns change, so only the item
+ * being built is retained while iterating.
  *
  * @author Guillaume Darmont / guillaume@dropinocean.com
  */
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+/**
+ * The interfaces of <code>java.util.concurrent.Flow</code>, which is only available since Java 9, with the same
+ * contract (the one of Reactive Streams). A {@link Publisher} of MyBatis can be turned into a
+ * <code>java.util.concurrent.Flow.Publisher</code> or an <code>org.reactivestreams.Publisher</code> by a simple
+ * adapter.
+ *
+ * @since 3.5.0
+ */
+public final class Flow {
+
+    private Flow() {
+        // Prevent Instantiation
+    }
+
+    /**
+     * A producer of items that are received by subscribers as they request them.
+     */
+    public interface Publisher<T> {
+
+        /**
+         * Adds the subscriber, which is called back with {@link Subscriber#onSubscribe(Subscription)}.
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * A receiver of the items of a {@link Publisher}.
+     */
+    public interface Subscriber<T> {
+
+        void onSubscribe(Subscription subscription);
+
+        void onNext(T item);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    /**
+     * The link between a {@link Publisher} and one of its subscribers.
+     */
+    public interface Subscription {
+
+        /**
+         * Asks for up to <code>n</code> more items.
+         */
+        void request(long n);
+
+        /**
+         * Stops the items, which may still be received for a while.
+         */
+        void cancel();
+    }
+
+}
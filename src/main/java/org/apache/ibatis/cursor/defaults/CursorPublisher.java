@@ -0,0 +1,176 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.Flow;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
+
+/**
+ * Publishes the results of a select through a {@link Cursor}.
+ * <p>
+ * Each subscription runs the statement in a session of its own when the first items are requested, and maps the
+ * rows only as they are requested, on the thread that requests them. The fetch size of the result set follows the
+ * number of requested items. The cursor and the session (and so the connection) are closed when all the items are
+ * published, when the select fails or when the subscription is cancelled.
+ *
+ * @since 3.5.0
+ */
+public class CursorPublisher<T> implements Flow.Publisher<T> {
+
+    private static final int MAX_FETCH_SIZE = 1000;
+
+    private final Configuration configuration;
+    private final String statement;
+    private final Object parameter;
+    private final RowBounds rowBounds;
+
+    public CursorPublisher(Configuration configuration, String statement, Object parameter, RowBounds rowBounds) {
+        this.configuration = configuration;
+        this.statement = statement;
+        this.parameter = parameter;
+        this.rowBounds = rowBounds;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        subscriber.onSubscribe(new CursorSubscription(subscriber));
+    }
+
+    private class CursorSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        /**
+         * Serializes the work of the threads that request or cancel
+         */
+        private final AtomicInteger workInProgress = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        private SqlSession sqlSession;
+        private Cursor<T> cursor;
+        private Iterator<T> iterator;
+        private boolean done;
+
+        private CursorSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("The number of requested items must be positive but was " + n);
+            } else {
+                requested.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (workInProgress.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (done) {
+                    return;
+                }
+                if (cancelled) {
+                    done = true;
+                    release();
+                    return;
+                }
+                if (invalidRequest != null) {
+                    done = true;
+                    release();
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+                final long demand = requested.get();
+                long emitted = 0;
+                try {
+                    if (demand > 0) {
+                        open(demand);
+                    }
+                    while (emitted != demand && !cancelled) {
+                        if (!iterator.hasNext()) {
+                            done = true;
+                            release();
+                            subscriber.onComplete();
+                            return;
+                        }
+                        subscriber.onNext(iterator.next());
+                        emitted++;
+                    }
+                } catch (Throwable e) {
+                    done = true;
+                    release();
+                    subscriber.onError(e);
+                    return;
+                }
+                if (emitted != 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = workInProgress.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void open(long demand) {
+            if (cursor == null) {
+                sqlSession = new DefaultSqlSessionFactory(configuration).openSession();
+                cursor = sqlSession.selectCursor(statement, parameter, rowBounds);
+                iterator = cursor.iterator();
+            }
+            if (demand != Long.MAX_VALUE && cursor instanceof DefaultCursor) {
+                ((DefaultCursor<T>) cursor).setFetchSize((int) Math.min(demand, MAX_FETCH_SIZE));
+            }
+        }
+
+        private void release() {
+            try {
+                if (cursor != null) {
+                    cursor.close();
+                }
+            } catch (Exception e) {
+                // ignore
+            } finally {
+                cursor = null;
+                iterator = null;
+                if (sqlSession != null) {
+                    sqlSession.close();
+                    sqlSession = null;
+                }
+            }
+        }
+    }
+
+}
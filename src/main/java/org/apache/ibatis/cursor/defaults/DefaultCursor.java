@@ -123,6 +123,22 @@ public class DefaultCursor<T> implements Cursor<T> {
         }
     }
 
+    /**
+     * Gives the driver a hint about the number of rows to fetch at once from now on.
+     *
+     * @since 3.5.0
+     */
+    public void setFetchSize(int rows) {
+        if (isClosed()) {
+            return;
+        }
+        try {
+            rsw.getResultSet().setFetchSize(rows);
+        } catch (SQLException e) {
+            // ignore, it is only a hint
+        }
+    }
+
     protected T fetchNextUsingRowBound() {
         T result = fetchNextObjectFromDatabase();
         while (result != null && indexWithRowBound < rowBounds.getOffset()) {
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2009-2018 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link PoolState} of a {@link ConcurrentPooledDataSource}. The statistics are kept in {@link LongAdder}s
+ * so that they can be updated without holding the pool monitor.
+ */
+public class ConcurrentPoolState extends PoolState {
+
+    protected final LongAdder requestCounter = new LongAdder();
+    protected final LongAdder accumulatedRequestTimeCounter = new LongAdder();
+    protected final LongAdder accumulatedCheckoutTimeCounter = new LongAdder();
+    protected final LongAdder claimedOverdueConnectionCounter = new LongAdder();
+    protected final LongAdder accumulatedCheckoutTimeOfOverdueConnectionsCounter = new LongAdder();
+    protected final LongAdder accumulatedWaitTimeCounter = new LongAdder();
+    protected final LongAdder hadToWaitCounter = new LongAdder();
+    protected final LongAdder badConnectionCounter = new LongAdder();
+
+    public ConcurrentPoolState(ConcurrentPooledDataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    public long getRequestCount() {
+        return requestCounter.sum();
+    }
+
+    @Override
+    public long getAverageRequestTime() {
+        long requests = requestCounter.sum();
+        return requests == 0 ? 0 : accumulatedRequestTimeCounter.sum() / requests;
+    }
+
+    @Override
+    public long getAverageWaitTime() {
+        long waits = hadToWaitCounter.sum();
+        return waits == 0 ? 0 : accumulatedWaitTimeCounter.sum() / waits;
+    }
+
+    @Override
+    public long getHadToWaitCount() {
+        return hadToWaitCounter.sum();
+    }
+
+    @Override
+    public long getBadConnectionCount() {
+        return badConnectionCounter.sum();
+    }
+
+    @Override
+    public long getClaimedOverdueConnectionCount() {
+        return claimedOverdueConnectionCounter.sum();
+    }
+
+    @Override
+    public long getAverageOverdueCheckoutTime() {
+        long overdue = claimedOverdueConnectionCounter.sum();
+        return overdue == 0 ? 0 : accumulatedCheckoutTimeOfOverdueConnectionsCounter.sum() / overdue;
+    }
+
+    @Override
+    public long getAverageCheckoutTime() {
+        long requests = requestCounter.sum();
+        return requests == 0 ? 0 : accumulatedCheckoutTimeCounter.sum() / requests;
+    }
+
+    @Override
+    public int getIdleConnectionCount() {
+        return ((ConcurrentPooledDataSource) dataSource).getIdleConnectionCount();
+    }
+
+    @Override
+    public int getActiveConnectionCount() {
+        return ((ConcurrentPooledDataSource) dataSource).getActiveConnectionCount();
+    }
+
+}
@@ -0,0 +1,318 @@
+/**
+ * Copyright 2009-2018 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * A {@link PooledDataSource} that does not serialize borrowing and returning connections on a single monitor.
+ * <p>
+ * Idle connections are kept in a lock-free {@link IdleConnectionBag}: a thread gets back the connection it
+ * returned last when it is still idle, and threads waiting for a connection are served in arrival order
+ * by the threads returning one. The configuration properties and the {@link PoolState} statistics are the
+ * same as those of {@link PooledDataSource}.
+ * <p>
+ * It can be selected with the <code>poolType</code> property of {@link PooledDataSourceFactory}.
+ */
+public class ConcurrentPooledDataSource extends PooledDataSource {
+
+    private static final Log log = LogFactory.getLog(ConcurrentPooledDataSource.class);
+
+    private final ConcurrentPoolState state = new ConcurrentPoolState(this);
+
+    private final IdleConnectionBag idleConnections = new IdleConnectionBag();
+
+    private final Set<PooledConnection> activeConnections = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Number of open connections, active or idle. A slot is reserved before a new connection is opened.
+     */
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    public ConcurrentPooledDataSource() {
+        super();
+    }
+
+    public ConcurrentPooledDataSource(UnpooledDataSource dataSource) {
+        super(dataSource);
+    }
+
+    public ConcurrentPooledDataSource(String driver, String url, String username, String password) {
+        super(driver, url, username, password);
+    }
+
+    public ConcurrentPooledDataSource(String driver, String url, Properties driverProperties) {
+        super(driver, url, driverProperties);
+    }
+
+    public ConcurrentPooledDataSource(ClassLoader driverClassLoader, String driver, String url, String username, String password) {
+        super(driverClassLoader, driver, url, username, password);
+    }
+
+    public ConcurrentPooledDataSource(ClassLoader driverClassLoader, String driver, String url, Properties driverProperties) {
+        super(driverClassLoader, driver, url, driverProperties);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return popConnection(dataSource.getUsername(), dataSource.getPassword()).getProxyConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return popConnection(username, password).getProxyConnection();
+    }
+
+    @Override
+    public PoolState getPoolState() {
+        return state;
+    }
+
+    int getIdleConnectionCount() {
+        return idleConnections.size();
+    }
+
+    int getActiveConnectionCount() {
+        return connectionCount.get() - idleConnections.size();
+    }
+
+    /*
+     * Closes all active and idle connections in the pool
+     */
+    @Override
+    public void forceCloseAll() {
+        expectedConnectionTypeCode = assembleConnectionTypeCode(dataSource.getUrl(), dataSource.getUsername(), dataSource.getPassword());
+        for (PooledConnection conn : activeConnections) {
+            if (activeConnections.remove(conn)) {
+                connectionCount.decrementAndGet();
+                closeQuietly(conn);
+            }
+        }
+        PooledConnection conn;
+        while ((conn = idleConnections.poll()) != null) {
+            connectionCount.decrementAndGet();
+            closeQuietly(conn);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("ConcurrentPooledDataSource forcefully closed/removed all connections.");
+        }
+    }
+
+    @Override
+    protected void pushConnection(PooledConnection conn) throws SQLException {
+        boolean wasActive = activeConnections.remove(conn);
+        if (conn.isValid()) {
+            state.accumulatedCheckoutTimeCounter.add(conn.getCheckoutTime());
+            if (!conn.getRealConnection().getAutoCommit()) {
+                conn.getRealConnection().rollback();
+            }
+            if (conn.getConnectionTypeCode() == expectedConnectionTypeCode) {
+                PooledConnection newConn = new PooledConnection(conn.getRealConnection(), this);
+                newConn.setStatementCache(conn.getStatementCache());
+                newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
+                newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
+                conn.invalidate();
+                if (idleConnections.offer(newConn, poolMaximumIdleConnections)) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Returned connection " + newConn.getRealHashCode() + " to pool.");
+                    }
+                    return;
+                }
+                newConn.invalidate();
+            }
+            if (wasActive) {
+                connectionCount.decrementAndGet();
+            }
+            conn.getRealConnection().close();
+            if (log.isDebugEnabled()) {
+                log.debug("Closed connection " + conn.getRealHashCode() + ".");
+            }
+            conn.invalidate();
+        } else {
+            if (log.isDebugEnabled()) {
+                log.debug("A bad connection (" + conn.getRealHashCode() + ") attempted to return to the pool, discarding connection.");
+            }
+            if (wasActive) {
+                connectionCount.decrementAndGet();
+            }
+            state.badConnectionCounter.increment();
+            PooledDataSource.closeCachedStatements(conn);
+        }
+    }
+
+    private PooledConnection popConnection(String username, String password) throws SQLException {
+        boolean countedWait = false;
+        PooledConnection conn = null;
+        long t = System.currentTimeMillis();
+        int localBadConnectionCount = 0;
+
+        while (conn == null) {
+            conn = idleConnections.poll();
+            if (conn != null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Checked out connection " + conn.getRealHashCode() + " from pool.");
+                }
+            } else if (reserveConnection()) {
+                try {
+                    conn = new PooledConnection(dataSource.getConnection(), this);
+                } catch (SQLException e) {
+                    connectionCount.decrementAndGet();
+                    throw e;
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug("Created connection " + conn.getRealHashCode() + ".");
+                }
+            } else {
+                conn = claimOverdueConnection();
+                if (conn == null) {
+                    // Must wait
+                    try {
+                        if (!countedWait) {
+                            state.hadToWaitCounter.increment();
+                            countedWait = true;
+                        }
+                        if (log.isDebugEnabled()) {
+                            log.debug("Waiting as long as " + poolTimeToWait + " milliseconds for connection.");
+                        }
+                        long wt = System.currentTimeMillis();
+                        conn = idleConnections.poll(poolTimeToWait, TimeUnit.MILLISECONDS);
+                        state.accumulatedWaitTimeCounter.add(System.currentTimeMillis() - wt);
+                        if (conn != null) {
+                            if (log.isDebugEnabled()) {
+                                log.debug("Checked out connection " + conn.getRealHashCode() + " from pool.");
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+            if (conn != null) {
+                // ping to server and check the connection is valid or not
+                if (conn.isValid()) {
+                    if (!conn.getRealConnection().getAutoCommit()) {
+                        conn.getRealConnection().rollback();
+                    }
+                    conn.setConnectionTypeCode(assembleConnectionTypeCode(dataSource.getUrl(), username, password));
+                    conn.setCheckoutTimestamp(System.currentTimeMillis());
+                    conn.setLastUsedTimestamp(System.currentTimeMillis());
+                    activeConnections.add(conn);
+                    state.requestCounter.increment();
+                    state.accumulatedRequestTimeCounter.add(System.currentTimeMillis() - t);
+                } else {
+                    if (log.isDebugEnabled()) {
+                        log.debug("A bad connection (" + conn.getRealHashCode() + ") was returned from the pool, getting another connection.");
+                    }
+                    connectionCount.decrementAndGet();
+                    state.badConnectionCounter.increment();
+                    localBadConnectionCount++;
+                    conn = null;
+                    if (localBadConnectionCount > (poolMaximumIdleConnections + poolMaximumLocalBadConnectionTolerance)) {
+                        if (log.isDebugEnabled()) {
+                            log.debug("ConcurrentPooledDataSource: Could not get a good connection to the database.");
+                        }
+                        throw new SQLException("ConcurrentPooledDataSource: Could not get a good connection to the database.");
+                    }
+                }
+            }
+        }
+
+        if (conn == null) {
+            if (log.isDebugEnabled()) {
+                log.debug("ConcurrentPooledDataSource: Unknown severe error condition.  The connection pool returned a null connection.");
+            }
+            throw new SQLException("ConcurrentPooledDataSource: Unknown severe error condition.  The connection pool returned a null connection.");
+        }
+
+        return conn;
+    }
+
+    private boolean reserveConnection() {
+        int current;
+        do {
+            current = connectionCount.get();
+            if (current >= poolMaximumActiveConnections) {
+                return false;
+            }
+        } while (!connectionCount.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /*
+     * Takes over the connection that has been checked out for the longest time if it exceeded poolMaximumCheckoutTime.
+     * The claimed connection keeps the active slot of the overdue one.
+     */
+    private PooledConnection claimOverdueConnection() {
+        PooledConnection oldestActiveConnection = null;
+        for (PooledConnection conn : activeConnections) {
+            if (oldestActiveConnection == null || conn.getCheckoutTimestamp() < oldestActiveConnection.getCheckoutTimestamp()) {
+                oldestActiveConnection = conn;
+            }
+        }
+        if (oldestActiveConnection == null) {
+            return null;
+        }
+        long longestCheckoutTime = oldestActiveConnection.getCheckoutTime();
+        if (longestCheckoutTime <= poolMaximumCheckoutTime || !activeConnections.remove(oldestActiveConnection)) {
+            return null;
+        }
+        state.claimedOverdueConnectionCounter.increment();
+        state.accumulatedCheckoutTimeOfOverdueConnectionsCounter.add(longestCheckoutTime);
+        state.accumulatedCheckoutTimeCounter.add(longestCheckoutTime);
+        try {
+            if (!oldestActiveConnection.getRealConnection().getAutoCommit()) {
+                oldestActiveConnection.getRealConnection().rollback();
+            }
+        } catch (SQLException e) {
+            // the bad connection is detected by the validity check of the caller
+            log.debug("Bad connection. Could not roll back");
+        }
+        PooledConnection conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this);
+        conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
+        conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
+        // the statements cached by the overdue connection are closed by its thread when it returns the connection
+        oldestActiveConnection.invalidate();
+        if (log.isDebugEnabled()) {
+            log.debug("Claimed overdue connection " + conn.getRealHashCode() + ".");
+        }
+        return conn;
+    }
+
+    private void closeQuietly(PooledConnection conn) {
+        try {
+            conn.invalidate();
+            Connection realConn = conn.getRealConnection();
+            if (!realConn.getAutoCommit()) {
+                realConn.rollback();
+            }
+            realConn.close();
+        } catch (Exception e) {
+            // ignore
+        }
+    }
+
+}
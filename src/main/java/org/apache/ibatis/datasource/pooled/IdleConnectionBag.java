@@ -0,0 +1,148 @@
+/**
+ * Copyright 2009-2018 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free holder of the idle connections of a {@link ConcurrentPooledDataSource}.
+ * <p>
+ * Every idle connection is wrapped in an entry that can be claimed exactly once. A thread first tries the
+ * connection it returned last (thread-affine fast path), then the shared deque. Threads that find the bag
+ * empty wait on a fair {@link SynchronousQueue}, and returning threads hand their connection directly to
+ * the longest waiting thread.
+ */
+class IdleConnectionBag {
+
+    private final ConcurrentLinkedDeque<Entry> sharedEntries = new ConcurrentLinkedDeque<>();
+    private final ThreadLocal<Entry> lastReturnedEntry = new ThreadLocal<>();
+    private final SynchronousQueue<Entry> handoffQueue = new SynchronousQueue<>(true);
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /*
+     * Adds an idle connection unless the bag already holds maxSize connections
+     *
+     * @return true if the connection has been accepted
+     */
+    boolean offer(PooledConnection connection, int maxSize) {
+        int current;
+        do {
+            current = size.get();
+            if (current >= maxSize) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+
+        Entry entry = new Entry(connection);
+        sharedEntries.offerLast(entry);
+        lastReturnedEntry.set(entry);
+        // keep offering to waiting threads until somebody claimed the entry
+        for (int i = 0; waiters.get() > 0; i++) {
+            if (entry.isClaimed() || handoffQueue.offer(entry)) {
+                break;
+            } else if ((i & 0xff) == 0xff) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+            } else {
+                Thread.yield();
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Takes an idle connection without waiting
+     *
+     * @return an idle connection, or null if there is none
+     */
+    PooledConnection poll() {
+        Entry entry = lastReturnedEntry.get();
+        if (entry != null) {
+            lastReturnedEntry.remove();
+            if (claim(entry)) {
+                sharedEntries.removeLastOccurrence(entry);
+                return entry.connection;
+            }
+        }
+        while ((entry = sharedEntries.pollFirst()) != null) {
+            if (claim(entry)) {
+                return entry.connection;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Takes an idle connection, waiting up to the given time for another thread to return one
+     *
+     * @return an idle connection, or null if none became available in time
+     */
+    PooledConnection poll(long timeout, TimeUnit unit) throws InterruptedException {
+        waiters.incrementAndGet();
+        try {
+            long remaining = unit.toNanos(timeout);
+            long deadline = System.nanoTime() + remaining;
+            do {
+                // check again after registering as a waiter so that no returned connection is missed
+                PooledConnection connection = poll();
+                if (connection != null) {
+                    return connection;
+                }
+                Entry entry = handoffQueue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (entry != null && claim(entry)) {
+                    sharedEntries.removeLastOccurrence(entry);
+                    return entry.connection;
+                }
+                remaining = deadline - System.nanoTime();
+            } while (remaining > 0);
+            return null;
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    private boolean claim(Entry entry) {
+        if (entry.claimed.compareAndSet(false, true)) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private static final class Entry {
+
+        private final PooledConnection connection;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Entry(PooledConnection connection) {
+            this.connection = connection;
+        }
+
+        private boolean isClaimed() {
+            return claimed.get();
+        }
+    }
+
+}
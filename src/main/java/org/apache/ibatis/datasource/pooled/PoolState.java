@@ -17,6 +17,7 @@ package org.apache.ibatis.datasource.pooled;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * PoolState 是用于管理 PooledConnection 对象状态的组件，他通过两个 ArrayList 集合
@@ -64,6 +65,12 @@ public class PoolState {
      * 无效的连接数
      */
     protected long badConnectionCount = 0;
+    /**
+     * 语句缓存的命中、未命中和淘汰次数，由各个连接在不持有连接池锁的情况下更新
+     */
+    protected final LongAdder statementCacheHitCounter = new LongAdder();
+    protected final LongAdder statementCacheMissCounter = new LongAdder();
+    protected final LongAdder statementCacheEvictionCounter = new LongAdder();
 
     public PoolState(PooledDataSource dataSource) {
         this.dataSource = dataSource;
@@ -103,6 +110,18 @@ public class PoolState {
     }
 
 
+    public long getStatementCacheHitCount() {
+        return statementCacheHitCounter.sum();
+    }
+
+    public long getStatementCacheMissCount() {
+        return statementCacheMissCounter.sum();
+    }
+
+    public long getStatementCacheEvictionCount() {
+        return statementCacheEvictionCounter.sum();
+    }
+
     public synchronized int getIdleConnectionCount() {
         return idleConnections.size();
     }
@@ -126,6 +145,7 @@ public class PoolState {
         builder.append("\n poolPingEnabled                ").append(dataSource.poolPingEnabled);
         builder.append("\n poolPingQuery                  ").append(dataSource.poolPingQuery);
         builder.append("\n poolPingConnectionsNotUsedFor  ").append(dataSource.poolPingConnectionsNotUsedFor);
+        builder.append("\n poolMaxCachedStatements        ").append(dataSource.poolMaximumCachedStatements);
         builder.append("\n ---STATUS-----------------------------------------------------");
         builder.append("\n activeConnections              ").append(getActiveConnectionCount());
         builder.append("\n idleConnections                ").append(getIdleConnectionCount());
@@ -137,6 +157,9 @@ public class PoolState {
         builder.append("\n hadToWait                      ").append(getHadToWaitCount());
         builder.append("\n averageWaitTime                ").append(getAverageWaitTime());
         builder.append("\n badConnectionCount             ").append(getBadConnectionCount());
+        builder.append("\n statementCacheHits             ").append(getStatementCacheHitCount());
+        builder.append("\n statementCacheMisses           ").append(getStatementCacheMissCount());
+        builder.append("\n statementCacheEvictions        ").append(getStatementCacheEvictionCount());
         builder.append("\n===============================================================");
         return builder.toString();
     }
@@ -66,6 +66,10 @@ class PooledConnection implements InvocationHandler {
      * 检测当前 PooledConnection 是否有效，主要是为防止程序通过 close() 方法将去
      */
     private boolean valid;
+    /**
+     * 在真正的数据库连接上缓存的语句，连接归还到连接池时转交给新的 PooledConnection
+     */
+    private PooledStatementCache statementCache;
 
     /*
      * Constructor for SimplePooledConnection that uses the Connection and PooledDataSource passed in
@@ -118,6 +122,31 @@ class PooledConnection implements InvocationHandler {
         return proxyConnection;
     }
 
+    /*
+     * Getter for the statements cached on the real connection, created on first use
+     *
+     * @return The statement cache, or null if the pool does not cache statements
+     */
+    public PooledStatementCache getStatementCache() {
+        if (statementCache == null && dataSource.getPoolMaximumCachedStatements() > 0) {
+            statementCache = new PooledStatementCache(dataSource.getPoolMaximumCachedStatements(), dataSource.getPoolState());
+        }
+        return statementCache;
+    }
+
+    PooledStatementCache statementCacheIfPresent() {
+        return statementCache;
+    }
+
+    /*
+     * Setter for the statements cached on the real connection
+     *
+     * @param statementCache - the statement cache of the previous wrapper of the real connection
+     */
+    public void setStatementCache(PooledStatementCache statementCache) {
+        this.statementCache = statementCache;
+    }
+
     /*
      * Gets the hashcode of the real connection (or 0 if it is null)
      *
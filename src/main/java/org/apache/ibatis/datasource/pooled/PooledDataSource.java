@@ -51,7 +51,7 @@ public class PooledDataSource implements DataSource {
     /**
      * 记录 UnpooledDataSource 对象，用于生成真实的数据库连接对象，构造函数中会初始化该字段
      */
-    private final UnpooledDataSource dataSource;
+    protected final UnpooledDataSource dataSource;
 
     // OPTIONAL CONFIGURATION FIELDS
     /**
@@ -86,10 +86,14 @@ public class PooledDataSource implements DataSource {
      * 当连接超过 poolPingConnectionsNotUsedFor 毫秒未使用时，会发送一次测试 SQL 语句，检测连接是否正常
      */
     protected int poolPingConnectionsNotUsedFor;
+    /**
+     * 每个连接上最多缓存的语句数，0 表示不缓存
+     */
+    protected int poolMaximumCachedStatements;
     /**
      * 根据数据库的 URL、用户名和密码生成一个 hash 值，该 hash 值用于标志着当前的连接池，在构造函数中初始化
      */
-    private int expectedConnectionTypeCode;
+    protected int expectedConnectionTypeCode;
 
     public PooledDataSource() {
         dataSource = new UnpooledDataSource();
@@ -270,6 +274,19 @@ public class PooledDataSource implements DataSource {
         forceCloseAll();
     }
 
+    /*
+     * The maximum number of statements kept open on each connection after the sessions
+     * that used them are closed, so that they can be reused by the next sessions (0 to disable).
+     *
+     * @param poolMaximumCachedStatements The maximum number of cached statements per connection
+     *
+     * @since 3.5.0
+     */
+    public void setPoolMaximumCachedStatements(int poolMaximumCachedStatements) {
+        this.poolMaximumCachedStatements = poolMaximumCachedStatements;
+        forceCloseAll();
+    }
+
     public String getDriver() {
         return dataSource.getDriver();
     }
@@ -326,6 +343,10 @@ public class PooledDataSource implements DataSource {
         return poolPingEnabled;
     }
 
+    public int getPoolMaximumCachedStatements() {
+        return poolMaximumCachedStatements;
+    }
+
     public int getPoolPingConnectionsNotUsedFor() {
         return poolPingConnectionsNotUsedFor;
     }
@@ -374,7 +395,7 @@ public class PooledDataSource implements DataSource {
         return state;
     }
 
-    private int assembleConnectionTypeCode(String url, String username, String password) {
+    protected int assembleConnectionTypeCode(String url, String username, String password) {
         return ("" + url + username + password).hashCode();
     }
 
@@ -388,6 +409,7 @@ public class PooledDataSource implements DataSource {
      */
     protected void pushConnection(PooledConnection conn) throws SQLException {
 
+        boolean discarded = false;
         synchronized (state) {
             // 将连接从活跃状态移除
             state.activeConnections.remove(conn);
@@ -399,6 +421,7 @@ public class PooledDataSource implements DataSource {
                         conn.getRealConnection().rollback();
                     }
                     PooledConnection newConn = new PooledConnection(conn.getRealConnection(), this);
+                    newConn.setStatementCache(conn.getStatementCache());
                     state.idleConnections.add(newConn);
                     newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
                     newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
@@ -427,8 +450,12 @@ public class PooledDataSource implements DataSource {
                 }
                 // 统计无效 PooledConnection 对象个数
                 state.badConnectionCount++;
+                discarded = true;
             }
         }
+        if (discarded) {
+            closeCachedStatements(conn);
+        }
     }
 
     /**
@@ -491,6 +518,7 @@ public class PooledDataSource implements DataSource {
                             conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this);
                             conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
                             conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
+                            // 超时的连接可能仍在被原线程使用，其缓存的语句不转移给新的连接，由原线程归还连接时关闭
                             oldestActiveConnection.invalidate();
                             if (log.isDebugEnabled()) {
                                 log.debug("Claimed overdue connection " + conn.getRealHashCode() + ".");
@@ -625,6 +653,34 @@ public class PooledDataSource implements DataSource {
         return conn;
     }
 
+    /*
+     * Closes the statements cached by a connection that is discarded when it is returned, e.g. a claimed overdue
+     * connection. Only the thread that returns it may do so, because the cache is used by one thread at a time.
+     */
+    static void closeCachedStatements(PooledConnection conn) {
+        PooledStatementCache statementCache = conn.statementCacheIfPresent();
+        if (statementCache != null) {
+            statementCache.clear();
+        }
+    }
+
+    /**
+     * Gets the statements cached on the real connection of a pooled connection.
+     *
+     * @param conn the pooled connection
+     * @return the statement cache, or null if the connection is not pooled or the pool does not cache statements
+     * @since 3.5.0
+     */
+    public static PooledStatementCache getStatementCache(Connection conn) {
+        if (Proxy.isProxyClass(conn.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(conn);
+            if (handler instanceof PooledConnection) {
+                return ((PooledConnection) handler).getStatementCache();
+            }
+        }
+        return null;
+    }
+
     protected void finalize() throws Throwable {
         forceCloseAll();
         super.finalize();
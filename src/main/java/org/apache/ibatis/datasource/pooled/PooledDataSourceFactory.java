@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2015 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,6 +15,9 @@
  */
 package org.apache.ibatis.datasource.pooled;
 
+import java.util.Properties;
+
+import org.apache.ibatis.datasource.DataSourceException;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
 
 /**
@@ -22,8 +25,29 @@ import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
  */
 public class PooledDataSourceFactory extends UnpooledDataSourceFactory {
 
+  private static final String POOL_TYPE_PROPERTY = "poolType";
+  private static final String SYNCHRONIZED_POOL_TYPE = "synchronized";
+  private static final String CONCURRENT_POOL_TYPE = "concurrent";
+
   public PooledDataSourceFactory() {
     this.dataSource = new PooledDataSource();
   }
 
+  /**
+   * Besides the properties of {@link PooledDataSource}, accepts <code>poolType</code>:
+   * <code>synchronized</code> (default) or <code>concurrent</code> for a {@link ConcurrentPooledDataSource}.
+   */
+  @Override
+  public void setProperties(Properties properties) {
+    Properties dataSourceProperties = new Properties();
+    dataSourceProperties.putAll(properties);
+    String poolType = (String) dataSourceProperties.remove(POOL_TYPE_PROPERTY);
+    if (CONCURRENT_POOL_TYPE.equalsIgnoreCase(poolType)) {
+      this.dataSource = new ConcurrentPooledDataSource();
+    } else if (poolType != null && !SYNCHRONIZED_POOL_TYPE.equalsIgnoreCase(poolType)) {
+      throw new DataSourceException("Unknown pool type: " + poolType);
+    }
+    super.setProperties(dataSourceProperties);
+  }
+
 }
@@ -0,0 +1,129 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statements kept open on a pooled connection, so that the sessions that borrow the same real connection one after
+ * the other do not prepare them again.
+ * <p>
+ * A statement is taken out of the cache while a session uses it and is put back when the session is done with it,
+ * so only the unused statements are closed when the cache holds more than <code>poolMaximumCachedStatements</code>
+ * of them (the least recently used first). A cache is used by one thread at a time, like its connection.
+ *
+ * @since 3.5.0
+ */
+public class PooledStatementCache {
+
+    private final int maxSize;
+    private final PoolState state;
+    private final LinkedHashMap<Object, Statement> statements = new LinkedHashMap<>(16, 0.75F, true);
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public PooledStatementCache(int maxSize, PoolState state) {
+        this.maxSize = maxSize;
+        this.state = state;
+    }
+
+    /**
+     * Takes a statement out of the cache.
+     *
+     * @param key the key the statement was put with, usually its SQL
+     * @return the statement, or null if none is cached
+     */
+    public Statement take(Object key) {
+        Statement statement = statements.remove(key);
+        if (statement != null) {
+            hitCount++;
+            state.statementCacheHitCounter.increment();
+        } else {
+            missCount++;
+            state.statementCacheMissCounter.increment();
+        }
+        return statement;
+    }
+
+    /**
+     * Puts back a statement that is not used anymore, closing the least recently used statements over the limit.
+     */
+    public void put(Object key, Statement statement) {
+        Statement previous = statements.put(key, statement);
+        if (previous != null && previous != statement) {
+            close(previous);
+        }
+        Iterator<Statement> eldest = statements.values().iterator();
+        while (statements.size() > maxSize) {
+            Statement evicted = eldest.next();
+            eldest.remove();
+            close(evicted);
+            evictionCount++;
+            state.statementCacheEvictionCounter.increment();
+        }
+    }
+
+    /**
+     * Closes all the cached statements.
+     */
+    public void clear() {
+        for (Statement statement : statements.values()) {
+            close(statement);
+        }
+        statements.clear();
+    }
+
+    public int getSize() {
+        return statements.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    private void close(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // ignore
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PooledStatementCache{size=" + statements.size() + ", maxSize=" + maxSize + ", hits=" + hitCount
+                + ", misses=" + missCount + ", evictions=" + evictionCount + "}";
+    }
+
+}
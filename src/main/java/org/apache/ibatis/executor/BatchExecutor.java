@@ -15,11 +15,16 @@
  */
 package org.apache.ibatis.executor;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
 import java.sql.BatchUpdateException;
+import java.sql.CallableStatement;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -30,6 +35,7 @@ import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.ExceptionUtil;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -44,8 +50,16 @@ public class BatchExecutor extends BaseExecutor {
 
   private final List<Statement> statementList = new ArrayList<>();
   private final List<BatchResult> batchResultList = new ArrayList<>();
+  /**
+   * The rows of the multi-row inserts, null for the statements executed as a JDBC batch
+   */
+  private final List<MultiRowInsert> multiRowInsertList = new ArrayList<>();
   private String currentSql;
   private MappedStatement currentStatement;
+  /**
+   * Approximate size of the parameter values and parameter objects held since the last flush
+   */
+  private long retainedBytes;
 
   public BatchExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
@@ -56,27 +70,111 @@ public class BatchExecutor extends BaseExecutor {
     final Configuration configuration = ms.getConfiguration();
     final StatementHandler handler = configuration.newStatementHandler(this, ms, parameterObject, RowBounds.DEFAULT, null, null);
     final BoundSql boundSql = handler.getBoundSql();
+    final boolean countBytes = configuration.getBatchAutoFlushBytes() != null;
+    batch(ms, handler, boundSql, parameterObject, countBytes);
+    if (countBytes) {
+      // the parameter object is held by the BatchResult until the flush
+      retainedBytes += 16 + 8L * boundSql.getParameterMappings().size();
+    }
+    if (isAutoFlushNeeded(configuration)) {
+      flushStatements();
+    }
+    return BATCH_UPDATE_RETURN_VALUE;
+  }
+
+  private void batch(MappedStatement ms, StatementHandler handler, BoundSql boundSql, Object parameterObject, boolean countBytes) throws SQLException {
+    final Configuration configuration = ms.getConfiguration();
     final String sql = boundSql.getSql();
     final Statement stmt;
     if (sql.equals(currentSql) && ms.equals(currentStatement)) {
       int last = statementList.size() - 1;
+      MultiRowInsert multiRowInsert = multiRowInsertList.get(last);
+      if (multiRowInsert != null) {
+        if (multiRowInsert.isFull()) {
+          addMultiRowInsert(multiRowInsert.next(), ms, boundSql, parameterObject, countBytes);
+        } else {
+          addRow(multiRowInsert, boundSql, parameterObject, countBytes);
+          batchResultList.get(last).addParameterObject(parameterObject);
+        }
+        return;
+      }
       stmt = statementList.get(last);
       applyTransactionTimeout(stmt);
-     handler.parameterize(stmt);//fix Issues 322
+     handler.parameterize(countBytes ? countBoundBytes(stmt) : stmt);//fix Issues 322
       BatchResult batchResult = batchResultList.get(last);
       batchResult.addParameterObject(parameterObject);
     } else {
+      MultiRowInsert multiRowInsert = MultiRowInsert.forStatement(ms, boundSql, configuration.getMultiRowInsertSize());
+      if (multiRowInsert != null) {
+        addMultiRowInsert(multiRowInsert, ms, boundSql, parameterObject, countBytes);
+        return;
+      }
       Connection connection = getConnection(ms.getStatementLog());
       stmt = handler.prepare(connection, transaction.getTimeout());
-      handler.parameterize(stmt);    //fix Issues 322
+      handler.parameterize(countBytes ? countBoundBytes(stmt) : stmt);    //fix Issues 322
       currentSql = sql;
       currentStatement = ms;
       statementList.add(stmt);
+      multiRowInsertList.add(null);
       batchResultList.add(new BatchResult(ms, sql, parameterObject));
     }
   // handler.parameterize(stmt);
     handler.batch(stmt);
-    return BATCH_UPDATE_RETURN_VALUE;
+  }
+
+  private boolean isAutoFlushNeeded(Configuration configuration) {
+    final Integer maxStatements = configuration.getBatchAutoFlushStatements();
+    final Integer maxBatchSize = configuration.getBatchAutoFlushSize();
+    final Long maxBytes = configuration.getBatchAutoFlushBytes();
+    return (maxStatements != null && statementList.size() >= maxStatements)
+        || (maxBatchSize != null && batchResultList.get(batchResultList.size() - 1).getParameterObjects().size() >= maxBatchSize)
+        || (maxBytes != null && retainedBytes >= maxBytes);
+  }
+
+  /*
+   * Counts the values as they are bound, since the driver holds them until the flush, instead of reading them again
+   */
+  private Statement countBoundBytes(Statement stmt) {
+    InvocationHandler handler = (proxy, method, args) -> {
+      if (args != null && args.length > 1 && args[0] instanceof Integer && method.getName().startsWith("set")) {
+        retainedBytes += estimateBytes(args[1]);
+      }
+      try {
+        return method.invoke(stmt, args);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    };
+    ClassLoader cl = PreparedStatement.class.getClassLoader();
+    return (Statement) Proxy.newProxyInstance(cl, new Class[]{PreparedStatement.class, CallableStatement.class}, handler);
+  }
+
+  private static long estimateBytes(Object value) {
+    if (value instanceof CharSequence) {
+      return 40 + 2L * ((CharSequence) value).length();
+    } else if (value instanceof byte[]) {
+      return 16 + ((byte[]) value).length;
+    }
+    return 16;
+  }
+
+  private void addRow(MultiRowInsert multiRowInsert, BoundSql boundSql, Object parameterObject, boolean countBytes) {
+    Object[] values = multiRowInsert.addRow(boundSql, parameterObject);
+    if (countBytes) {
+      // the multi-row insert holds the values it has read until the flush
+      for (Object value : values) {
+        retainedBytes += estimateBytes(value);
+      }
+    }
+  }
+
+  private void addMultiRowInsert(MultiRowInsert multiRowInsert, MappedStatement ms, BoundSql boundSql, Object parameterObject, boolean countBytes) {
+    addRow(multiRowInsert, boundSql, parameterObject, countBytes);
+    currentSql = boundSql.getSql();
+    currentStatement = ms;
+    statementList.add(null);
+    multiRowInsertList.add(multiRowInsert);
+    batchResultList.add(new BatchResult(ms, currentSql, parameterObject));
   }
 
   @Override
@@ -116,9 +214,16 @@ public class BatchExecutor extends BaseExecutor {
       }
       for (int i = 0, n = statementList.size(); i < n; i++) {
         Statement stmt = statementList.get(i);
-        applyTransactionTimeout(stmt);
         BatchResult batchResult = batchResultList.get(i);
+        MultiRowInsert multiRowInsert = multiRowInsertList.get(i);
         try {
+          if (multiRowInsert != null) {
+            batchResult.setUpdateCounts(toUpdateCounts(executeMultiRowInsert(multiRowInsert, batchResult),
+                batchResult.getParameterObjects().size()));
+            results.add(batchResult);
+            continue;
+          }
+          applyTransactionTimeout(stmt);
           batchResult.setUpdateCounts(stmt.executeBatch());
           MappedStatement ms = batchResult.getMappedStatement();
           List<Object> parameterObjects = batchResult.getParameterObjects();
@@ -149,15 +254,48 @@ public class BatchExecutor extends BaseExecutor {
         }
         results.add(batchResult);
       }
+      BatchFlushListener batchFlushListener = configuration.getBatchFlushListener();
+      if (batchFlushListener != null && !results.isEmpty()) {
+        batchFlushListener.onFlush(results);
+      }
       return results;
     } finally {
       for (Statement stmt : statementList) {
         closeStatement(stmt);
       }
       currentSql = null;
+      retainedBytes = 0;
       statementList.clear();
+      multiRowInsertList.clear();
       batchResultList.clear();
     }
   }
 
+  /*
+   * A BatchResult holds one update count per parameter object, as with a JDBC batch
+   */
+  private static int[] toUpdateCounts(int updateCount, int rows) {
+    int[] updateCounts = new int[rows];
+    Arrays.fill(updateCounts, updateCount == rows ? 1 : Statement.SUCCESS_NO_INFO);
+    return updateCounts;
+  }
+
+  private int executeMultiRowInsert(MultiRowInsert multiRowInsert, BatchResult batchResult) throws SQLException {
+    final MappedStatement ms = batchResult.getMappedStatement();
+    final List<Object> parameterObjects = batchResult.getParameterObjects();
+    final StatementHandler handler = ms.getConfiguration().newStatementHandler(this, ms, parameterObjects,
+        RowBounds.DEFAULT, null, multiRowInsert.getBoundSql(parameterObjects));
+    Statement stmt = null;
+    try {
+      stmt = handler.prepare(getConnection(ms.getStatementLog()), transaction.getTimeout());
+      handler.parameterize(stmt);
+      // the generated keys of the rows are assigned to the parameter objects in order
+      return handler.update(stmt);
+    } catch (SQLException e) {
+      throw new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(), new int[0], e);
+    } finally {
+      closeStatement(stmt);
+    }
+  }
+
 }
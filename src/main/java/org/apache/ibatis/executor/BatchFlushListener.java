@@ -0,0 +1,32 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.util.List;
+
+/**
+ * Receives the results of each flush of the BATCH executor, including the ones triggered by the
+ * <code>batchAutoFlushStatements</code>, <code>batchAutoFlushSize</code> and <code>batchAutoFlushBytes</code>
+ * settings, whose results are not returned to the caller otherwise. The parameter objects are released after the
+ * call.
+ *
+ * @since 3.5.0
+ */
+public interface BatchFlushListener {
+
+  void onFlush(List<BatchResult> batchResults);
+
+}
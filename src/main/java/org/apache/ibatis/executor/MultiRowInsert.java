@@ -0,0 +1,187 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * The rows of consecutive executions of an <code>INSERT ... VALUES (...)</code> statement, which the
+ * {@link BatchExecutor} sends as a single <code>INSERT ... VALUES (...), (...)</code> statement.
+ * <p>
+ * The parameter values of each row are read when the row is added, as the JDBC batch does, and bound to the
+ * multi-row statement as additional parameters.
+ *
+ * @since 3.5.0
+ */
+class MultiRowInsert {
+
+  private static final Pattern VALUES = Pattern.compile("\\bvalues\\s*\\(", Pattern.CASE_INSENSITIVE);
+
+  private final MappedStatement mappedStatement;
+  private final String head;
+  private final String row;
+  private final int maxRows;
+  private final List<ParameterMapping> parameterMappings = new ArrayList<>();
+  private final List<Object> parameterValues = new ArrayList<>();
+  private int rows;
+
+  private MultiRowInsert(MappedStatement mappedStatement, String head, String row, int maxRows) {
+    this.mappedStatement = mappedStatement;
+    this.head = head;
+    this.row = row;
+    this.maxRows = maxRows;
+  }
+
+  /**
+   * @return the rows of the given statement, or <code>null</code> if it cannot be sent as a multi-row insert
+   */
+  static MultiRowInsert forStatement(MappedStatement ms, BoundSql boundSql, Integer maxRows) {
+    if (maxRows == null || maxRows < 2
+        || ms.getSqlCommandType() != SqlCommandType.INSERT
+        || ms.getStatementType() != StatementType.PREPARED
+        || !hasSupportedKeyGenerator(ms)) {
+      return null;
+    }
+    for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+      if (parameterMapping.getMode() != ParameterMode.IN) {
+        return null;
+      }
+    }
+    final String sql = boundSql.getSql();
+    final Matcher matcher = VALUES.matcher(sql);
+    if (!matcher.find()) {
+      return null;
+    }
+    final int rowStart = matcher.end() - 1;
+    final int rowEnd = findClosingParenthesis(sql, rowStart);
+    if (rowEnd < 0 || !sql.substring(rowEnd + 1).trim().isEmpty() || sql.lastIndexOf('?', rowStart) >= 0) {
+      // something else than one row follows VALUES, or the columns have parameters
+      return null;
+    }
+    return new MultiRowInsert(ms, sql.substring(0, rowStart), sql.substring(rowStart, rowEnd + 1), maxRows);
+  }
+
+  /**
+   * @return empty rows of the same statement
+   */
+  MultiRowInsert next() {
+    return new MultiRowInsert(mappedStatement, head, row, maxRows);
+  }
+
+  boolean isFull() {
+    return rows >= maxRows;
+  }
+
+  /**
+   * @return the values of the row, read once and held until the statement is executed
+   */
+  Object[] addRow(BoundSql boundSql, Object parameterObject) {
+    final Configuration configuration = mappedStatement.getConfiguration();
+    final Object[] values = getParameterValues(configuration, boundSql, parameterObject);
+    final List<ParameterMapping> rowParameterMappings = boundSql.getParameterMappings();
+    for (int i = 0; i < rowParameterMappings.size(); i++) {
+      final ParameterMapping parameterMapping = rowParameterMappings.get(i);
+      parameterValues.add(values[i]);
+      parameterMappings.add(new ParameterMapping.Builder(configuration, "__row" + rows + "_" + i, parameterMapping.getTypeHandler())
+          .javaType(parameterMapping.getJavaType())
+          .jdbcType(parameterMapping.getJdbcType())
+          .numericScale(parameterMapping.getNumericScale())
+          .jdbcTypeName(parameterMapping.getJdbcTypeName())
+          .build());
+    }
+    rows++;
+    return values;
+  }
+
+  BoundSql getBoundSql(List<Object> parameterObjects) {
+    final StringBuilder sql = new StringBuilder(head.length() + (row.length() + 2) * rows).append(head);
+    for (int i = 0; i < rows; i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(row);
+    }
+    final BoundSql boundSql = new BoundSql(mappedStatement.getConfiguration(), sql.toString(), parameterMappings, parameterObjects);
+    for (int i = 0; i < parameterMappings.size(); i++) {
+      boundSql.setAdditionalParameter(parameterMappings.get(i).getProperty(), parameterValues.get(i));
+    }
+    return boundSql;
+  }
+
+  /**
+   * @return the values of the parameters of the statement, as the parameter handler reads them
+   */
+  private static Object[] getParameterValues(Configuration configuration, BoundSql boundSql, Object parameterObject) {
+    final List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    final Object[] values = new Object[parameterMappings.size()];
+    MetaObject metaObject = null;
+    for (int i = 0; i < values.length; i++) {
+      final String propertyName = parameterMappings.get(i).getProperty();
+      if (boundSql.hasAdditionalParameter(propertyName)) {
+        values[i] = boundSql.getAdditionalParameter(propertyName);
+      } else if (parameterObject == null) {
+        values[i] = null;
+      } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+        values[i] = parameterObject;
+      } else {
+        if (metaObject == null) {
+          metaObject = configuration.newMetaObject(parameterObject);
+        }
+        values[i] = metaObject.getValue(propertyName);
+      }
+    }
+    return values;
+  }
+
+  private static boolean hasSupportedKeyGenerator(MappedStatement ms) {
+    final KeyGenerator keyGenerator = ms.getKeyGenerator();
+    return keyGenerator == null
+        || NoKeyGenerator.class.equals(keyGenerator.getClass())
+        || Jdbc3KeyGenerator.class.equals(keyGenerator.getClass());
+  }
+
+  private static int findClosingParenthesis(String sql, int start) {
+    int depth = 0;
+    boolean quoted = false;
+    for (int i = start; i < sql.length(); i++) {
+      final char c = sql.charAt(i);
+      if (c == '\'') {
+        quoted = !quoted;
+      } else if (!quoted && c == '(') {
+        depth++;
+      } else if (!quoted && c == ')' && --depth == 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+}
@@ -18,14 +18,18 @@ package org.apache.ibatis.executor;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.datasource.pooled.PooledStatementCache;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.statement.StatementHandler;
-import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.session.Configuration;
@@ -39,6 +43,10 @@ import org.apache.ibatis.transaction.Transaction;
 public class ReuseExecutor extends BaseExecutor {
 
   private final Map<String, Statement> statementMap = new HashMap<>();
+  /**
+   * 语句在连接的语句缓存中的 key，包含影响语句创建的属性
+   */
+  private final Map<String, CacheKey> statementCacheKeys = new HashMap<>();
 
   public ReuseExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
@@ -48,7 +56,7 @@ public class ReuseExecutor extends BaseExecutor {
   public int doUpdate(MappedStatement ms, Object parameter) throws SQLException {
     Configuration configuration = ms.getConfiguration();
     StatementHandler handler = configuration.newStatementHandler(this, ms, parameter, RowBounds.DEFAULT, null, null);
-    Statement stmt = prepareStatement(handler, ms.getStatementLog());
+    Statement stmt = prepareStatement(handler, ms);
     return handler.update(stmt);
   }
 
@@ -56,7 +64,7 @@ public class ReuseExecutor extends BaseExecutor {
   public <E> List<E> doQuery(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
     Configuration configuration = ms.getConfiguration();
     StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, resultHandler, boundSql);
-    Statement stmt = prepareStatement(handler, ms.getStatementLog());
+    Statement stmt = prepareStatement(handler, ms);
     return handler.<E>query(stmt, resultHandler);
   }
 
@@ -64,20 +72,27 @@ public class ReuseExecutor extends BaseExecutor {
   protected <E> Cursor<E> doQueryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds, BoundSql boundSql) throws SQLException {
     Configuration configuration = ms.getConfiguration();
     StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, null, boundSql);
-    Statement stmt = prepareStatement(handler, ms.getStatementLog());
+    Statement stmt = prepareStatement(handler, ms);
     return handler.<E>queryCursor(stmt);
   }
 
   @Override
   public List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
-    for (Statement stmt : statementMap.values()) {
-      closeStatement(stmt);
+    PooledStatementCache statementCache = statementMap.isEmpty() ? null : getStatementCache();
+    for (Map.Entry<String, Statement> entry : statementMap.entrySet()) {
+      if (statementCache != null) {
+        // keep it open for the next session that borrows the same connection
+        statementCache.put(statementCacheKeys.get(entry.getKey()), entry.getValue());
+      } else {
+        closeStatement(entry.getValue());
+      }
     }
     statementMap.clear();
+    statementCacheKeys.clear();
     return Collections.emptyList();
   }
 
-  private Statement prepareStatement(StatementHandler handler, Log statementLog) throws SQLException {
+  private Statement prepareStatement(StatementHandler handler, MappedStatement ms) throws SQLException {
     Statement stmt;
     BoundSql boundSql = handler.getBoundSql();
     String sql = boundSql.getSql();
@@ -85,14 +100,42 @@ public class ReuseExecutor extends BaseExecutor {
       stmt = getStatement(sql);
       applyTransactionTimeout(stmt);
     } else {
-      Connection connection = getConnection(statementLog);
-      stmt = handler.prepare(connection, transaction.getTimeout());
+      Connection connection = getConnection(ms.getStatementLog());
+      PooledStatementCache statementCache = getStatementCache();
+      CacheKey statementCacheKey = createStatementCacheKey(ms, sql);
+      stmt = statementCache == null ? null : statementCache.take(statementCacheKey);
+      if (stmt != null) {
+        applyTransactionTimeout(stmt);
+      } else {
+        stmt = handler.prepare(connection, transaction.getTimeout());
+      }
       putStatement(sql, stmt);
+      statementCacheKeys.put(sql, statementCacheKey);
     }
     handler.parameterize(stmt);
     return stmt;
   }
 
+  /*
+   * A statement cached on the connection is shared by the sessions, so it is only reused by a mapped statement that
+   * would prepare it the same way.
+   */
+  private CacheKey createStatementCacheKey(MappedStatement ms, String sql) {
+    CacheKey cacheKey = new CacheKey();
+    cacheKey.update(sql);
+    cacheKey.update(ms.getStatementType());
+    cacheKey.update(ms.getResultSetType());
+    cacheKey.update(ms.getKeyGenerator() instanceof Jdbc3KeyGenerator);
+    cacheKey.update(ms.getKeyColumns() == null ? null : Arrays.asList(ms.getKeyColumns()));
+    cacheKey.update(ms.getFetchSize());
+    cacheKey.update(ms.getTimeout());
+    return cacheKey;
+  }
+
+  private PooledStatementCache getStatementCache() throws SQLException {
+    return PooledDataSource.getStatementCache(transaction.getConnection());
+  }
+
   private boolean hasStatementFor(String sql) {
     try {
       return statementMap.keySet().contains(sql) && !statementMap.get(sql).getConnection().isClosed();
@@ -52,6 +52,7 @@ public class ResultLoader {
   
   protected boolean loaded;
   protected Object resultObject;
+  protected ResultLoaderBatch batch;
   
   public ResultLoader(Configuration config, Executor executor, MappedStatement mappedStatement, Object parameterObject, Class<?> targetType, CacheKey cacheKey, BoundSql boundSql) {
     this.configuration = config;
@@ -67,11 +68,21 @@ public class ResultLoader {
   }
 
   public Object loadResult() throws SQLException {
+    if (batch != null) {
+      // loads this result together with the other pending results of the batch
+      batch.load(this);
+      return resultObject;
+    }
     List<Object> list = selectList();
     resultObject = resultExtractor.extractObjectFromList(list, targetType);
     return resultObject;
   }
 
+  void setBatchResult(List<Object> list) {
+    resultObject = resultExtractor.extractObjectFromList(list, targetType);
+    loaded = true;
+  }
+
   private <E> List<E> selectList() throws SQLException {
     Executor localExecutor = executor;
     if (Thread.currentThread().getId() != this.creatorThreadId || localExecutor.isClosed()) {
@@ -86,6 +97,25 @@ public class ResultLoader {
     }
   }
 
+  /*
+   * Runs another statement with the executor of this loader, used to run the batch statement
+   */
+  <E> List<E> selectList(MappedStatement statement, Object parameter) throws SQLException {
+    Executor localExecutor = executor;
+    if (Thread.currentThread().getId() != this.creatorThreadId || localExecutor.isClosed()) {
+      localExecutor = newExecutor();
+    }
+    try {
+      BoundSql statementBoundSql = statement.getBoundSql(parameter);
+      CacheKey key = localExecutor.createCacheKey(statement, parameter, RowBounds.DEFAULT, statementBoundSql);
+      return localExecutor.<E> query(statement, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, key, statementBoundSql);
+    } finally {
+      if (localExecutor != executor) {
+        localExecutor.close(false);
+      }
+    }
+  }
+
   private Executor newExecutor() {
     final Environment environment = configuration.getEnvironment();
     if (environment == null) {
@@ -0,0 +1,149 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.defaults.DefaultSqlSession.StrictMap;
+
+/**
+ * Groups the {@link ResultLoader}s created for a nested select that has a <code>batchSelect</code>.
+ * <p>
+ * When one of the loaders is asked for its result, the keys of all the pending loaders are passed to the batch
+ * statement (as <code>list</code> or <code>collection</code>), <code>batchSize</code> keys at a time, and the
+ * returned objects are distributed back to the loaders by comparing the <code>batchKeyProperty</code> of each
+ * object with the key of each loader.
+ *
+ * @since 3.5.0
+ */
+public class ResultLoaderBatch {
+
+  private final Configuration configuration;
+  private final ResultMapping resultMapping;
+  private final String[] keyProperties;
+  private final List<ResultLoader> pendingLoaders = new ArrayList<>();
+
+  public ResultLoaderBatch(Configuration configuration, ResultMapping resultMapping) {
+    this.configuration = configuration;
+    this.resultMapping = resultMapping;
+    this.keyProperties = resultMapping.getBatchKeyProperty().split(",");
+    for (int i = 0; i < keyProperties.length; i++) {
+      keyProperties[i] = keyProperties[i].trim();
+    }
+  }
+
+  public synchronized void add(ResultLoader resultLoader) {
+    resultLoader.batch = this;
+    pendingLoaders.add(resultLoader);
+  }
+
+  synchronized void load(ResultLoader trigger) throws SQLException {
+    if (trigger.loaded) {
+      return;
+    }
+    final MappedStatement batchStatement = configuration.getMappedStatement(resultMapping.getBatchQueryId());
+    final Map<Object, Object> parameterByKey = new LinkedHashMap<>();
+    final Map<Object, List<ResultLoader>> loadersByKey = new HashMap<>();
+    for (ResultLoader resultLoader : pendingLoaders) {
+      Object key = getParameterKey(resultLoader.parameterObject);
+      parameterByKey.put(key, resultLoader.parameterObject);
+      loadersByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(resultLoader);
+    }
+    try {
+      final List<Object> keys = new ArrayList<>(parameterByKey.keySet());
+      final int batchSize = resultMapping.getBatchSize();
+      for (int start = 0; start < keys.size(); start += batchSize) {
+        List<Object> chunk = keys.subList(start, Math.min(start + batchSize, keys.size()));
+        List<Object> parameters = new ArrayList<>(chunk.size());
+        for (Object key : chunk) {
+          parameters.add(parameterByKey.get(key));
+        }
+        StrictMap<Object> parameterObject = new StrictMap<>();
+        parameterObject.put("collection", parameters);
+        parameterObject.put("list", parameters);
+        List<Object> results = trigger.selectList(batchStatement, parameterObject);
+        Map<Object, List<Object>> resultsByKey = groupByKey(results);
+        for (Object key : chunk) {
+          List<Object> keyResults = resultsByKey.getOrDefault(key, Collections.emptyList());
+          for (ResultLoader resultLoader : loadersByKey.get(key)) {
+            resultLoader.setBatchResult(keyResults);
+          }
+        }
+      }
+    } finally {
+      pendingLoaders.removeIf(resultLoader -> resultLoader.loaded);
+    }
+  }
+
+  private Map<Object, List<Object>> groupByKey(List<Object> results) {
+    final Map<Object, List<Object>> resultsByKey = new HashMap<>();
+    for (Object result : results) {
+      if (result == null) {
+        continue;
+      }
+      final MetaObject metaObject = configuration.newMetaObject(result);
+      final Object key;
+      if (keyProperties.length == 1) {
+        key = normalize(metaObject.getValue(keyProperties[0]));
+      } else {
+        List<Object> values = new ArrayList<>(keyProperties.length);
+        for (String keyProperty : keyProperties) {
+          values.add(normalize(metaObject.getValue(keyProperty)));
+        }
+        key = values;
+      }
+      resultsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(result);
+    }
+    return resultsByKey;
+  }
+
+  private Object getParameterKey(Object parameterObject) {
+    if (!resultMapping.isCompositeResult()) {
+      return normalize(parameterObject);
+    }
+    final List<ResultMapping> composites = resultMapping.getComposites();
+    final MetaObject metaObject = configuration.newMetaObject(parameterObject);
+    final List<Object> values = new ArrayList<>(composites.size());
+    for (ResultMapping composite : composites) {
+      values.add(normalize(metaObject.getValue(composite.getProperty())));
+    }
+    return values;
+  }
+
+  /*
+   * The column value and the property of the loaded object may not have the same numeric type
+   */
+  private static Object normalize(Object value) {
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+        || value instanceof BigInteger || value instanceof BigDecimal) {
+      return new BigDecimal(value.toString()).stripTrailingZeros();
+    }
+    return value;
+  }
+
+}
@@ -0,0 +1,168 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.lang.UsesJava7;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.MethodInvoker;
+import org.apache.ibatis.reflection.invoker.SetFieldInvoker;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Maps the rows of a result set with a given column layout to a simple result map without going through
+ * {@link org.apache.ibatis.reflection.MetaObject}. Columns are read by index with the already resolved type
+ * handlers and the values are passed to the setters (or fields) through pre-bound {@link MethodHandle}s.
+ * <p>
+ * Instances are built by {@link DefaultResultSetHandler} when <code>compiledRowMappersEnabled</code> is set
+ * and are shared through {@link org.apache.ibatis.session.Configuration#getCompiledRowMappers()}.
+ *
+ * @since 3.5.0
+ */
+public final class CompiledRowMapper {
+
+  /**
+   * Marker stored for result maps and column layouts that cannot be compiled.
+   */
+  static final CompiledRowMapper UNSUPPORTED = new CompiledRowMapper(null, null, new ColumnMapping[0]);
+
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final Configuration configuration;
+  private final Class<?> resultType;
+  private final ColumnMapping[] columnMappings;
+
+  CompiledRowMapper(Configuration configuration, Class<?> resultType, ColumnMapping[] columnMappings) {
+    this.configuration = configuration;
+    this.resultType = resultType;
+    this.columnMappings = columnMappings;
+  }
+
+  /**
+   * Creates the result object for the current row.
+   *
+   * @return the result object, or null when all the mapped columns are null
+   *         and returnInstanceForEmptyRow is disabled
+   */
+  Object map(ResultSet rs) throws SQLException {
+    final Object rowValue = configuration.getObjectFactory().create(resultType);
+    final boolean callSettersOnNulls = configuration.isCallSettersOnNulls();
+    boolean foundValues = false;
+    for (ColumnMapping columnMapping : columnMappings) {
+      final Object value = columnMapping.typeHandler.getResult(rs, columnMapping.columnIndex);
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || (callSettersOnNulls && !columnMapping.primitive)) {
+        // gcode issue #377, call setter on nulls (value is not 'found')
+        columnMapping.setValue(rowValue, value);
+      }
+    }
+    return foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
+  }
+
+  /**
+   * Reads the values of the mapped columns of the current row, which can be passed to {@link #create(Object[])}
+   * by another thread.
+   */
+  Object[] readValues(ResultSet rs) throws SQLException {
+    final Object[] values = new Object[columnMappings.length];
+    for (int i = 0; i < columnMappings.length; i++) {
+      values[i] = columnMappings[i].typeHandler.getResult(rs, columnMappings[i].columnIndex);
+    }
+    return values;
+  }
+
+  /**
+   * Creates the result object from the values read by {@link #readValues(ResultSet)}.
+   *
+   * @return the result object, or null when all the values are null
+   *         and returnInstanceForEmptyRow is disabled
+   */
+  Object create(Object[] values) {
+    final Object rowValue = configuration.getObjectFactory().create(resultType);
+    final boolean callSettersOnNulls = configuration.isCallSettersOnNulls();
+    boolean foundValues = false;
+    for (int i = 0; i < columnMappings.length; i++) {
+      final Object value = values[i];
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || (callSettersOnNulls && !columnMappings[i].primitive)) {
+        columnMappings[i].setValue(rowValue, value);
+      }
+    }
+    return foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
+  }
+
+  /**
+   * Binds the setter of the property to a handle taking (Object target, Object value).
+   *
+   * @return the handle, or null if the setter cannot be accessed through a handle
+   */
+  static MethodHandle findSetter(Reflector reflector, String property) {
+    if (!reflector.hasSetter(property)) {
+      return null;
+    }
+    final Invoker invoker = reflector.getSetInvoker(property);
+    try {
+      final MethodHandles.Lookup lookup = MethodHandles.lookup();
+      if (invoker instanceof MethodInvoker) {
+        return lookup.unreflect(((MethodInvoker) invoker).getMethod()).asType(SETTER_TYPE);
+      } else if (invoker instanceof SetFieldInvoker) {
+        return lookup.unreflectSetter(((SetFieldInvoker) invoker).getField()).asType(SETTER_TYPE);
+      }
+    } catch (IllegalAccessException e) {
+      // not accessible, fall back to reflection
+    }
+    return null;
+  }
+
+  static final class ColumnMapping {
+    private final int columnIndex;
+    private final String property;
+    private final TypeHandler<?> typeHandler;
+    private final MethodHandle setter;
+    private final boolean primitive;
+
+    ColumnMapping(int columnIndex, String property, TypeHandler<?> typeHandler, MethodHandle setter, boolean primitive) {
+      this.columnIndex = columnIndex;
+      this.property = property;
+      this.typeHandler = typeHandler;
+      this.setter = setter;
+      this.primitive = primitive;
+    }
+
+    // invokeExact is signature polymorphic and not in the API signatures checked by animal-sniffer
+    @UsesJava7
+    private void setValue(Object target, Object value) {
+      try {
+        setter.invokeExact(target, value);
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not set property '" + property + "' of '" + target.getClass() + "' with value '" + value + "' Cause: " + t.toString(), t);
+      }
+    }
+  }
+
+}
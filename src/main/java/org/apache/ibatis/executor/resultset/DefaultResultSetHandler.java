@@ -24,6 +24,7 @@ import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.loader.ResultLoader;
+import org.apache.ibatis.executor.loader.ResultLoaderBatch;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
@@ -38,8 +39,10 @@ import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.Reflector;
 import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.wrapper.BeanWrapper;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultContext;
@@ -49,6 +52,7 @@ import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.sql.CallableStatement;
 import java.sql.ResultSet;
@@ -57,6 +61,7 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -84,7 +89,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final ReflectorFactory reflectorFactory;
 
   // nested resultmaps
-  private final Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
+  private static final int NESTED_RESULT_OBJECTS_REUSE_LIMIT = 1024;
+  private Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
   private final Map<String, Object> ancestorObjects = new HashMap<>();
   private Object previousRowValue;
 
@@ -98,11 +104,28 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
 
+  // batched nested selects
+  private final Map<ResultMapping, ResultLoaderBatch> resultLoaderBatches = new IdentityHashMap<>();
+  private final List<PendingBatchLoad> pendingBatchLoads = new ArrayList<>();
+  private boolean deferBatchLoads;
+
   private static class PendingRelation {
     public MetaObject metaObject;
     public ResultMapping propertyMapping;
   }
 
+  private static class PendingBatchLoad {
+    private final MetaObject metaObject;
+    private final String property;
+    private final ResultLoader resultLoader;
+
+    public PendingBatchLoad(MetaObject metaObject, String property, ResultLoader resultLoader) {
+      this.metaObject = metaObject;
+      this.property = property;
+      this.resultLoader = resultLoader;
+    }
+  }
+
   private static class UnMappedColumnAutoMapping {
     private final String column;
     private final String property;
@@ -147,7 +170,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           handleRefCursorOutputParameter((ResultSet) cs.getObject(i + 1), parameterMapping, metaParam);
         } else {
           final TypeHandler<?> typeHandler = parameterMapping.getTypeHandler();
-          metaParam.setValue(parameterMapping.getProperty(), typeHandler.getResult(cs, i + 1));
+          metaParam.setValue(parameterMapping.getPropertyPath(), typeHandler.getResult(cs, i + 1));
         }
       }
     }
@@ -164,7 +187,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       if (this.resultHandler == null) {
         final DefaultResultHandler resultHandler = new DefaultResultHandler(objectFactory);
         handleRowValues(rsw, resultMap, resultHandler, new RowBounds(), null);
-        metaParam.setValue(parameterMapping.getProperty(), resultHandler.getResultList());
+        metaParam.setValue(parameterMapping.getPropertyPath(), resultHandler.getResultList());
       } else {
         handleRowValues(rsw, resultMap, resultHandler, new RowBounds(), null);
       }
@@ -182,6 +205,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     ErrorContext.instance().activity("handling results").object(mappedStatement.getId());
 
     final List<Object> multipleResults = new ArrayList<>();
+    // the objects are not handed to the caller before the end, so the eager batched selects can wait for all the rows
+    deferBatchLoads = resultHandler == null;
 
     int resultSetCount = 0;
     ResultSetWrapper rsw = getFirstResultSet(stmt);
@@ -212,6 +237,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
 
+    loadPendingBatchLoads();
+    deferBatchLoads = false;
     return collapseSingleResultList(multipleResults);
   }
 
@@ -280,8 +307,21 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  int getNestedResultObjectCount() {
+    return nestedResultObjects.size();
+  }
+
   private void cleanUpAfterHandlingResultSet() {
-    nestedResultObjects.clear();
+    clearNestedResultObjects();
+  }
+
+  private void clearNestedResultObjects() {
+    if (nestedResultObjects.size() > NESTED_RESULT_OBJECTS_REUSE_LIMIT) {
+      // do not keep a table sized for the largest graph seen so far, clearing it would scan the whole table every time
+      nestedResultObjects = new HashMap<>();
+    } else {
+      nestedResultObjects.clear();
+    }
   }
 
   private void validateResultMapsCount(ResultSetWrapper rsw, int resultMapCount) {
@@ -348,16 +388,35 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       throws SQLException {
     DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
     skipRows(rsw.getResultSet(), rowBounds);
+    boolean parallel = configuration.isParallelRowMappingEnabled() && parentMapping == null && resultMap.getDiscriminator() == null;
     while (shouldProcessMoreRows(resultContext, rowBounds) && rsw.getResultSet().next()) {
-      ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw.getResultSet(), resultMap, null);
+      ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw, resultMap, null);
       Object rowValue = getRowValue(rsw, discriminatedResultMap, null);
-      storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw.getResultSet());
+      storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw);
+      if (parallel) {
+        // the first row has compiled the row mapper, if the result map allows it
+        final CompiledRowMapper rowMapper = rsw.getCompiledRowMapper(resultMap, null);
+        if (rowMapper != null && rowMapper != CompiledRowMapper.UNSUPPORTED && shouldProcessMoreRows(resultContext, rowBounds)) {
+          handleRemainingRowValuesInParallel(rsw, rowMapper, resultHandler, resultContext, rowBounds);
+          return;
+        }
+        parallel = false;
+      }
     }
   }
 
-  private void storeObject(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue, ResultMapping parentMapping, ResultSet rs) throws SQLException {
+  private void handleRemainingRowValuesInParallel(ResultSetWrapper rsw, CompiledRowMapper rowMapper, ResultHandler<?> resultHandler,
+      DefaultResultContext<Object> resultContext, RowBounds rowBounds) throws SQLException {
+    final RowMappingPipeline pipeline = new RowMappingPipeline(rowMapper, configuration.isParallelRowMappingOrdered());
+    pipeline.mapRows(rsw.getResultSet(), rowBounds.getLimit() - resultContext.getResultCount(), rowValue -> {
+      callResultHandler(resultHandler, resultContext, rowValue);
+      return !resultContext.isStopped();
+    });
+  }
+
+  private void storeObject(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue, ResultMapping parentMapping, ResultSetWrapper rsw) throws SQLException {
     if (parentMapping != null) {
-      linkToParents(rs, parentMapping, rowValue);
+      linkToParents(rsw, parentMapping, rowValue);
     } else {
       callResultHandler(resultHandler, resultContext, rowValue);
     }
@@ -390,6 +449,22 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    String rowMapperKey = null;
+    if (configuration.isCompiledRowMappersEnabled()) {
+      CompiledRowMapper rowMapper = rsw.getCompiledRowMapper(resultMap, columnPrefix);
+      if (rowMapper == null) {
+        final String key = resultMap.getId() + ":" + columnPrefix + ":" + rsw.getColumnLayoutKey();
+        rowMapper = configuration.getCompiledRowMappers().get(key);
+        if (rowMapper == null) {
+          rowMapperKey = key;
+        } else {
+          rsw.setCompiledRowMapper(resultMap, columnPrefix, rowMapper);
+        }
+      }
+      if (rowMapper != null && rowMapper != CompiledRowMapper.UNSUPPORTED) {
+        return rowMapper.map(rsw.getResultSet());
+      }
+    }
     final ResultLoaderMap lazyLoader = new ResultLoaderMap();
     Object rowValue = createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
     if (rowValue != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
@@ -399,12 +474,69 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         foundValues = applyAutomaticMappings(rsw, resultMap, metaObject, columnPrefix) || foundValues;
       }
       foundValues = applyPropertyMappings(rsw, resultMap, metaObject, lazyLoader, columnPrefix) || foundValues;
+      if (rowMapperKey != null) {
+        // the first row has been mapped the usual way, the next ones use the compiled mapper
+        final CompiledRowMapper rowMapper = compileRowMapper(rsw, resultMap, metaObject, columnPrefix);
+        configuration.getCompiledRowMappers().putIfAbsent(rowMapperKey, rowMapper);
+        rsw.setCompiledRowMapper(resultMap, columnPrefix, rowMapper);
+      }
       foundValues = lazyLoader.size() > 0 || foundValues;
       rowValue = foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
+    } else if (rowValue != null && rowMapperKey != null) {
+      configuration.getCompiledRowMappers().putIfAbsent(rowMapperKey, CompiledRowMapper.UNSUPPORTED);
+      rsw.setCompiledRowMapper(resultMap, columnPrefix, CompiledRowMapper.UNSUPPORTED);
     }
     return rowValue;
   }
 
+  private CompiledRowMapper compileRowMapper(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
+    final Class<?> resultType = resultMap.getType();
+    if (this.useConstructorMappings
+        || resultMap.hasNestedResultMaps()
+        || resultMap.hasNestedQueries()
+        || !resultMap.getConstructorResultMappings().isEmpty()
+        || metaObject.getOriginalObject().getClass() != resultType
+        || !(metaObject.getObjectWrapper() instanceof BeanWrapper)) {
+      return CompiledRowMapper.UNSUPPORTED;
+    }
+    final Reflector reflector = reflectorFactory.findForClass(resultType);
+    final List<CompiledRowMapper.ColumnMapping> columnMappings = new ArrayList<>();
+    if (shouldApplyAutomaticMappings(resultMap, false)) {
+      for (UnMappedColumnAutoMapping mapping : createAutomaticMappings(rsw, resultMap, metaObject, columnPrefix)) {
+        final MethodHandle setter = findSimpleSetter(reflector, mapping.property);
+        if (setter == null || rsw.getColumnIndex(mapping.column) < 1) {
+          return CompiledRowMapper.UNSUPPORTED;
+        }
+        columnMappings.add(new CompiledRowMapper.ColumnMapping(rsw.getColumnIndex(mapping.column), mapping.property, mapping.typeHandler, setter, mapping.primitive));
+      }
+    }
+    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.isCompositeResult() || propertyMapping.getResultSet() != null) {
+        return CompiledRowMapper.UNSUPPORTED;
+      }
+      final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
+      final String property = propertyMapping.getProperty();
+      if (column == null || property == null || !mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+        continue;
+      }
+      final MethodHandle setter = findSimpleSetter(reflector, property);
+      if (setter == null || rsw.getColumnIndex(column) < 1) {
+        return CompiledRowMapper.UNSUPPORTED;
+      }
+      final boolean primitive = reflector.getSetterType(property).isPrimitive();
+      columnMappings.add(new CompiledRowMapper.ColumnMapping(rsw.getColumnIndex(column), property, propertyMapping.getTypeHandler(), setter, primitive));
+    }
+    return new CompiledRowMapper(configuration, resultType, columnMappings.toArray(new CompiledRowMapper.ColumnMapping[0]));
+  }
+
+  private MethodHandle findSimpleSetter(Reflector reflector, String property) {
+    if (property.indexOf('.') > -1 || property.indexOf('[') > -1) {
+      return null;
+    }
+    return CompiledRowMapper.findSetter(reflector, property);
+  }
+
   private boolean shouldApplyAutomaticMappings(ResultMap resultMap, boolean isNested) {
     if (resultMap.getAutoMapping() != null) {
       return resultMap.getAutoMapping();
@@ -435,7 +567,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       if (propertyMapping.isCompositeResult()
           || (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH)))
           || propertyMapping.getResultSet() != null) {
-        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix);
+        Object value = getPropertyMappingValue(rsw, metaObject, propertyMapping, lazyLoader, columnPrefix);
         // issue #541 make property optional
         final String property = propertyMapping.getProperty();
         if (property == null) {
@@ -449,24 +581,24 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
         if (value != null || (configuration.isCallSettersOnNulls() && !metaObject.getSetterType(property).isPrimitive())) {
           // gcode issue #377, call setter on nulls (value is not 'found')
-          metaObject.setValue(property, value);
+          metaObject.setValue(propertyMapping.getPropertyPath(), value);
         }
       }
     }
     return foundValues;
   }
 
-  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
+  private Object getPropertyMappingValue(ResultSetWrapper rsw, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
     if (propertyMapping.getNestedQueryId() != null) {
-      return getNestedQueryMappingValue(rs, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
+      return getNestedQueryMappingValue(rsw, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
     } else if (propertyMapping.getResultSet() != null) {
-      addPendingChildRelation(rs, metaResultObject, propertyMapping);   // TODO is that OK?
+      addPendingChildRelation(rsw, metaResultObject, propertyMapping);   // TODO is that OK?
       return DEFERED;
     } else {
       final TypeHandler<?> typeHandler = propertyMapping.getTypeHandler();
       final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      return typeHandler.getResult(rs, column);
+      return getColumnValue(rsw, typeHandler, column);
     }
   }
 
@@ -515,7 +647,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     boolean foundValues = false;
     if (!autoMapping.isEmpty()) {
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
-        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+        final Object value = getColumnValue(rsw, mapping.typeHandler, mapping.column);
         if (value != null) {
           foundValues = true;
         }
@@ -530,8 +662,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   // MULTIPLE RESULT SETS
 
-  private void linkToParents(ResultSet rs, ResultMapping parentMapping, Object rowValue) throws SQLException {
-    CacheKey parentKey = createKeyForMultipleResults(rs, parentMapping, parentMapping.getColumn(), parentMapping.getForeignColumn());
+  private void linkToParents(ResultSetWrapper rsw, ResultMapping parentMapping, Object rowValue) throws SQLException {
+    CacheKey parentKey = createKeyForMultipleResults(rsw, parentMapping, parentMapping.getColumn(), parentMapping.getForeignColumn());
     List<PendingRelation> parents = pendingRelations.get(parentKey);
     if (parents != null) {
       for (PendingRelation parent : parents) {
@@ -542,8 +674,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
-  private void addPendingChildRelation(ResultSet rs, MetaObject metaResultObject, ResultMapping parentMapping) throws SQLException {
-    CacheKey cacheKey = createKeyForMultipleResults(rs, parentMapping, parentMapping.getColumn(), parentMapping.getColumn());
+  private void addPendingChildRelation(ResultSetWrapper rsw, MetaObject metaResultObject, ResultMapping parentMapping) throws SQLException {
+    CacheKey cacheKey = createKeyForMultipleResults(rsw, parentMapping, parentMapping.getColumn(), parentMapping.getColumn());
     PendingRelation deferLoad = new PendingRelation();
     deferLoad.metaObject = metaResultObject;
     deferLoad.propertyMapping = parentMapping;
@@ -560,14 +692,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
-  private CacheKey createKeyForMultipleResults(ResultSet rs, ResultMapping resultMapping, String names, String columns) throws SQLException {
+  private CacheKey createKeyForMultipleResults(ResultSetWrapper rsw, ResultMapping resultMapping, String names, String columns) throws SQLException {
     CacheKey cacheKey = new CacheKey();
     cacheKey.update(resultMapping);
     if (columns != null && names != null) {
       String[] columnsArray = columns.split(",");
       String[] namesArray = names.split(",");
       for (int i = 0; i < columnsArray.length; i++) {
-        Object value = rs.getString(columnsArray[i]);
+        Object value = getColumnString(rsw, columnsArray[i]);
         if (value != null) {
           cacheKey.update(namesArray[i]);
           cacheKey.update(value);
@@ -626,13 +758,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       final Object value;
       try {
         if (constructorMapping.getNestedQueryId() != null) {
-          value = getNestedQueryConstructorValue(rsw.getResultSet(), constructorMapping, columnPrefix);
+          value = getNestedQueryConstructorValue(rsw, constructorMapping, columnPrefix);
         } else if (constructorMapping.getNestedResultMapId() != null) {
           final ResultMap resultMap = configuration.getResultMap(constructorMapping.getNestedResultMapId());
           value = getRowValue(rsw, resultMap, constructorMapping.getColumnPrefix());
         } else {
           final TypeHandler<?> typeHandler = constructorMapping.getTypeHandler();
-          value = typeHandler.getResult(rsw.getResultSet(), prependPrefix(column, columnPrefix));
+          value = getColumnValue(rsw, typeHandler, prependPrefix(column, columnPrefix));
         }
       } catch (ResultMapException | SQLException e) {
         throw new ExecutorException("Could not process result for mapping: " + constructorMapping, e);
@@ -666,7 +798,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       Class<?> parameterType = constructor.getParameterTypes()[i];
       String columnName = rsw.getColumnNames().get(i);
       TypeHandler<?> typeHandler = rsw.getTypeHandler(parameterType, columnName);
-      Object value = typeHandler.getResult(rsw.getResultSet(), prependPrefix(columnName, columnPrefix));
+      Object value = getColumnValue(rsw, typeHandler, prependPrefix(columnName, columnPrefix));
       constructorArgTypes.add(parameterType);
       constructorArgs.add(value);
       foundValues = value != null || foundValues;
@@ -707,18 +839,18 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       columnName = rsw.getColumnNames().get(0);
     }
     final TypeHandler<?> typeHandler = rsw.getTypeHandler(resultType, columnName);
-    return typeHandler.getResult(rsw.getResultSet(), columnName);
+    return getColumnValue(rsw, typeHandler, columnName);
   }
 
   //
   // NESTED QUERY
   //
 
-  private Object getNestedQueryConstructorValue(ResultSet rs, ResultMapping constructorMapping, String columnPrefix) throws SQLException {
+  private Object getNestedQueryConstructorValue(ResultSetWrapper rsw, ResultMapping constructorMapping, String columnPrefix) throws SQLException {
     final String nestedQueryId = constructorMapping.getNestedQueryId();
     final MappedStatement nestedQuery = configuration.getMappedStatement(nestedQueryId);
     final Class<?> nestedQueryParameterType = nestedQuery.getParameterMap().getType();
-    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rs, constructorMapping, nestedQueryParameterType, columnPrefix);
+    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rsw, constructorMapping, nestedQueryParameterType, columnPrefix);
     Object value = null;
     if (nestedQueryParameterObject != null) {
       final BoundSql nestedBoundSql = nestedQuery.getBoundSql(nestedQueryParameterObject);
@@ -730,13 +862,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
-  private Object getNestedQueryMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
+  private Object getNestedQueryMappingValue(ResultSetWrapper rsw, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
     final String nestedQueryId = propertyMapping.getNestedQueryId();
     final String property = propertyMapping.getProperty();
     final MappedStatement nestedQuery = configuration.getMappedStatement(nestedQueryId);
     final Class<?> nestedQueryParameterType = nestedQuery.getParameterMap().getType();
-    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rs, propertyMapping, nestedQueryParameterType, columnPrefix);
+    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rsw, propertyMapping, nestedQueryParameterType, columnPrefix);
     Object value = null;
     if (nestedQueryParameterObject != null) {
       final BoundSql nestedBoundSql = nestedQuery.getBoundSql(nestedQueryParameterObject);
@@ -747,9 +879,16 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         value = DEFERED;
       } else {
         final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
+        final boolean batched = propertyMapping.getBatchQueryId() != null;
+        if (batched) {
+          getResultLoaderBatch(propertyMapping).add(resultLoader);
+        }
         if (propertyMapping.isLazy()) {
           lazyLoader.addLoader(property, metaResultObject, resultLoader);
           value = DEFERED;
+        } else if (batched && deferBatchLoads) {
+          pendingBatchLoads.add(new PendingBatchLoad(metaResultObject, property, resultLoader));
+          value = DEFERED;
         } else {
           value = resultLoader.loadResult();
         }
@@ -758,35 +897,55 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
-  private Object prepareParameterForNestedQuery(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
+  private ResultLoaderBatch getResultLoaderBatch(ResultMapping propertyMapping) {
+    ResultLoaderBatch resultLoaderBatch = resultLoaderBatches.get(propertyMapping);
+    if (resultLoaderBatch == null) {
+      resultLoaderBatch = new ResultLoaderBatch(configuration, propertyMapping);
+      resultLoaderBatches.put(propertyMapping, resultLoaderBatch);
+    }
+    return resultLoaderBatch;
+  }
+
+  private void loadPendingBatchLoads() throws SQLException {
+    for (PendingBatchLoad pendingBatchLoad : pendingBatchLoads) {
+      final MetaObject metaObject = pendingBatchLoad.metaObject;
+      final Object value = pendingBatchLoad.resultLoader.loadResult();
+      if (value != null || (configuration.isCallSettersOnNulls() && !metaObject.getSetterType(pendingBatchLoad.property).isPrimitive())) {
+        metaObject.setValue(pendingBatchLoad.property, value);
+      }
+    }
+    pendingBatchLoads.clear();
+  }
+
+  private Object prepareParameterForNestedQuery(ResultSetWrapper rsw, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     if (resultMapping.isCompositeResult()) {
-      return prepareCompositeKeyParameter(rs, resultMapping, parameterType, columnPrefix);
+      return prepareCompositeKeyParameter(rsw, resultMapping, parameterType, columnPrefix);
     } else {
-      return prepareSimpleKeyParameter(rs, resultMapping, parameterType, columnPrefix);
+      return prepareSimpleKeyParameter(rsw, resultMapping, parameterType, columnPrefix);
     }
   }
 
-  private Object prepareSimpleKeyParameter(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
+  private Object prepareSimpleKeyParameter(ResultSetWrapper rsw, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     final TypeHandler<?> typeHandler;
     if (typeHandlerRegistry.hasTypeHandler(parameterType)) {
       typeHandler = typeHandlerRegistry.getTypeHandler(parameterType);
     } else {
       typeHandler = typeHandlerRegistry.getUnknownTypeHandler();
     }
-    return typeHandler.getResult(rs, prependPrefix(resultMapping.getColumn(), columnPrefix));
+    return getColumnValue(rsw, typeHandler, prependPrefix(resultMapping.getColumn(), columnPrefix));
   }
 
-  private Object prepareCompositeKeyParameter(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
+  private Object prepareCompositeKeyParameter(ResultSetWrapper rsw, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     final Object parameterObject = instantiateParameterObject(parameterType);
     final MetaObject metaObject = configuration.newMetaObject(parameterObject);
     boolean foundValues = false;
     for (ResultMapping innerResultMapping : resultMapping.getComposites()) {
       final Class<?> propType = metaObject.getSetterType(innerResultMapping.getProperty());
       final TypeHandler<?> typeHandler = typeHandlerRegistry.getTypeHandler(propType);
-      final Object propValue = typeHandler.getResult(rs, prependPrefix(innerResultMapping.getColumn(), columnPrefix));
+      final Object propValue = getColumnValue(rsw, typeHandler, prependPrefix(innerResultMapping.getColumn(), columnPrefix));
       // issue #353 & #560 do not execute nested query if key is null
       if (propValue != null) {
-        metaObject.setValue(innerResultMapping.getProperty(), propValue);
+        metaObject.setValue(innerResultMapping.getPropertyPath(), propValue);
         foundValues = true;
       }
     }
@@ -807,11 +966,20 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // DISCRIMINATOR
   //
 
+  /**
+   * @deprecated use {@link #resolveDiscriminatedResultMap(ResultSetWrapper, ResultMap, String)}, which reads the
+   * discriminator column by index
+   */
+  @Deprecated
   public ResultMap resolveDiscriminatedResultMap(ResultSet rs, ResultMap resultMap, String columnPrefix) throws SQLException {
+    return resolveDiscriminatedResultMap(new ResultSetWrapper(rs, configuration), resultMap, columnPrefix);
+  }
+
+  public ResultMap resolveDiscriminatedResultMap(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
     Set<String> pastDiscriminators = new HashSet<>();
     Discriminator discriminator = resultMap.getDiscriminator();
     while (discriminator != null) {
-      final Object value = getDiscriminatorValue(rs, discriminator, columnPrefix);
+      final Object value = getDiscriminatorValue(rsw, discriminator, columnPrefix);
       final String discriminatedMapId = discriminator.getMapIdFor(String.valueOf(value));
       if (configuration.hasResultMap(discriminatedMapId)) {
         resultMap = configuration.getResultMap(discriminatedMapId);
@@ -827,10 +995,30 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return resultMap;
   }
 
-  private Object getDiscriminatorValue(ResultSet rs, Discriminator discriminator, String columnPrefix) throws SQLException {
+  private Object getDiscriminatorValue(ResultSetWrapper rsw, Discriminator discriminator, String columnPrefix) throws SQLException {
     final ResultMapping resultMapping = discriminator.getResultMapping();
     final TypeHandler<?> typeHandler = resultMapping.getTypeHandler();
-    return typeHandler.getResult(rs, prependPrefix(resultMapping.getColumn(), columnPrefix));
+    return getColumnValue(rsw, typeHandler, prependPrefix(resultMapping.getColumn(), columnPrefix));
+  }
+
+  /*
+   * Reads the column by index when the result set has it, so that the driver does not look up the label on every row.
+   */
+  private Object getColumnValue(ResultSetWrapper rsw, TypeHandler<?> typeHandler, String columnName) throws SQLException {
+    final int columnIndex = rsw.getColumnIndex(columnName);
+    if (columnIndex > 0) {
+      return typeHandler.getResult(rsw.getResultSet(), columnIndex);
+    }
+    // unknown column, let the driver report it
+    return typeHandler.getResult(rsw.getResultSet(), columnName);
+  }
+
+  private String getColumnString(ResultSetWrapper rsw, String columnName) throws SQLException {
+    final int columnIndex = rsw.getColumnIndex(columnName);
+    if (columnIndex > 0) {
+      return rsw.getResultSet().getString(columnIndex);
+    }
+    return rsw.getResultSet().getString(columnName);
   }
 
   private String prependPrefix(String columnName, String prefix) {
@@ -849,25 +1037,27 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     skipRows(rsw.getResultSet(), rowBounds);
     Object rowValue = previousRowValue;
     while (shouldProcessMoreRows(resultContext, rowBounds) && rsw.getResultSet().next()) {
-      final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw.getResultSet(), resultMap, null);
+      final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw, resultMap, null);
       final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
       Object partialObject = nestedResultObjects.get(rowKey);
       // issue #577 && #542
       if (mappedStatement.isResultOrdered()) {
         if (partialObject == null && rowValue != null) {
-          nestedResultObjects.clear();
-          storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw.getResultSet());
+          // the previous graph is complete, evict it before handing it over so that only one graph is retained
+          clearNestedResultObjects();
+          storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw);
         }
         rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
       } else {
         rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
         if (partialObject == null) {
-          storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw.getResultSet());
+          storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw);
         }
       }
     }
     if (rowValue != null && mappedStatement.isResultOrdered() && shouldProcessMoreRows(resultContext, rowBounds)) {
-      storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw.getResultSet());
+      clearNestedResultObjects();
+      storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw);
       previousRowValue = null;
     } else if (rowValue != null) {
       previousRowValue = rowValue;
@@ -924,7 +1114,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       if (nestedResultMapId != null && resultMapping.getResultSet() == null) {
         try {
           final String columnPrefix = getColumnPrefix(parentPrefix, resultMapping);
-          final ResultMap nestedResultMap = getNestedResultMap(rsw.getResultSet(), nestedResultMapId, columnPrefix);
+          final ResultMap nestedResultMap = getNestedResultMap(rsw, nestedResultMapId, columnPrefix);
           if (resultMapping.getColumnPrefix() == null) {
             // try to fill circular reference only when columnPrefix
             // is not specified for the nested result map (issue #215)
@@ -972,15 +1162,22 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     if (notNullColumns != null && !notNullColumns.isEmpty()) {
       ResultSet rs = rsw.getResultSet();
       for (String column : notNullColumns) {
-        rs.getObject(prependPrefix(column, columnPrefix));
+        final String columnName = prependPrefix(column, columnPrefix);
+        final int columnIndex = rsw.getColumnIndex(columnName);
+        if (columnIndex > 0) {
+          rs.getObject(columnIndex);
+        } else {
+          rs.getObject(columnName);
+        }
         if (!rs.wasNull()) {
           return true;
         }
       }
       return false;
     } else if (columnPrefix != null) {
+      final String upperColumnPrefix = columnPrefix.toUpperCase();
       for (String columnName : rsw.getColumnNames()) {
-        if (columnName.toUpperCase().startsWith(columnPrefix.toUpperCase())) {
+        if (columnName.toUpperCase().startsWith(upperColumnPrefix)) {
           return true;
         }
       }
@@ -989,9 +1186,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return true;
   }
 
-  private ResultMap getNestedResultMap(ResultSet rs, String nestedResultMapId, String columnPrefix) throws SQLException {
+  private ResultMap getNestedResultMap(ResultSetWrapper rsw, String nestedResultMapId, String columnPrefix) throws SQLException {
     ResultMap nestedResultMap = configuration.getResultMap(nestedResultMapId);
-    return resolveDiscriminatedResultMap(rs, nestedResultMap, columnPrefix);
+    return resolveDiscriminatedResultMap(rsw, nestedResultMap, columnPrefix);
   }
 
   //
@@ -1052,7 +1249,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
         // Issue #114
         if (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
-          final Object value = th.getResult(rsw.getResultSet(), column);
+          final Object value = getColumnValue(rsw, th, column);
           if (value != null || configuration.isReturnInstanceForEmptyRow()) {
             cacheKey.update(column);
             cacheKey.update(value);
@@ -1076,7 +1273,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
       if (metaType.findProperty(property, configuration.isMapUnderscoreToCamelCase()) != null) {
-        String value = rsw.getResultSet().getString(column);
+        String value = getColumnString(rsw, column);
         if (value != null) {
           cacheKey.update(column);
           cacheKey.update(value);
@@ -1088,7 +1285,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private void createRowKeyForMap(ResultSetWrapper rsw, CacheKey cacheKey) throws SQLException {
     List<String> columnNames = rsw.getColumnNames();
     for (String columnName : columnNames) {
-      final String value = rsw.getResultSet().getString(columnName);
+      final String value = getColumnString(rsw, columnName);
       if (value != null) {
         cacheKey.update(columnName);
         cacheKey.update(value);
@@ -1102,13 +1299,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       final MetaObject targetMetaObject = configuration.newMetaObject(collectionProperty);
       targetMetaObject.add(rowValue);
     } else {
-      metaObject.setValue(resultMapping.getProperty(), rowValue);
+      metaObject.setValue(resultMapping.getPropertyPath(), rowValue);
     }
   }
 
   private Object instantiateCollectionPropertyIfAppropriate(ResultMapping resultMapping, MetaObject metaObject) {
     final String propertyName = resultMapping.getProperty();
-    Object propertyValue = metaObject.getValue(propertyName);
+    Object propertyValue = metaObject.getValue(resultMapping.getPropertyPath());
     if (propertyValue == null) {
       Class<?> type = resultMapping.getJavaType();
       if (type == null) {
@@ -1131,7 +1328,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private boolean hasTypeHandlerForResultObject(ResultSetWrapper rsw, Class<?> resultType) {
     if (rsw.getColumnNames().size() == 1) {
-      return typeHandlerRegistry.hasTypeHandler(resultType, rsw.getJdbcType(rsw.getColumnNames().get(0)));
+      return typeHandlerRegistry.hasTypeHandler(resultType, rsw.getJdbcTypes().get(0));
     }
     return typeHandlerRegistry.hasTypeHandler(resultType);
   }
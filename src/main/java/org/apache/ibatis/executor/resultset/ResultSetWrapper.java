@@ -48,6 +48,9 @@ public class ResultSetWrapper {
   private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<>();
   private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<>();
   private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
+  private final Map<String, CompiledRowMapper> compiledRowMapperMap = new HashMap<>();
+  private Map<String, Integer> columnIndexMap;
+  private String columnLayoutKey;
 
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
     super();
@@ -79,12 +82,52 @@ public class ResultSetWrapper {
   }
 
   public JdbcType getJdbcType(String columnName) {
-    for (int i = 0 ; i < columnNames.size(); i++) {
-      if (columnNames.get(i).equalsIgnoreCase(columnName)) {
-        return jdbcTypes.get(i);
+    final int columnIndex = getColumnIndex(columnName);
+    return columnIndex > 0 ? jdbcTypes.get(columnIndex - 1) : null;
+  }
+
+  /**
+   * Gets the index of the first column with the given name (case insensitive).
+   * The label lookup is done once per result set and name, the mapping code can then read the columns by index.
+   *
+   * @param columnName
+   * @return the 1-based column index, or -1 if there is no such column
+   */
+  public int getColumnIndex(String columnName) {
+    if (columnName == null) {
+      return -1;
+    }
+    if (columnIndexMap == null) {
+      columnIndexMap = new HashMap<>();
+      for (int i = 0; i < columnNames.size(); i++) {
+        columnIndexMap.putIfAbsent(columnNames.get(i).toUpperCase(Locale.ENGLISH), i + 1);
       }
     }
-    return null;
+    Integer columnIndex = columnIndexMap.get(columnName);
+    if (columnIndex == null) {
+      columnIndex = columnIndexMap.get(columnName.toUpperCase(Locale.ENGLISH));
+      if (columnIndex == null) {
+        columnIndex = -1;
+      }
+      // remember the name as written in the mapping so that the next rows skip toUpperCase
+      columnIndexMap.put(columnName, columnIndex);
+    }
+    return columnIndex;
+  }
+
+  /**
+   * Gets a key describing the names, JDBC types and Java classes of the columns of the result set.
+   * Two result sets with the same key are mapped with the same type handlers.
+   */
+  public String getColumnLayoutKey() {
+    if (columnLayoutKey == null) {
+      final StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < columnNames.size(); i++) {
+        sb.append(columnNames.get(i)).append(':').append(jdbcTypes.get(i)).append(':').append(classNames.get(i)).append(',');
+      }
+      columnLayoutKey = sb.toString();
+    }
+    return columnLayoutKey;
   }
 
   /**
@@ -111,8 +154,8 @@ public class ResultSetWrapper {
       // Replicate logic of UnknownTypeHandler#resolveTypeHandler
       // See issue #59 comment 10
       if (handler == null || handler instanceof UnknownTypeHandler) {
-        final int index = columnNames.indexOf(columnName);
-        final Class<?> javaType = resolveClass(classNames.get(index));
+        final int index = getColumnIndex(columnName);
+        final Class<?> javaType = index > 0 ? resolveClass(classNames.get(index - 1)) : null;
         if (javaType != null && jdbcType != null) {
           handler = typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
         } else if (javaType != null) {
@@ -176,6 +219,14 @@ public class ResultSetWrapper {
     return unMappedColumnNames;
   }
 
+  CompiledRowMapper getCompiledRowMapper(ResultMap resultMap, String columnPrefix) {
+    return compiledRowMapperMap.get(getMapKey(resultMap, columnPrefix));
+  }
+
+  void setCompiledRowMapper(ResultMap resultMap, String columnPrefix, CompiledRowMapper rowMapper) {
+    compiledRowMapperMap.put(getMapKey(resultMap, columnPrefix), rowMapper);
+  }
+
   private String getMapKey(ResultMap resultMap, String columnPrefix) {
     return resultMap.getId() + ":" + columnPrefix;
   }
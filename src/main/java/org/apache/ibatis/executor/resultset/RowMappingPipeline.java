@@ -0,0 +1,147 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Maps the remaining rows of a result set with a {@link CompiledRowMapper} in two stages: the calling thread reads
+ * the column values of the rows (the result set and the type handlers are not thread-safe) into chunks, while the
+ * common fork-join pool creates the result objects of the previous chunks. The result objects are passed back to
+ * the calling thread in the order of the rows, or as soon as their chunk is mapped when the order does not matter.
+ * <p>
+ * Used by {@link DefaultResultSetHandler} when <code>parallelRowMappingEnabled</code> is set.
+ *
+ * @since 3.5.0
+ */
+final class RowMappingPipeline {
+
+  private static final int CHUNK_SIZE = 256;
+
+  private final CompiledRowMapper rowMapper;
+  private final boolean ordered;
+  private final ForkJoinPool pool = ForkJoinPool.commonPool();
+  /**
+   * Chunks being mapped, beyond which the reading waits for the mapping
+   */
+  private final int maxPendingChunks = Math.max(2, ForkJoinPool.getCommonPoolParallelism() * 2);
+
+  interface RowValueConsumer {
+    /**
+     * @return false to stop the mapping
+     */
+    boolean accept(Object rowValue);
+  }
+
+  RowMappingPipeline(CompiledRowMapper rowMapper, boolean ordered) {
+    this.rowMapper = rowMapper;
+    this.ordered = ordered;
+  }
+
+  void mapRows(ResultSet rs, int maxRows, RowValueConsumer consumer) throws SQLException {
+    final Deque<ForkJoinTask<Object[]>> pending = new ArrayDeque<>();
+    int readRows = 0;
+    try {
+      while (true) {
+        final Object[][] chunk = new Object[CHUNK_SIZE][];
+        int size = 0;
+        while (size < CHUNK_SIZE && readRows < maxRows && rs.next()) {
+          chunk[size++] = rowMapper.readValues(rs);
+          readRows++;
+        }
+        if (size == 0) {
+          break;
+        }
+        if (size < CHUNK_SIZE && pending.isEmpty()) {
+          // a few rows are left, not worth a task
+          for (int i = 0; i < size; i++) {
+            if (!consumer.accept(rowMapper.create(chunk[i]))) {
+              return;
+            }
+          }
+          return;
+        }
+        pending.add(pool.submit(mapChunk(chunk, size)));
+        if (!drain(pending, consumer, pending.size() >= maxPendingChunks)) {
+          return;
+        }
+        if (size < CHUNK_SIZE) {
+          break;
+        }
+      }
+      while (!pending.isEmpty()) {
+        if (!drain(pending, consumer, true)) {
+          return;
+        }
+      }
+    } finally {
+      for (ForkJoinTask<Object[]> task : pending) {
+        task.cancel(false);
+      }
+    }
+  }
+
+  private ForkJoinTask<Object[]> mapChunk(Object[][] chunk, int size) {
+    return ForkJoinTask.adapt(() -> {
+      final Object[] rowValues = new Object[size];
+      for (int i = 0; i < size; i++) {
+        rowValues[i] = rowMapper.create(chunk[i]);
+      }
+      return rowValues;
+    });
+  }
+
+  /**
+   * Passes the rows of the mapped chunks to the consumer, waiting for one chunk if requested and none is mapped.
+   */
+  private boolean drain(Deque<ForkJoinTask<Object[]>> pending, RowValueConsumer consumer, boolean waitForOne) {
+    boolean consumed = false;
+    for (Iterator<ForkJoinTask<Object[]>> iterator = pending.iterator(); iterator.hasNext();) {
+      final ForkJoinTask<Object[]> task = iterator.next();
+      if (!task.isDone()) {
+        if (ordered) {
+          break;
+        }
+        continue;
+      }
+      iterator.remove();
+      consumed = true;
+      if (!consume(task, consumer)) {
+        return false;
+      }
+    }
+    if (waitForOne && !consumed && !pending.isEmpty()) {
+      return consume(pending.poll(), consumer);
+    }
+    return true;
+  }
+
+  private boolean consume(ForkJoinTask<Object[]> task, RowValueConsumer consumer) {
+    for (Object rowValue : task.join()) {
+      if (!consumer.accept(rowValue)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
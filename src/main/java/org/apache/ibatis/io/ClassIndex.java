@@ -0,0 +1,116 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Index of the classes of a jar or a classes directory, generated at build time, that {@link ResolverUtil} reads
+ * instead of scanning the class path when the type aliases or the mappers of a package are registered.
+ * <p>
+ * The index is a text resource named {@value #INDEX_RESOURCE} that lists one fully qualified class name per line,
+ * blank lines and lines starting with <code>#</code> are ignored. It can be generated by calling
+ * {@link #write(Path)} with the classes directory from a build step run once the sources are compiled. It is only
+ * read when the index is enabled, and a package with no indexed class is still scanned.
+ *
+ * @since 3.5.0
+ */
+public final class ClassIndex {
+
+  public static final String INDEX_RESOURCE = "META-INF/mybatis/class-index";
+
+  private ClassIndex() {
+    // Prevent Instantiation
+  }
+
+  /**
+   * Returns the indexed classes of a package and its subpackages.
+   *
+   * @param classLoader the class loader to get the index resources from
+   * @param packageName the package name, e.g. {@code org.apache.ibatis.domain}
+   * @return the fully qualified names of the classes, empty when none is indexed
+   */
+  public static List<String> list(ClassLoader classLoader, String packageName) throws IOException {
+    final String prefix = packageName == null || packageName.isEmpty() ? "" : packageName + ".";
+    final List<String> classNames = new ArrayList<>();
+    final Enumeration<URL> indexes = classLoader.getResources(INDEX_RESOURCE);
+    while (indexes.hasMoreElements()) {
+      for (String className : read(indexes.nextElement())) {
+        if (className.startsWith(prefix)) {
+          classNames.add(className);
+        }
+      }
+    }
+    return classNames;
+  }
+
+  /**
+   * Writes the index of the classes found in a classes directory to {@value #INDEX_RESOURCE} under that directory.
+   *
+   * @param classesDirectory the root directory of the compiled classes
+   * @return the index file
+   */
+  public static Path write(Path classesDirectory) throws IOException {
+    final List<String> classNames;
+    try (Stream<Path> files = Files.walk(classesDirectory)) {
+      classNames = files
+          .filter(Files::isRegularFile)
+          .map(file -> classesDirectory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/"))
+          .filter(path -> path.endsWith(".class") && !path.endsWith("package-info.class") && !path.endsWith("module-info.class"))
+          .map(path -> path.substring(0, path.length() - ".class".length()).replace('/', '.'))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+    final Path index = classesDirectory.resolve(INDEX_RESOURCE);
+    Files.createDirectories(index.getParent());
+    try (Writer writer = Files.newBufferedWriter(index, StandardCharsets.UTF_8)) {
+      writer.write("# Generated by " + ClassIndex.class.getName() + "\n");
+      for (String className : classNames) {
+        writer.write(className);
+        writer.write('\n');
+      }
+    }
+    return index;
+  }
+
+  private static List<String> read(URL index) throws IOException {
+    final List<String> classNames = new ArrayList<>();
+    try (InputStream is = index.openStream();
+         BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        line = line.trim();
+        if (!line.isEmpty() && !line.startsWith("#")) {
+          classNames.add(line);
+        }
+      }
+    }
+    return classNames;
+  }
+
+}
@@ -17,6 +17,7 @@ package org.apache.ibatis.io;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -131,6 +132,9 @@ public class ResolverUtil<T> {
    */
   private ClassLoader classloader;
 
+  /** Whether the classes listed by the {@link ClassIndex} replace the scan of their package. */
+  private boolean classIndexEnabled;
+
   /**
    * Provides access to the classes discovered so far. If no calls have been made to
    * any of the {@code find()} methods, this set will be empty.
@@ -161,6 +165,23 @@ public class ResolverUtil<T> {
     this.classloader = classloader;
   }
 
+  /**
+   * @since 3.5.0
+   */
+  public boolean isClassIndexEnabled() {
+    return classIndexEnabled;
+  }
+
+  /**
+   * Sets whether the classes of a package are read from the {@link ClassIndex} when it lists any, instead of
+   * scanning the class path. All the jars and directories holding classes of that package must then be indexed.
+   *
+   * @since 3.5.0
+   */
+  public void setClassIndexEnabled(boolean classIndexEnabled) {
+    this.classIndexEnabled = classIndexEnabled;
+  }
+
   /**
    * Attempts to discover classes that are assignable to the type provided. In the case
    * that an interface is provided this method will collect implementations. In the case
@@ -204,7 +225,8 @@ public class ResolverUtil<T> {
   }
 
   /**
-   * Scans for classes starting at the package provided and descending into subpackages.
+   * Scans for classes starting at the package provided and descending into subpackages,
+   * or reads them from the {@link ClassIndex} when it is enabled and lists classes of that package.
    * Each class is offered up to the Test as it is discovered, and if the Test returns
    * true the class is retained.  Accumulated classes can be fetched by calling
    * {@link #getClasses()}.
@@ -217,6 +239,15 @@ public class ResolverUtil<T> {
     String path = getPackagePath(packageName);
 
     try {
+      // 启用时优先使用构建时生成的类索引，避免扫描类路径
+      List<String> indexedClasses = classIndexEnabled ? ClassIndex.list(getClassLoader(), packageName) : Collections.<String>emptyList();
+      if (!indexedClasses.isEmpty()) {
+        for (String indexedClass : indexedClasses) {
+          addIfMatching(test, indexedClass.replace('.', '/') + ".class");
+        }
+        return this;
+      }
+
       /*
         VFS 文件操作
         通过VFS对文件进行一些操作，包括写入、读取文件，判断文件是否可读可写等示例。
@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.property.PropertyPath;
 import org.apache.ibatis.reflection.property.PropertyTokenizer;
 import org.apache.ibatis.session.Configuration;
 
@@ -39,14 +40,18 @@ public class BoundSql {
   private final List<ParameterMapping> parameterMappings;
   private final Object parameterObject;
   private final Map<String, Object> additionalParameters;
-  private final MetaObject metaParameters;
+  private final Configuration configuration;
+  /**
+   * Created with the first additional parameter, most statements have none
+   */
+  private MetaObject metaParameters;
 
   public BoundSql(Configuration configuration, String sql, List<ParameterMapping> parameterMappings, Object parameterObject) {
     this.sql = sql;
     this.parameterMappings = parameterMappings;
     this.parameterObject = parameterObject;
     this.additionalParameters = new HashMap<>();
-    this.metaParameters = configuration.newMetaObject(additionalParameters);
+    this.configuration = configuration;
   }
 
   public String getSql() {
@@ -66,11 +71,39 @@ public class BoundSql {
     return additionalParameters.containsKey(paramName);
   }
 
+  /**
+   * @since 3.5.0
+   */
+  public boolean hasAdditionalParameter(PropertyPath path) {
+    return additionalParameters.containsKey(path.getSegment(0).getName());
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public boolean hasAdditionalParameters() {
+    return !additionalParameters.isEmpty();
+  }
+
   public void setAdditionalParameter(String name, Object value) {
-    metaParameters.setValue(name, value);
+    getMetaParameters().setValue(name, value);
   }
 
   public Object getAdditionalParameter(String name) {
-    return metaParameters.getValue(name);
+    return getMetaParameters().getValue(name);
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public Object getAdditionalParameter(PropertyPath path) {
+    return getMetaParameters().getValue(path);
+  }
+
+  private MetaObject getMetaParameters() {
+    if (metaParameters == null) {
+      metaParameters = configuration.newMetaObject(additionalParameters);
+    }
+    return metaParameters;
   }
 }
@@ -23,6 +23,7 @@ import java.util.Properties;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.ThreadSafeCache;
 import org.apache.ibatis.builder.InitializingObject;
 import org.apache.ibatis.cache.decorators.BlockingCache;
 import org.apache.ibatis.cache.decorators.LoggingCache;
@@ -30,6 +31,7 @@ import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.ScheduledCache;
 import org.apache.ibatis.cache.decorators.SerializedCache;
 import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.impl.ConcurrentCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.SystemMetaObject;
@@ -94,12 +96,18 @@ public class CacheBuilder {
         Cache cache = newBaseCacheInstance(implementation, id);
         setCacheProperties(cache);
         // issue #352, do not apply decorators to custom caches
-        if (PerpetualCache.class.equals(cache.getClass())) {
+        if (PerpetualCache.class.equals(cache.getClass()) || ConcurrentCache.class.equals(cache.getClass())) {
+            boolean threadSafe = cache instanceof ThreadSafeCache;
             for (Class<? extends Cache> decorator : decorators) {
+                if (LruCache.class.equals(decorator) && cache instanceof ConcurrentCache) {
+                    // already evicts the least recently used entries
+                    continue;
+                }
                 cache = newCacheDecoratorInstance(decorator, cache);
                 setCacheProperties(cache);
+                threadSafe = threadSafe && cache instanceof ThreadSafeCache;
             }
-            cache = setStandardDecorators(cache);
+            cache = setStandardDecorators(cache, threadSafe);
         } else if (!LoggingCache.class.isAssignableFrom(cache.getClass())) {
             cache = new LoggingCache(cache);
         }
@@ -115,21 +123,33 @@ public class CacheBuilder {
         }
     }
 
-    private Cache setStandardDecorators(Cache cache) {
+    /**
+     * @param threadSafe whether the cache can be called by several threads at once, in which case it is not
+     *                   wrapped in a {@link SynchronizedCache}
+     */
+    private Cache setStandardDecorators(Cache cache, boolean threadSafe) {
         try {
             MetaObject metaCache = SystemMetaObject.forObject(cache);
             if (size != null && metaCache.hasSetter("size")) {
                 metaCache.setValue("size", size);
             }
             if (clearInterval != null) {
-                cache = new ScheduledCache(cache);
-                ((ScheduledCache) cache).setClearInterval(clearInterval);
+                if (threadSafe && metaCache.hasSetter("clearInterval")) {
+                    // expires the entries by itself
+                    metaCache.setValue("clearInterval", clearInterval);
+                } else {
+                    cache = new ScheduledCache(cache);
+                    ((ScheduledCache) cache).setClearInterval(clearInterval);
+                    threadSafe = false;
+                }
             }
             if (readWrite) {
                 cache = new SerializedCache(cache);
             }
             cache = new LoggingCache(cache);
-            cache = new SynchronizedCache(cache);
+            if (!threadSafe) {
+                cache = new SynchronizedCache(cache);
+            }
             if (blocking) {
                 cache = new BlockingCache(cache);
             }
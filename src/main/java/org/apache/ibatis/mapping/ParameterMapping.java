@@ -17,6 +17,8 @@ package org.apache.ibatis.mapping;
 
 import java.sql.ResultSet;
 
+import org.apache.ibatis.reflection.property.PropertyPath;
+import org.apache.ibatis.scripting.xmltags.ForEachSqlNode;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
@@ -30,6 +32,7 @@ public class ParameterMapping {
   private Configuration configuration;
 
   private String property;
+  private PropertyPath propertyPath;
   private ParameterMode mode;
   private Class<?> javaType = Object.class;
   private JdbcType jdbcType;
@@ -135,6 +138,18 @@ public class ParameterMapping {
     return property;
   }
 
+  /**
+   * @return the parsed property, shared by all the executions of the statement unless it names a
+   *         <code>foreach</code> item, which only lives for one execution
+   * @since 3.5.0
+   */
+  public PropertyPath getPropertyPath() {
+    if (propertyPath == null && property != null) {
+      propertyPath = property.startsWith(ForEachSqlNode.ITEM_PREFIX) ? PropertyPath.parse(property) : PropertyPath.of(property);
+    }
+    return propertyPath;
+  }
+
   /**
    * Used for handling output of callable statements
    * @return
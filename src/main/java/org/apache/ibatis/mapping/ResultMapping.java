@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
+import org.apache.ibatis.reflection.property.PropertyPath;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
@@ -30,8 +31,14 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
  */
 public class ResultMapping {
 
+    /**
+     * Number of keys passed at once to a batch select when no batchSize is set.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
     private Configuration configuration;
     private String property;
+    private PropertyPath propertyPath;
     private String column;
     private Class<?> javaType;
     private JdbcType jdbcType;
@@ -45,6 +52,9 @@ public class ResultMapping {
     private String resultSet;
     private String foreignColumn;
     private boolean lazy;
+    private String batchQueryId;
+    private String batchKeyProperty;
+    private int batchSize = DEFAULT_BATCH_SIZE;
 
     ResultMapping() {
     }
@@ -132,6 +142,21 @@ public class ResultMapping {
             return this;
         }
 
+        public Builder batchQueryId(String batchQueryId) {
+            resultMapping.batchQueryId = batchQueryId;
+            return this;
+        }
+
+        public Builder batchKeyProperty(String batchKeyProperty) {
+            resultMapping.batchKeyProperty = batchKeyProperty;
+            return this;
+        }
+
+        public Builder batchSize(int batchSize) {
+            resultMapping.batchSize = batchSize;
+            return this;
+        }
+
         public ResultMapping build() {
             // lock down collections
             resultMapping.flags = Collections.unmodifiableList(resultMapping.flags);
@@ -167,6 +192,21 @@ public class ResultMapping {
                     throw new IllegalStateException("There should be the same number of columns and foreignColumns in property " + resultMapping.property);
                 }
             }
+            if (resultMapping.batchQueryId != null) {
+                if (resultMapping.nestedQueryId == null) {
+                    throw new IllegalStateException("Cannot define a batchSelect without a nested select in property " + resultMapping.property);
+                }
+                if (resultMapping.batchKeyProperty == null) {
+                    throw new IllegalStateException("Mapping is missing batchKeyProperty attribute for property " + resultMapping.property);
+                }
+                int numColumns = resultMapping.composites.isEmpty() ? 1 : resultMapping.composites.size();
+                if (resultMapping.batchKeyProperty.split(",").length != numColumns) {
+                    throw new IllegalStateException("There should be the same number of columns and batchKeyProperties in property " + resultMapping.property);
+                }
+                if (resultMapping.batchSize <= 0) {
+                    throw new IllegalStateException("The batchSize should be greater than 0 in property " + resultMapping.property);
+                }
+            }
         }
 
         private void resolveTypeHandler() {
@@ -187,6 +227,17 @@ public class ResultMapping {
         return property;
     }
 
+    /**
+     * @return the parsed property, shared by all the rows mapped with this mapping
+     * @since 3.5.0
+     */
+    public PropertyPath getPropertyPath() {
+        if (propertyPath == null && property != null) {
+            propertyPath = PropertyPath.of(property);
+        }
+        return propertyPath;
+    }
+
     public String getColumn() {
         return column;
     }
@@ -251,6 +302,18 @@ public class ResultMapping {
         this.lazy = lazy;
     }
 
+    public String getBatchQueryId() {
+        return batchQueryId;
+    }
+
+    public String getBatchKeyProperty() {
+        return batchKeyProperty;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -298,6 +361,9 @@ public class ResultMapping {
         sb.append(", resultSet='").append(resultSet).append('\'');
         sb.append(", foreignColumn='").append(foreignColumn).append('\'');
         sb.append(", lazy=").append(lazy);
+        sb.append(", batchQueryId='").append(batchQueryId).append('\'');
+        sb.append(", batchKeyProperty='").append(batchKeyProperty).append('\'');
+        sb.append(", batchSize=").append(batchSize);
         sb.append('}');
         return sb.toString();
     }
@@ -15,10 +15,16 @@
  */
 package org.apache.ibatis.reflection;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
@@ -31,10 +37,14 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
 import org.apache.ibatis.reflection.invoker.Invoker;
 import org.apache.ibatis.reflection.invoker.MethodInvoker;
+import org.apache.ibatis.reflection.invoker.PropertyGetter;
+import org.apache.ibatis.reflection.invoker.PropertySetter;
 import org.apache.ibatis.reflection.invoker.SetFieldInvoker;
 import org.apache.ibatis.reflection.property.PropertyNamer;
 
@@ -47,6 +57,16 @@ import org.apache.ibatis.reflection.property.PropertyNamer;
  * @author Clinton Begin
  */
 public class Reflector {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+    /**
+     * LambdaMetafactory 生成的访问器，按 Method 在所有 Reflector 之间共享，因为生成的类不会被卸载。
+     * 只有 MyBatis 的类加载器能访问的方法才会生成，所以不会留住应用的类加载器
+     */
+    private static final ConcurrentMap<Method, PropertyGetter> GENERATED_GETTERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Method, PropertySetter> GENERATED_SETTERS = new ConcurrentHashMap<>();
+
     /**
      * 对应的 class 类型
      */
@@ -84,6 +104,22 @@ public class Reflector {
      * 记录了所有属性名称的集合
      */
     private Map<String, String> caseInsensitivePropertyMap = new HashMap<>();
+    /**
+     * 可读属性在 getters 中的下标，和 readablePropertyNames 的顺序一致
+     */
+    private final Map<String, Integer> getterSlots = new HashMap<>();
+    /**
+     * 可写属性在 setters 中的下标，和 writeablePropertyNames 的顺序一致
+     */
+    private final Map<String, Integer> setterSlots = new HashMap<>();
+    /**
+     * 按下标保存的 getter，第一次使用时生成
+     */
+    private final PropertyGetter[] getters;
+    /**
+     * 按下标保存的 setter，第一次使用时生成
+     */
+    private final PropertySetter[] setters;
 
     public Reflector(Class<?> clazz) {
         type = clazz;
@@ -99,6 +135,14 @@ public class Reflector {
         for (String propName : writeablePropertyNames) {
             caseInsensitivePropertyMap.put(propName.toUpperCase(Locale.ENGLISH), propName);
         }
+        for (int i = 0; i < readablePropertyNames.length; i++) {
+            getterSlots.put(readablePropertyNames[i], i);
+        }
+        for (int i = 0; i < writeablePropertyNames.length; i++) {
+            setterSlots.put(writeablePropertyNames[i], i);
+        }
+        getters = new PropertyGetter[readablePropertyNames.length];
+        setters = new PropertySetter[writeablePropertyNames.length];
     }
 
     private void addDefaultConstructor(Class<?> clazz) {
@@ -465,6 +509,171 @@ public class Reflector {
         return method;
     }
 
+    /**
+     * Returns the index of a readable property in the getter table, which follows the order of
+     * {@link #getGetablePropertyNames()}. Resolve it once and use {@link #getGetter(int)} afterwards.
+     *
+     * @param propertyName the name of the property
+     * @return the index of the getter
+     * @since 3.5.0
+     */
+    public int getGetterSlot(String propertyName) {
+        Integer slot = getterSlots.get(propertyName);
+        if (slot == null) {
+            throw new ReflectionException("There is no getter for property named '" + propertyName + "' in '" + type + "'");
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the index of a writeable property in the setter table, which follows the order of
+     * {@link #getSetablePropertyNames()}. Resolve it once and use {@link #getSetter(int)} afterwards.
+     *
+     * @param propertyName the name of the property
+     * @return the index of the setter
+     * @since 3.5.0
+     */
+    public int getSetterSlot(String propertyName) {
+        Integer slot = setterSlots.get(propertyName);
+        if (slot == null) {
+            throw new ReflectionException("There is no setter for property named '" + propertyName + "' in '" + type + "'");
+        }
+        return slot;
+    }
+
+    /**
+     * @param slot the index returned by {@link #getGetterSlot(String)}
+     * @return the getter, created on first use
+     * @since 3.5.0
+     */
+    public PropertyGetter getGetter(int slot) {
+        PropertyGetter getter = getters[slot];
+        if (getter == null) {
+            getter = newGetter(getMethods.get(readablePropertyNames[slot]));
+            getters[slot] = getter;
+        }
+        return getter;
+    }
+
+    /**
+     * @param slot the index returned by {@link #getSetterSlot(String)}
+     * @return the setter, created on first use
+     * @since 3.5.0
+     */
+    public PropertySetter getSetter(int slot) {
+        PropertySetter setter = setters[slot];
+        if (setter == null) {
+            setter = newSetter(setMethods.get(writeablePropertyNames[slot]));
+            setters[slot] = setter;
+        }
+        return setter;
+    }
+
+    /*
+     * Public methods of public classes are called through a class generated by LambdaMetafactory, like a method
+     * reference. Fields and the other methods, that the generated class could not link to, use the invoker.
+     */
+    private static PropertyGetter newGetter(Invoker invoker) {
+        Method method = getLambdaTarget(invoker);
+        if (method != null && method.getReturnType() != void.class) {
+            PropertyGetter getter = GENERATED_GETTERS.computeIfAbsent(method, Reflector::generateGetter);
+            if (getter != null) {
+                return getter;
+            }
+        }
+        return target -> {
+            try {
+                return invoker.invoke(target, NO_ARGUMENTS);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private static PropertySetter newSetter(Invoker invoker) {
+        Method method = getLambdaTarget(invoker);
+        if (method != null) {
+            PropertySetter setter = GENERATED_SETTERS.computeIfAbsent(method, Reflector::generateSetter);
+            if (setter != null) {
+                return setter;
+            }
+        }
+        return (target, value) -> {
+            try {
+                invoker.invoke(target, new Object[]{value});
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    /*
+     * Returns null when the class cannot be generated, so that the invoker is used instead
+     */
+    private static PropertyGetter generateGetter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get",
+                    MethodType.methodType(PropertyGetter.class),
+                    MethodType.methodType(Object.class, Object.class), handle,
+                    MethodType.methodType(method.getReturnType(), method.getDeclaringClass()).wrap());
+            return (PropertyGetter) site.getTarget().invokeWithArguments();
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    private static PropertySetter generateSetter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "set",
+                    MethodType.methodType(PropertySetter.class),
+                    MethodType.methodType(void.class, Object.class, Object.class), handle,
+                    MethodType.methodType(void.class, method.getDeclaringClass(),
+                            MethodType.methodType(method.getParameterTypes()[0]).wrap().returnType()));
+            return (PropertySetter) site.getTarget().invokeWithArguments();
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    private static Method getLambdaTarget(Invoker invoker) {
+        if (!(invoker instanceof MethodInvoker)) {
+            return null;
+        }
+        Method method = ((MethodInvoker) invoker).getMethod();
+        if (Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers())
+                || !isAccessible(method.getDeclaringClass()) || !isAccessible(method.getReturnType())) {
+            return null;
+        }
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isAccessible(parameterType)) {
+                return null;
+            }
+        }
+        return method;
+    }
+
+    /*
+     * The generated class is defined in the class loader of this class and must be able to resolve and access the types
+     */
+    private static boolean isAccessible(Class<?> clazz) {
+        while (clazz.isArray()) {
+            clazz = clazz.getComponentType();
+        }
+        if (clazz.isPrimitive()) {
+            return true;
+        }
+        if (!Modifier.isPublic(clazz.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(clazz.getName(), false, Reflector.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
     /*
      * Gets the type for a property setter
      *
@@ -0,0 +1,30 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+/**
+ * Writes a property of an object. Instances are created by {@link org.apache.ibatis.reflection.Reflector}, which
+ * generates them with {@link java.lang.invoke.LambdaMetafactory} for public setters and falls back to an
+ * {@link Invoker} otherwise. Unlike an {@link Invoker}, exceptions thrown by the setter are not wrapped.
+ *
+ * @since 3.5.0
+ */
+@FunctionalInterface
+public interface PropertySetter {
+
+    void set(Object target, Object value) throws Throwable;
+
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.reflection.property;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.invoker.PropertyGetter;
+
+/**
+ * A property expression like <code>orders[0].items[0].name</code> split once into its
+ * {@link PropertyTokenizer} segments, so that it can be evaluated many times with
+ * {@link org.apache.ibatis.reflection.MetaObject#getValue(PropertyPath)} without parsing it again.
+ * <p>
+ * Instances are immutable apart from a cache of the last getter slot resolved for each segment. The expressions known
+ * when the mappings are built are shared through {@link #of(String)}; the names generated for a single execution, like
+ * the items of a <code>foreach</code>, should use {@link #parse(String)} so that they do not fill the shared table.
+ * The caches only hold the reflectors weakly, so the shared paths do not keep their classes or class loaders.
+ *
+ * @since 3.5.0
+ */
+public final class PropertyPath {
+
+    /**
+     * 最多缓存的属性表达式个数，超出后不再缓存
+     */
+    private static final int MAX_INTERNED_PATHS = 4096;
+    private static final ConcurrentHashMap<String, PropertyPath> INTERNED_PATHS = new ConcurrentHashMap<>();
+
+    private final String fullName;
+    private final PropertyTokenizer[] segments;
+    /**
+     * 每一段最后一次解析出的 getter 槽位
+     */
+    private final ResolvedSlot[] resolvedGetters;
+
+    private PropertyPath(String fullName) {
+        this.fullName = fullName;
+        int depth = 1;
+        for (PropertyTokenizer prop = new PropertyTokenizer(fullName); prop.hasNext(); prop = prop.next()) {
+            depth++;
+        }
+        this.segments = new PropertyTokenizer[depth];
+        PropertyTokenizer prop = new PropertyTokenizer(fullName);
+        for (int i = 0; i < depth; i++) {
+            segments[i] = prop;
+            prop.markShared();
+            if (prop.hasNext()) {
+                prop = prop.next();
+            }
+        }
+        this.resolvedGetters = new ResolvedSlot[depth];
+    }
+
+    /**
+     * Returns the shared path of an expression, parsing it only the first time it is seen.
+     *
+     * @param fullName an expression that is used again and again, e.g. the property of a mapping
+     */
+    public static PropertyPath of(String fullName) {
+        PropertyPath path = INTERNED_PATHS.get(fullName);
+        if (path == null) {
+            path = new PropertyPath(fullName);
+            if (INTERNED_PATHS.size() < MAX_INTERNED_PATHS) {
+                PropertyPath existing = INTERNED_PATHS.putIfAbsent(fullName, path);
+                if (existing != null) {
+                    path = existing;
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Parses an expression without sharing it.
+     *
+     * @param fullName an expression that is only used for a single execution
+     */
+    public static PropertyPath parse(String fullName) {
+        return new PropertyPath(fullName);
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public int getDepth() {
+        return segments.length;
+    }
+
+    public PropertyTokenizer getSegment(int index) {
+        return segments[index];
+    }
+
+    /**
+     * @param index the index of the first segment
+     * @return the expression from the segment, e.g. <code>items[0].name</code> for the second segment of
+     * <code>orders[0].items[0].name</code>
+     */
+    public String getPath(int index) {
+        return index == 0 ? fullName : segments[index - 1].getChildren();
+    }
+
+    /**
+     * Returns the getter of a segment that has no index, for an object of the given type.
+     *
+     * @return the getter or {@code null} if the type has no getter for the segment
+     */
+    public PropertyGetter getGetter(int index, Class<?> type, ReflectorFactory reflectorFactory) {
+        ResolvedSlot resolved = resolvedGetters[index];
+        if (resolved != null) {
+            Reflector reflector = resolved.getReflector();
+            if (reflector != null && reflector.getType() == type) {
+                return reflector.getGetter(resolved.getSlot());
+            }
+        }
+        Reflector reflector = reflectorFactory.findForClass(type);
+        String name = segments[index].getName();
+        if (!reflector.hasGetter(name)) {
+            return null;
+        }
+        int slot = reflector.getGetterSlot(name);
+        resolvedGetters[index] = new ResolvedSlot(reflector, slot);
+        return reflector.getGetter(slot);
+    }
+
+    @Override
+    public String toString() {
+        return fullName;
+    }
+
+}
@@ -17,6 +17,8 @@ package org.apache.ibatis.reflection.property;
 
 import java.util.Iterator;
 
+import org.apache.ibatis.reflection.Reflector;
+
 /**
  * 属性标记生成器
  *
@@ -27,6 +29,12 @@ public class PropertyTokenizer implements Iterator<PropertyTokenizer> {
     private final String indexedName;
     private String index;
     private final String children;
+    /**
+     * 是否属于共享的 PropertyPath，只有这样的 tokenizer 会被重复使用，才缓存解析出的槽位
+     */
+    private boolean shared;
+    private ResolvedSlot getterSlot;
+    private ResolvedSlot setterSlot;
 
     /**
      * 用来解析如下规则
@@ -68,6 +76,46 @@ public class PropertyTokenizer implements Iterator<PropertyTokenizer> {
         return children;
     }
 
+    /**
+     * Returns the slot of the getter named by this segment, as {@link Reflector#getGetterSlot(String)} does. The slot
+     * is resolved once per reflector for the segments of a {@link PropertyPath}.
+     *
+     * @since 3.5.0
+     */
+    public int getGetterSlot(Reflector reflector) {
+        ResolvedSlot resolved = getterSlot;
+        if (resolved != null && resolved.getReflector() == reflector) {
+            return resolved.getSlot();
+        }
+        int slot = reflector.getGetterSlot(name);
+        if (shared) {
+            getterSlot = new ResolvedSlot(reflector, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the slot of the setter named by this segment, as {@link Reflector#getSetterSlot(String)} does. The slot
+     * is resolved once per reflector for the segments of a {@link PropertyPath}.
+     *
+     * @since 3.5.0
+     */
+    public int getSetterSlot(Reflector reflector) {
+        ResolvedSlot resolved = setterSlot;
+        if (resolved != null && resolved.getReflector() == reflector) {
+            return resolved.getSlot();
+        }
+        int slot = reflector.getSetterSlot(name);
+        if (shared) {
+            setterSlot = new ResolvedSlot(reflector, slot);
+        }
+        return slot;
+    }
+
+    void markShared() {
+        this.shared = true;
+    }
+
     @Override
     public boolean hasNext() {
         return children != null;
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.reflection.property;
+
+import java.lang.ref.WeakReference;
+
+import org.apache.ibatis.reflection.Reflector;
+
+/**
+ * A getter or setter slot resolved in a {@link Reflector}, cached by the shared {@link PropertyPath}s and their segments.
+ * The reflector is only weakly referenced, so that the interned paths do not keep the classes it describes.
+ */
+final class ResolvedSlot {
+
+    private final WeakReference<Reflector> reflector;
+    private final int slot;
+
+    ResolvedSlot(Reflector reflector, int slot) {
+        this.reflector = new WeakReference<>(reflector);
+        this.slot = slot;
+    }
+
+    /**
+     * @return the reflector or {@code null} if it has been collected
+     */
+    Reflector getReflector() {
+        return reflector.get();
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+}
@@ -21,9 +21,11 @@ import org.apache.ibatis.reflection.ExceptionUtil;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
 import org.apache.ibatis.reflection.SystemMetaObject;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
-import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.PropertyGetter;
+import org.apache.ibatis.reflection.invoker.PropertySetter;
 import org.apache.ibatis.reflection.property.PropertyTokenizer;
 
 /**
@@ -33,11 +35,13 @@ public class BeanWrapper extends BaseWrapper {
 
     private final Object object;
     private final MetaClass metaClass;
+    private final Reflector reflector;
 
     public BeanWrapper(MetaObject metaObject, Object object) {
         super(metaObject);
         this.object = object;
         this.metaClass = MetaClass.forClass(object.getClass(), metaObject.getReflectorFactory());
+        this.reflector = metaObject.getReflectorFactory().findForClass(object.getClass());
     }
 
     @Override
@@ -159,9 +163,9 @@ public class BeanWrapper extends BaseWrapper {
 
     private Object getBeanProperty(PropertyTokenizer prop, Object object) {
         try {
-            Invoker method = metaClass.getGetInvoker(prop.getName());
+            PropertyGetter getter = reflector.getGetter(prop.getGetterSlot(reflector));
             try {
-                return method.invoke(object, NO_ARGUMENTS);
+                return getter.get(object);
             } catch (Throwable t) {
                 throw ExceptionUtil.unwrapThrowable(t);
             }
@@ -174,10 +178,9 @@ public class BeanWrapper extends BaseWrapper {
 
     private void setBeanProperty(PropertyTokenizer prop, Object object, Object value) {
         try {
-            Invoker method = metaClass.getSetInvoker(prop.getName());
-            Object[] params = {value};
+            PropertySetter setter = reflector.getSetter(prop.getSetterSlot(reflector));
             try {
-                method.invoke(object, params);
+                setter.set(object, value);
             } catch (Throwable t) {
                 throw ExceptionUtil.unwrapThrowable(t);
             }
@@ -18,6 +18,8 @@ package org.apache.ibatis.scripting.defaults;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
@@ -26,6 +28,8 @@ import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.property.PropertyPath;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeException;
@@ -63,20 +67,25 @@ public class DefaultParameterHandler implements ParameterHandler {
     ErrorContext.instance().activity("setting parameters").object(mappedStatement.getParameterMap().getId());
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
     if (parameterMappings != null) {
+      ParameterBinder parameterBinder = getParameterBinder(parameterMappings);
+      if (parameterBinder != null) {
+        parameterBinder.bind(ps, parameterObject);
+        return;
+      }
       for (int i = 0; i < parameterMappings.size(); i++) {
         ParameterMapping parameterMapping = parameterMappings.get(i);
         if (parameterMapping.getMode() != ParameterMode.OUT) {
           Object value;
-          String propertyName = parameterMapping.getProperty();
-          if (boundSql.hasAdditionalParameter(propertyName)) { // issue #448 ask first for additional params
-            value = boundSql.getAdditionalParameter(propertyName);
+          PropertyPath propertyPath = parameterMapping.getPropertyPath();
+          if (boundSql.hasAdditionalParameter(propertyPath)) { // issue #448 ask first for additional params
+            value = boundSql.getAdditionalParameter(propertyPath);
           } else if (parameterObject == null) {
             value = null;
           } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
             value = parameterObject;
           } else {
             MetaObject metaObject = configuration.newMetaObject(parameterObject);
-            value = metaObject.getValue(propertyName);
+            value = metaObject.getValue(propertyPath);
           }
           TypeHandler typeHandler = parameterMapping.getTypeHandler();
           JdbcType jdbcType = parameterMapping.getJdbcType();
@@ -95,4 +104,30 @@ public class DefaultParameterHandler implements ParameterHandler {
     }
   }
 
+  /**
+   * @return the binder of the statement for the type of the parameter object, or null if the parameters must be
+   *         resolved one by one
+   */
+  private ParameterBinder getParameterBinder(List<ParameterMapping> parameterMappings) {
+    if (parameterObject == null || parameterMappings.isEmpty() || boundSql.hasAdditionalParameters()
+        || configuration.getObjectWrapperFactory().getClass() != DefaultObjectWrapperFactory.class) {
+      return null;
+    }
+    Map<Class<?>, ParameterBinder> parameterBinders = configuration.getParameterBinders().get(mappedStatement);
+    if (parameterBinders == null) {
+      parameterBinders = configuration.getParameterBinders().computeIfAbsent(mappedStatement, k -> new ConcurrentHashMap<>());
+    }
+    final Class<?> parameterType = parameterObject.getClass();
+    ParameterBinder parameterBinder = parameterBinders.get(parameterType);
+    if (parameterBinder == null) {
+      parameterBinder = ParameterBinder.create(configuration, parameterMappings, parameterType);
+      parameterBinders.put(parameterType, parameterBinder);
+    } else if (parameterBinder != ParameterBinder.UNSUPPORTED && !parameterBinder.isFor(parameterMappings)) {
+      // the parameter mappings are built for each execution
+      parameterBinder = ParameterBinder.UNSUPPORTED;
+      parameterBinders.put(parameterType, parameterBinder);
+    }
+    return parameterBinder == ParameterBinder.UNSUPPORTED ? null : parameterBinder;
+  }
+
 }
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.scripting.defaults;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.PropertyGetter;
+import org.apache.ibatis.reflection.property.PropertyPath;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeException;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Binds the parameters of a statement whose parameter mappings do not change, for one type of parameter object.
+ * How each value is read from the parameter object (the object itself, a map entry, a getter or, for nested
+ * properties, a {@link org.apache.ibatis.reflection.MetaObject}) is resolved once, so the values of simple
+ * properties are read without creating a <code>MetaObject</code>.
+ * <p>
+ * Instances are built by {@link DefaultParameterHandler} for statements without additional parameters and are
+ * shared through {@link Configuration#getParameterBinders()}.
+ *
+ * @since 3.5.0
+ */
+public final class ParameterBinder {
+
+  /**
+   * Marker stored for statements whose parameter mappings change between executions.
+   */
+  static final ParameterBinder UNSUPPORTED = new ParameterBinder(null, null, new ValueReader[0]);
+
+  private final Configuration configuration;
+  private final List<ParameterMapping> parameterMappings;
+  /**
+   * One per parameter mapping, null for the OUT parameters
+   */
+  private final ValueReader[] valueReaders;
+
+  private ParameterBinder(Configuration configuration, List<ParameterMapping> parameterMappings, ValueReader[] valueReaders) {
+    this.configuration = configuration;
+    this.parameterMappings = parameterMappings;
+    this.valueReaders = valueReaders;
+  }
+
+  static ParameterBinder create(Configuration configuration, List<ParameterMapping> parameterMappings, Class<?> parameterType) {
+    final ValueReader[] valueReaders = new ValueReader[parameterMappings.size()];
+    final boolean simpleParameter = configuration.getTypeHandlerRegistry().hasTypeHandler(parameterType);
+    for (int i = 0; i < valueReaders.length; i++) {
+      final ParameterMapping parameterMapping = parameterMappings.get(i);
+      if (parameterMapping.getMode() != ParameterMode.OUT) {
+        valueReaders[i] = simpleParameter
+            ? parameterObject -> parameterObject
+            : createValueReader(configuration, parameterType, parameterMapping.getProperty());
+      }
+    }
+    return new ParameterBinder(configuration, parameterMappings, valueReaders);
+  }
+
+  /**
+   * @return whether the binder has been built for these parameter mappings
+   */
+  boolean isFor(List<ParameterMapping> parameterMappings) {
+    return this.parameterMappings == parameterMappings;
+  }
+
+  void bind(PreparedStatement ps, Object parameterObject) {
+    for (int i = 0; i < valueReaders.length; i++) {
+      if (valueReaders[i] == null) {
+        continue;
+      }
+      final ParameterMapping parameterMapping = parameterMappings.get(i);
+      final Object value = valueReaders[i].read(parameterObject);
+      @SuppressWarnings("unchecked")
+      final TypeHandler<Object> typeHandler = (TypeHandler<Object>) parameterMapping.getTypeHandler();
+      JdbcType jdbcType = parameterMapping.getJdbcType();
+      if (value == null && jdbcType == null) {
+        jdbcType = configuration.getJdbcTypeForNull();
+      }
+      try {
+        typeHandler.setParameter(ps, i + 1, value, jdbcType);
+      } catch (TypeException | SQLException e) {
+        throw new TypeException("Could not set parameters for mapping: " + parameterMapping + ". Cause: " + e, e);
+      }
+    }
+  }
+
+  private static ValueReader createValueReader(Configuration configuration, Class<?> parameterType, String property) {
+    if (property.indexOf('.') < 0 && property.indexOf('[') < 0) {
+      if (Map.class.isAssignableFrom(parameterType)) {
+        return parameterObject -> ((Map<?, ?>) parameterObject).get(property);
+      }
+      if (!Collection.class.isAssignableFrom(parameterType) && !parameterType.isArray()) {
+        final Reflector reflector = configuration.getReflectorFactory().findForClass(parameterType);
+        if (reflector.hasGetter(property)) {
+          final PropertyGetter getter = reflector.getGetter(reflector.getGetterSlot(property));
+          return parameterObject -> getProperty(getter, property, parameterObject);
+        }
+      }
+    }
+    // nested properties and errors are left to MetaObject
+    final PropertyPath path = PropertyPath.of(property);
+    return parameterObject -> configuration.newMetaObject(parameterObject).getValue(path);
+  }
+
+  private static Object getProperty(PropertyGetter getter, String property, Object parameterObject) {
+    try {
+      try {
+        return getter.get(parameterObject);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not get property '" + property + "' from " + parameterObject.getClass() + ".  Cause: " + t.toString(), t);
+    }
+  }
+
+  private interface ValueReader {
+    Object read(Object parameterObject);
+  }
+
+}
@@ -0,0 +1,443 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ognl.OgnlOps;
+
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.MethodInvoker;
+
+/**
+ * Pre-compiled form of the OGNL expressions used in <code>test</code> attributes.
+ * <p>
+ * Only the common subset is compiled: property paths, <code>null</code>, boolean, integer, decimal and string
+ * literals, the comparison operators, <code>and</code>, <code>or</code>, <code>not</code> and the
+ * <code>size()</code>, <code>isEmpty()</code>, <code>length()</code> and <code>trim()</code> methods of
+ * collections, maps and strings. The operators are evaluated with {@link OgnlOps}, so the results are the
+ * same as those of OGNL. Any other expression, and any evaluation the compiled form cannot handle (a null
+ * intermediate value, a property that is not a plain getter, an exception...), goes through {@link OgnlCache}.
+ *
+ * @since 3.5.0
+ */
+final class CompiledExpression {
+
+  private static final CompiledExpression NOT_COMPILABLE = new CompiledExpression(null);
+
+  private static final Unsupported UNSUPPORTED = new Unsupported();
+
+  private static final Map<String, CompiledExpression> expressionCache = new ConcurrentHashMap<>();
+
+  private static final ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+
+  /**
+   * OGNL keywords that cannot be read as a property name. true, false and null are handled as literals.
+   */
+  private static final Set<String> RESERVED_WORDS = new HashSet<>(Arrays.asList(
+      "and", "or", "not", "eq", "neq", "lt", "gt", "lte", "gte", "in", "instanceof",
+      "shl", "shr", "ushr", "bor", "xor", "band", "new", "this"));
+
+  private final Evaluator evaluator;
+
+  private CompiledExpression(Evaluator evaluator) {
+    this.evaluator = evaluator;
+  }
+
+  /**
+   * Evaluates the expression against the root object, with OGNL as a fallback.
+   */
+  static Object getValue(String expression, Object root) {
+    CompiledExpression compiledExpression = expressionCache.computeIfAbsent(expression, CompiledExpression::compile);
+    if (compiledExpression != NOT_COMPILABLE) {
+      try {
+        return compiledExpression.evaluator.evaluate(root);
+      } catch (RuntimeException e) {
+        // not handled by the compiled form, let OGNL evaluate (or report) it
+      }
+    }
+    return OgnlCache.getValue(expression, root);
+  }
+
+  static boolean isCompilable(String expression) {
+    return compile(expression) != NOT_COMPILABLE;
+  }
+
+  private static CompiledExpression compile(String expression) {
+    try {
+      Parser parser = new Parser(tokenize(expression));
+      Evaluator evaluator = parser.parseOr();
+      if (parser.hasNext()) {
+        return NOT_COMPILABLE;
+      }
+      return new CompiledExpression(evaluator);
+    } catch (Unsupported e) {
+      return NOT_COMPILABLE;
+    }
+  }
+
+  private static Object getRootProperty(Object root, String name) {
+    if (!(root instanceof DynamicContext.ContextMap)) {
+      return getProperty(root, name);
+    }
+    // same lookup as DynamicContext.ContextAccessor
+    Map<?, ?> map = (Map<?, ?>) root;
+    Object result = map.get(name);
+    if (result != null || map.containsKey(name)) {
+      return result;
+    }
+    Object parameterObject = map.get(DynamicContext.PARAMETER_OBJECT_KEY);
+    if (parameterObject instanceof Map) {
+      return ((Map<?, ?>) parameterObject).get(name);
+    }
+    return null;
+  }
+
+  private static Object getProperty(Object target, String name) {
+    if (target instanceof Map) {
+      switch (name) {
+        case "size":
+        case "keys":
+        case "keySet":
+        case "values":
+        case "isEmpty":
+          throw UNSUPPORTED;
+        default:
+          return ((Map<?, ?>) target).get(name);
+      }
+    }
+    if (target == null || target instanceof Collection || target.getClass().isArray()) {
+      throw UNSUPPORTED;
+    }
+    Reflector reflector = reflectorFactory.findForClass(target.getClass());
+    if (!reflector.hasGetter(name)) {
+      throw UNSUPPORTED;
+    }
+    Invoker invoker = reflector.getGetInvoker(name);
+    if (!(invoker instanceof MethodInvoker)) {
+      throw UNSUPPORTED;
+    }
+    try {
+      return invoker.invoke(target, null);
+    } catch (Exception e) {
+      throw UNSUPPORTED;
+    }
+  }
+
+  private static Object invokeMethod(Object target, String name) {
+    if (target instanceof Collection) {
+      if ("size".equals(name)) {
+        return ((Collection<?>) target).size();
+      } else if ("isEmpty".equals(name)) {
+        return ((Collection<?>) target).isEmpty();
+      }
+    } else if (target instanceof Map) {
+      if ("size".equals(name)) {
+        return ((Map<?, ?>) target).size();
+      } else if ("isEmpty".equals(name)) {
+        return ((Map<?, ?>) target).isEmpty();
+      }
+    } else if (target instanceof String) {
+      if ("length".equals(name)) {
+        return ((String) target).length();
+      } else if ("isEmpty".equals(name)) {
+        return ((String) target).isEmpty();
+      } else if ("trim".equals(name)) {
+        return ((String) target).trim();
+      }
+    }
+    throw UNSUPPORTED;
+  }
+
+  private static List<Token> tokenize(String expression) {
+    List<Token> tokens = new ArrayList<>();
+    int length = expression.length();
+    int i = 0;
+    while (i < length) {
+      char c = expression.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (Character.isJavaIdentifierStart(c)) {
+        int start = i;
+        while (i < length && Character.isJavaIdentifierPart(expression.charAt(i))) {
+          i++;
+        }
+        tokens.add(new Token(TokenType.IDENTIFIER, expression.substring(start, i), null));
+      } else if (c >= '0' && c <= '9') {
+        int start = i;
+        while (i < length && Character.isDigit(expression.charAt(i))) {
+          i++;
+        }
+        boolean decimal = i + 1 < length && expression.charAt(i) == '.' && Character.isDigit(expression.charAt(i + 1));
+        if (decimal) {
+          i++;
+          while (i < length && Character.isDigit(expression.charAt(i))) {
+            i++;
+          }
+        }
+        if (i < length && (Character.isJavaIdentifierPart(expression.charAt(i)) || expression.charAt(i) == '.')) {
+          // suffixes, exponents, hexadecimal numbers...
+          throw UNSUPPORTED;
+        }
+        String number = expression.substring(start, i);
+        if (!decimal && number.length() > 1 && number.charAt(0) == '0') {
+          // octal
+          throw UNSUPPORTED;
+        }
+        try {
+          Object value = decimal ? (Object) Double.valueOf(number) : (Object) Integer.valueOf(number);
+          tokens.add(new Token(TokenType.LITERAL, number, value));
+        } catch (NumberFormatException e) {
+          throw UNSUPPORTED;
+        }
+      } else if (c == '\'' || c == '"') {
+        int end = expression.indexOf(c, i + 1);
+        if (end < 0) {
+          throw UNSUPPORTED;
+        }
+        String text = expression.substring(i + 1, end);
+        if (text.indexOf('\\') >= 0) {
+          throw UNSUPPORTED;
+        }
+        // single quoted literals of one character are characters in OGNL
+        Object value = c == '\'' && text.length() == 1 ? (Object) text.charAt(0) : (Object) text;
+        tokens.add(new Token(TokenType.LITERAL, text, value));
+        i = end + 1;
+      } else {
+        String symbol = i + 1 < length ? expression.substring(i, i + 2) : null;
+        if ("==".equals(symbol) || "!=".equals(symbol) || "<=".equals(symbol) || ">=".equals(symbol)
+            || "&&".equals(symbol) || "||".equals(symbol)) {
+          tokens.add(new Token(TokenType.OPERATOR, symbol, null));
+          i += 2;
+        } else if ("<>!().".indexOf(c) >= 0) {
+          tokens.add(new Token(TokenType.OPERATOR, String.valueOf(c), null));
+          i++;
+        } else {
+          throw UNSUPPORTED;
+        }
+      }
+    }
+    return tokens;
+  }
+
+  private static class Parser {
+
+    private final List<Token> tokens;
+    private int position;
+
+    Parser(List<Token> tokens) {
+      this.tokens = tokens;
+    }
+
+    boolean hasNext() {
+      return position < tokens.size();
+    }
+
+    Evaluator parseOr() {
+      Evaluator evaluator = parseAnd();
+      while (accept("||", "or")) {
+        final Evaluator left = evaluator;
+        final Evaluator right = parseAnd();
+        evaluator = root -> {
+          Object value = left.evaluate(root);
+          return OgnlOps.booleanValue(value) ? value : right.evaluate(root);
+        };
+      }
+      return evaluator;
+    }
+
+    private Evaluator parseAnd() {
+      Evaluator evaluator = parseEquality();
+      while (accept("&&", "and")) {
+        final Evaluator left = evaluator;
+        final Evaluator right = parseEquality();
+        evaluator = root -> {
+          Object value = left.evaluate(root);
+          return OgnlOps.booleanValue(value) ? right.evaluate(root) : value;
+        };
+      }
+      return evaluator;
+    }
+
+    private Evaluator parseEquality() {
+      Evaluator evaluator = parseRelational();
+      while (true) {
+        final Evaluator left = evaluator;
+        if (accept("==", "eq")) {
+          final Evaluator right = parseRelational();
+          evaluator = root -> OgnlOps.equal(left.evaluate(root), right.evaluate(root)) ? Boolean.TRUE : Boolean.FALSE;
+        } else if (accept("!=", "neq")) {
+          final Evaluator right = parseRelational();
+          evaluator = root -> OgnlOps.equal(left.evaluate(root), right.evaluate(root)) ? Boolean.FALSE : Boolean.TRUE;
+        } else {
+          return evaluator;
+        }
+      }
+    }
+
+    private Evaluator parseRelational() {
+      Evaluator evaluator = parseUnary();
+      while (true) {
+        final Evaluator left = evaluator;
+        if (accept("<", "lt")) {
+          final Evaluator right = parseUnary();
+          evaluator = root -> OgnlOps.less(left.evaluate(root), right.evaluate(root)) ? Boolean.TRUE : Boolean.FALSE;
+        } else if (accept(">", "gt")) {
+          final Evaluator right = parseUnary();
+          evaluator = root -> OgnlOps.greater(left.evaluate(root), right.evaluate(root)) ? Boolean.TRUE : Boolean.FALSE;
+        } else if (accept("<=", "lte")) {
+          final Evaluator right = parseUnary();
+          evaluator = root -> OgnlOps.greater(left.evaluate(root), right.evaluate(root)) ? Boolean.FALSE : Boolean.TRUE;
+        } else if (accept(">=", "gte")) {
+          final Evaluator right = parseUnary();
+          evaluator = root -> OgnlOps.less(left.evaluate(root), right.evaluate(root)) ? Boolean.FALSE : Boolean.TRUE;
+        } else {
+          return evaluator;
+        }
+      }
+    }
+
+    private Evaluator parseUnary() {
+      if (accept("!", "not")) {
+        final Evaluator operand = parseUnary();
+        return root -> OgnlOps.booleanValue(operand.evaluate(root)) ? Boolean.FALSE : Boolean.TRUE;
+      }
+      return parsePrimary();
+    }
+
+    private Evaluator parsePrimary() {
+      Token token = next();
+      if (token.type == TokenType.LITERAL) {
+        final Object value = token.value;
+        return root -> value;
+      }
+      if (token.type == TokenType.OPERATOR) {
+        if (!"(".equals(token.text)) {
+          throw UNSUPPORTED;
+        }
+        Evaluator evaluator = parseOr();
+        expect(")");
+        return evaluator;
+      }
+      switch (token.text) {
+        case "null":
+          return root -> null;
+        case "true":
+          return root -> Boolean.TRUE;
+        case "false":
+          return root -> Boolean.FALSE;
+        default:
+          break;
+      }
+      final String name = propertyName(token);
+      Evaluator evaluator = root -> getRootProperty(root, name);
+      while (accept(".")) {
+        final Evaluator target = evaluator;
+        final String member = propertyName(next());
+        if (accept("(")) {
+          expect(")");
+          evaluator = root -> invokeMethod(target.evaluate(root), member);
+        } else {
+          evaluator = root -> getProperty(target.evaluate(root), member);
+        }
+      }
+      if (hasNext() && "(".equals(tokens.get(position).text)) {
+        // method call on the root object
+        throw UNSUPPORTED;
+      }
+      return evaluator;
+    }
+
+    private String propertyName(Token token) {
+      if (token.type != TokenType.IDENTIFIER || RESERVED_WORDS.contains(token.text)
+          || "null".equals(token.text) || "true".equals(token.text) || "false".equals(token.text)) {
+        throw UNSUPPORTED;
+      }
+      return token.text;
+    }
+
+    private boolean accept(String symbol, String word) {
+      if (hasNext()) {
+        Token token = tokens.get(position);
+        if ((token.type == TokenType.OPERATOR && token.text.equals(symbol))
+            || (token.type == TokenType.IDENTIFIER && token.text.equals(word))) {
+          position++;
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private boolean accept(String symbol) {
+      return accept(symbol, null);
+    }
+
+    private void expect(String symbol) {
+      if (!accept(symbol)) {
+        throw UNSUPPORTED;
+      }
+    }
+
+    private Token next() {
+      if (!hasNext()) {
+        throw UNSUPPORTED;
+      }
+      return tokens.get(position++);
+    }
+  }
+
+  private enum TokenType {
+    IDENTIFIER, LITERAL, OPERATOR
+  }
+
+  private static class Token {
+    private final TokenType type;
+    private final String text;
+    private final Object value;
+
+    Token(TokenType type, String text, Object value) {
+      this.type = type;
+      this.text = text;
+      this.value = value;
+    }
+  }
+
+  private interface Evaluator {
+    Object evaluate(Object root);
+  }
+
+  /**
+   * Thrown when an expression cannot be compiled or evaluated without OGNL. It carries no stack trace.
+   */
+  private static class Unsupported extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    Unsupported() {
+      super(null, null, false, false);
+    }
+  }
+
+}
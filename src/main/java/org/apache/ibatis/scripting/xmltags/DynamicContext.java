@@ -23,7 +23,9 @@ import ognl.OgnlException;
 import ognl.OgnlRuntime;
 import ognl.PropertyAccessor;
 
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.property.PropertyPath;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -40,9 +42,20 @@ public class DynamicContext {
 
   private final ContextMap bindings;
   private final StringBuilder sqlBuilder = new StringBuilder();
+  private final CacheKey sqlShape;
   private int uniqueNumber = 0;
 
   public DynamicContext(Configuration configuration, Object parameterObject) {
+    this(configuration, parameterObject, false);
+  }
+
+  /**
+   * @param recordSqlShape
+   *          true to record the branches taken, the foreach iterations and the ${} values while the tree is applied
+   * @since 3.5.0
+   */
+  public DynamicContext(Configuration configuration, Object parameterObject, boolean recordSqlShape) {
+    sqlShape = recordSqlShape ? new CacheKey() : null;
     if (parameterObject != null && !(parameterObject instanceof Map)) {
       MetaObject metaObject = configuration.newMetaObject(parameterObject);
       bindings = new ContextMap(metaObject);
@@ -74,6 +87,22 @@ public class DynamicContext {
     return uniqueNumber++;
   }
 
+  /**
+   * Records a decision that changes the generated SQL. Contexts wrapping another one must delegate.
+   */
+  void recordShape(Object decision) {
+    if (sqlShape != null) {
+      sqlShape.update(decision);
+    }
+  }
+
+  /**
+   * @return the recorded shape, or null if the shape is not recorded
+   */
+  CacheKey getSqlShape() {
+    return sqlShape;
+  }
+
   static class ContextMap extends HashMap<String, Object> {
     private static final long serialVersionUID = 2977601501966151582L;
 
@@ -91,7 +120,7 @@ public class DynamicContext {
 
       if (parameterMetaObject != null) {
         // issue #61 do not modify the context when reading
-        return parameterMetaObject.getValue(strKey);
+        return parameterMetaObject.getValue(PropertyPath.of(strKey));
       }
 
       return null;
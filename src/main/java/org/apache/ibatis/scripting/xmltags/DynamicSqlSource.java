@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2017 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,11 +15,16 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -27,26 +32,101 @@ import org.apache.ibatis.session.Configuration;
  */
 public class DynamicSqlSource implements SqlSource {
 
+  /**
+   * Upper bound of the cached templates of a statement, ${} values may produce any number of shapes.
+   */
+  private static final int MAX_SQL_TEMPLATES = 256;
+
   private final Configuration configuration;
   private final SqlNode rootSqlNode;
+  private final Map<CacheKey, SqlTemplate> sqlTemplates;
 
   public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
+    this(configuration, rootSqlNode, false);
+  }
+
+  /**
+   * @param cacheSqlTemplates
+   *          true to reuse the parsed SQL and parameter mappings when the tree is evaluated to the same shape
+   *          (branches taken, foreach iterations and ${} values). It must only be set for trees made of the nodes
+   *          of this package, as other nodes do not record their shape.
+   * @since 3.5.0
+   */
+  public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode, boolean cacheSqlTemplates) {
     this.configuration = configuration;
     this.rootSqlNode = rootSqlNode;
+    this.sqlTemplates = cacheSqlTemplates ? new ConcurrentHashMap<>() : null;
   }
 
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
-    DynamicContext context = new DynamicContext(configuration, parameterObject);
+    DynamicContext context = new DynamicContext(configuration, parameterObject, sqlTemplates != null);
     rootSqlNode.apply(context);
-    SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
     Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-    SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
-    BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
+    BoundSql boundSql;
+    if (sqlTemplates == null) {
+      boundSql = parse(context, parameterType).getBoundSql(parameterObject);
+    } else {
+      CacheKey shape = context.getSqlShape();
+      shape.update(parameterType);
+      MetaObject metaParameters = configuration.newMetaObject(context.getBindings());
+      SqlTemplate sqlTemplate = sqlTemplates.get(shape);
+      if (sqlTemplate == null || !sqlTemplate.matches(metaParameters)) {
+        BoundSql parsedSql = parse(context, parameterType).getBoundSql(parameterObject);
+        sqlTemplate = new SqlTemplate(parsedSql.getSql(), parsedSql.getParameterMappings(), metaParameters);
+        if (sqlTemplates.size() < MAX_SQL_TEMPLATES || sqlTemplates.containsKey(shape)) {
+          sqlTemplates.put(shape, sqlTemplate);
+        }
+      }
+      boundSql = new BoundSql(configuration, sqlTemplate.sql, sqlTemplate.parameterMappings, parameterObject);
+    }
     for (Map.Entry<String, Object> entry : context.getBindings().entrySet()) {
       boundSql.setAdditionalParameter(entry.getKey(), entry.getValue());
     }
     return boundSql;
   }
 
+  private SqlSource parse(DynamicContext context, Class<?> parameterType) {
+    SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
+    return sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
+  }
+
+  /**
+   * The SQL and parameter mappings parsed for one shape of the tree.
+   * The java type of a parameter read from the additional parameters (foreach items, bind variables) comes from
+   * the runtime value, so it is checked again before the template is reused.
+   */
+  private static final class SqlTemplate {
+
+    private final String sql;
+    private final List<ParameterMapping> parameterMappings;
+    private final Class<?>[] additionalParameterTypes;
+
+    private SqlTemplate(String sql, List<ParameterMapping> parameterMappings, MetaObject metaParameters) {
+      this.sql = sql;
+      this.parameterMappings = parameterMappings;
+      this.additionalParameterTypes = new Class<?>[parameterMappings.size()];
+      for (int i = 0; i < additionalParameterTypes.length; i++) {
+        additionalParameterTypes[i] = getAdditionalParameterType(metaParameters, parameterMappings.get(i).getProperty());
+      }
+    }
+
+    private boolean matches(MetaObject metaParameters) {
+      for (int i = 0; i < additionalParameterTypes.length; i++) {
+        if (additionalParameterTypes[i] != getAdditionalParameterType(metaParameters, parameterMappings.get(i).getProperty())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static Class<?> getAdditionalParameterType(MetaObject metaParameters, String property) {
+      // same check as SqlSourceBuilder, issue #448 get type from additional params
+      if (property != null && metaParameters.hasGetter(property)) {
+        return metaParameters.getGetterType(property);
+      }
+      return null;
+    }
+  }
+
 }
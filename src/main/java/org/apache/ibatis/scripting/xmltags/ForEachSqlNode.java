@@ -53,12 +53,15 @@ public class ForEachSqlNode implements SqlNode {
     Map<String, Object> bindings = context.getBindings();
     final Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, bindings);
     if (!iterable.iterator().hasNext()) {
+      context.recordShape(Boolean.FALSE);
       return true;
     }
     boolean first = true;
     applyOpen(context);
     int i = 0;
     for (Object o : iterable) {
+      // one TRUE per item and a FALSE at the end, as the number of items changes the SQL
+      context.recordShape(Boolean.TRUE);
       DynamicContext oldContext = context;
       if (first || separator == null) {
         context = new PrefixedContext(context, "");
@@ -84,6 +87,7 @@ public class ForEachSqlNode implements SqlNode {
       i++;
     }
     applyClose(context);
+    context.recordShape(Boolean.FALSE);
     context.getBindings().remove(item);
     context.getBindings().remove(index);
     return true;
@@ -166,6 +170,11 @@ public class ForEachSqlNode implements SqlNode {
       return delegate.getUniqueNumber();
     }
 
+    @Override
+    void recordShape(Object decision) {
+      delegate.recordShape(decision);
+    }
+
   }
 
 
@@ -213,6 +222,11 @@ public class ForEachSqlNode implements SqlNode {
     public int getUniqueNumber() {
       return delegate.getUniqueNumber();
     }
+
+    @Override
+    void recordShape(Object decision) {
+      delegate.recordShape(decision);
+    }
   }
 
 }
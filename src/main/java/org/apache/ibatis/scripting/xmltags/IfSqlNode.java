@@ -32,9 +32,11 @@ public class IfSqlNode implements SqlNode {
   @Override
   public boolean apply(DynamicContext context) {
     if (evaluator.evaluateBoolean(test, context.getBindings())) {
+      context.recordShape(Boolean.TRUE);
       contents.apply(context);
       return true;
     }
+    context.recordShape(Boolean.FALSE);
     return false;
   }
 
@@ -78,6 +78,7 @@ public class TextSqlNode implements SqlNode {
             Object value = OgnlCache.getValue(content, context.getBindings());
             String srtValue = (value == null ? "" : String.valueOf(value)); // issue #274 return "" instead of "null"
             checkInjection(srtValue);
+            context.recordShape(srtValue);
             return srtValue;
         }
 
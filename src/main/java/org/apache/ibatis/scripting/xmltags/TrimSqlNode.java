@@ -108,6 +108,11 @@ public class TrimSqlNode implements SqlNode {
       return delegate.getUniqueNumber();
     }
 
+    @Override
+    void recordShape(Object decision) {
+      delegate.recordShape(decision);
+    }
+
     @Override
     public void appendSql(String sql) {
       sqlBuffer.append(sql);
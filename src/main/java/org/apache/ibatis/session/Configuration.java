@@ -17,6 +17,7 @@ package org.apache.ibatis.session;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -24,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.binding.MapperRegistry;
 import org.apache.ibatis.builder.CacheRefResolver;
@@ -35,11 +37,13 @@ import org.apache.ibatis.cache.decorators.FifoCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.SoftCache;
 import org.apache.ibatis.cache.decorators.WeakCache;
+import org.apache.ibatis.cache.impl.ConcurrentCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.datasource.jndi.JndiDataSourceFactory;
 import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
 import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.BatchFlushListener;
 import org.apache.ibatis.executor.CachingExecutor;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ReuseExecutor;
@@ -49,6 +53,7 @@ import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.resultset.CompiledRowMapper;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.executor.statement.RoutingStatementHandler;
@@ -81,6 +86,7 @@ import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.scripting.LanguageDriverRegistry;
+import org.apache.ibatis.scripting.defaults.ParameterBinder;
 import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.transaction.Transaction;
@@ -113,6 +119,24 @@ public class Configuration {
     protected boolean callSettersOnNulls;
     protected boolean useActualParamName = true;
     protected boolean returnInstanceForEmptyRow;
+    protected boolean compiledRowMappersEnabled;
+    /**
+     * 是否在 fork-join 线程池中并行创建简单结果映射的结果对象，以及是否保持行的顺序
+     */
+    protected boolean parallelRowMappingEnabled;
+    protected boolean parallelRowMappingOrdered = true;
+    /**
+     * 冻结配置时是否同时冻结 TypeHandlerRegistry
+     */
+    protected boolean freezeTypeHandlers;
+    /**
+     * 是否在 fork-join 线程池中并行解析 mapper XML 文件，注册时仍然按照声明顺序进行
+     */
+    protected boolean parallelMapperParsingEnabled;
+    /**
+     * 是否使用构建时生成的类索引代替类路径扫描来查找 package 下的别名和 mapper
+     */
+    protected boolean classIndexEnabled;
 
     protected String logPrefix;
     protected Class<? extends Log> logImpl;
@@ -122,7 +146,19 @@ public class Configuration {
     protected Set<String> lazyLoadTriggerMethods = new HashSet<>(Arrays.asList("equals", "clone", "hashCode", "toString"));
     protected Integer defaultStatementTimeout;
     protected Integer defaultFetchSize;
+    /**
+     * BATCH 执行器合并为一条多行 INSERT 语句的最大行数
+     */
+    protected Integer multiRowInsertSize;
+    /**
+     * BATCH 执行器自动 flush 的阈值：语句数、单条语句的批量大小、参数值的大致字节数
+     */
+    protected Integer batchAutoFlushStatements;
+    protected Integer batchAutoFlushSize;
+    protected Long batchAutoFlushBytes;
+    protected BatchFlushListener batchFlushListener;
     protected ExecutorType defaultExecutorType = ExecutorType.SIMPLE;
+    protected java.util.concurrent.Executor asyncExecutor;
     protected AutoMappingBehavior autoMappingBehavior = AutoMappingBehavior.PARTIAL;
     protected AutoMappingUnknownColumnBehavior autoMappingUnknownColumnBehavior = AutoMappingUnknownColumnBehavior.NONE;
 
@@ -170,6 +206,30 @@ public class Configuration {
      */
     protected final Map<String, String> cacheRefMap = new HashMap<>();
 
+    /*
+     * Compiled row mappers of simple result maps, keyed by result map id, column prefix and column layout.
+     */
+    protected final Map<String, CompiledRowMapper> compiledRowMappers = new ConcurrentHashMap<>();
+    /**
+     * 按 MappedStatement 和参数对象类型缓存的参数绑定器
+     */
+    protected final Map<MappedStatement, Map<Class<?>, ParameterBinder>> parameterBinders = new ConcurrentHashMap<>();
+
+    /**
+     * 构建完成之后冻结，之后通过只读快照读取 mappedStatements 等集合，再注册时重新发布快照
+     */
+    protected volatile boolean frozen;
+    /**
+     * 冻结之后可能存在未完成的元素
+     */
+    protected volatile boolean incompleteElements;
+    private final Object incompleteElementsLock = new Object();
+    private final Snapshot<MappedStatement> mappedStatementsSnapshot = new Snapshot<>(mappedStatements);
+    private final Snapshot<Cache> cachesSnapshot = new Snapshot<>(caches);
+    private final Snapshot<ResultMap> resultMapsSnapshot = new Snapshot<>(resultMaps);
+    private final Snapshot<ParameterMap> parameterMapsSnapshot = new Snapshot<>(parameterMaps);
+    private final Snapshot<KeyGenerator> keyGeneratorsSnapshot = new Snapshot<>(keyGenerators);
+
     public Configuration(Environment environment) {
         this();
         this.environment = environment;
@@ -184,6 +244,7 @@ public class Configuration {
         typeAliasRegistry.registerAlias("UNPOOLED", UnpooledDataSourceFactory.class);
 
         typeAliasRegistry.registerAlias("PERPETUAL", PerpetualCache.class);
+        typeAliasRegistry.registerAlias("CONCURRENT", ConcurrentCache.class);
         typeAliasRegistry.registerAlias("FIFO", FifoCache.class);
         typeAliasRegistry.registerAlias("LRU", LruCache.class);
         typeAliasRegistry.registerAlias("SOFT", SoftCache.class);
@@ -267,6 +328,255 @@ public class Configuration {
         this.returnInstanceForEmptyRow = returnEmptyInstance;
     }
 
+    /**
+     * @since 3.5.0
+     */
+    public boolean isCompiledRowMappersEnabled() {
+        return compiledRowMappersEnabled;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public void setCompiledRowMappersEnabled(boolean compiledRowMappersEnabled) {
+        this.compiledRowMappersEnabled = compiledRowMappersEnabled;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public boolean isParallelRowMappingEnabled() {
+        return parallelRowMappingEnabled;
+    }
+
+    /**
+     * Enables the parallel mapping of the rows of simple result maps that have a compiled row mapper (see
+     * {@link #setCompiledRowMappersEnabled(boolean)}): the column values are read on the calling thread while the
+     * result objects are created in the common fork-join pool.
+     *
+     * @since 3.5.0
+     */
+    public void setParallelRowMappingEnabled(boolean parallelRowMappingEnabled) {
+        this.parallelRowMappingEnabled = parallelRowMappingEnabled;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public boolean isParallelRowMappingOrdered() {
+        return parallelRowMappingOrdered;
+    }
+
+    /**
+     * Sets whether the rows mapped in parallel are returned in the order of the result set.
+     *
+     * @since 3.5.0
+     */
+    public void setParallelRowMappingOrdered(boolean parallelRowMappingOrdered) {
+        this.parallelRowMappingOrdered = parallelRowMappingOrdered;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public boolean isFreezeTypeHandlers() {
+        return freezeTypeHandlers;
+    }
+
+    /**
+     * Sets whether {@link #freeze()} also freezes the {@link TypeHandlerRegistry}, which then rejects any type handler
+     * registered once the {@link SqlSessionFactory} is built.
+     *
+     * @since 3.5.0
+     */
+    public void setFreezeTypeHandlers(boolean freezeTypeHandlers) {
+        this.freezeTypeHandlers = freezeTypeHandlers;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public boolean isParallelMapperParsingEnabled() {
+        return parallelMapperParsingEnabled;
+    }
+
+    /**
+     * Sets whether the mapper XML files declared with a resource or an url are parsed in parallel. The parsed
+     * documents are still registered one by one in the order of declaration.
+     *
+     * @since 3.5.0
+     */
+    public void setParallelMapperParsingEnabled(boolean parallelMapperParsingEnabled) {
+        this.parallelMapperParsingEnabled = parallelMapperParsingEnabled;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public boolean isClassIndexEnabled() {
+        return classIndexEnabled;
+    }
+
+    /**
+     * Sets whether the type aliases and the mappers of a package are read from the
+     * {@link org.apache.ibatis.io.ClassIndex} when it lists classes of that package, instead of scanning the class
+     * path.
+     *
+     * @since 3.5.0
+     */
+    public void setClassIndexEnabled(boolean classIndexEnabled) {
+        this.classIndexEnabled = classIndexEnabled;
+        typeAliasRegistry.setClassIndexEnabled(classIndexEnabled);
+    }
+
+    /**
+     * Ends the build phase, {@link SqlSessionFactoryBuilder} calls it once the configuration is built.
+     * <p>
+     * The mapped statements, caches, result maps, parameter maps and key generators are then read from immutable
+     * snapshots, and the incomplete elements are checked again only if some have been added since. Elements can still
+     * be added later, a new snapshot of the collection is then copied once it has been read as many times as it has
+     * entries, so that adding a whole mapper costs about one copy.
+     *
+     * @since 3.5.0
+     */
+    public synchronized void freeze() {
+        if (frozen) {
+            return;
+        }
+        mappedStatementsSnapshot.publish();
+        cachesSnapshot.publish();
+        resultMapsSnapshot.publish();
+        parameterMapsSnapshot.publish();
+        keyGeneratorsSnapshot.publish();
+        incompleteElements = hasIncompleteElements();
+        frozen = true;
+        if (freezeTypeHandlers) {
+            typeHandlerRegistry.freeze();
+        }
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public Integer getMultiRowInsertSize() {
+        return multiRowInsertSize;
+    }
+
+    /**
+     * Sets the maximum number of rows that the BATCH executor sends in one
+     * <code>INSERT ... VALUES (...), (...)</code> statement for consecutive executions of an
+     * <code>INSERT ... VALUES (...)</code> statement. They are sent as a JDBC batch when it is not set.
+     *
+     * @since 3.5.0
+     */
+    public void setMultiRowInsertSize(Integer multiRowInsertSize) {
+        this.multiRowInsertSize = multiRowInsertSize;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public Integer getBatchAutoFlushStatements() {
+        return batchAutoFlushStatements;
+    }
+
+    /**
+     * Sets the number of pending statements at which the BATCH executor flushes them.
+     *
+     * @since 3.5.0
+     */
+    public void setBatchAutoFlushStatements(Integer batchAutoFlushStatements) {
+        this.batchAutoFlushStatements = batchAutoFlushStatements;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public Integer getBatchAutoFlushSize() {
+        return batchAutoFlushSize;
+    }
+
+    /**
+     * Sets the number of parameter objects of one pending statement at which the BATCH executor flushes the
+     * statements.
+     *
+     * @since 3.5.0
+     */
+    public void setBatchAutoFlushSize(Integer batchAutoFlushSize) {
+        this.batchAutoFlushSize = batchAutoFlushSize;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public Long getBatchAutoFlushBytes() {
+        return batchAutoFlushBytes;
+    }
+
+    /**
+     * Sets the approximate size of the parameter values bound to the pending statements at which the BATCH
+     * executor flushes them.
+     *
+     * @since 3.5.0
+     */
+    public void setBatchAutoFlushBytes(Long batchAutoFlushBytes) {
+        this.batchAutoFlushBytes = batchAutoFlushBytes;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public BatchFlushListener getBatchFlushListener() {
+        return batchFlushListener;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public void setBatchFlushListener(BatchFlushListener batchFlushListener) {
+        this.batchFlushListener = batchFlushListener;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public java.util.concurrent.Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * Sets the executor that runs the mapper methods that return a {@link java.util.concurrent.CompletableFuture}
+     * or a {@link java.util.concurrent.CompletionStage}. When it is not set, they run on virtual threads if the JVM
+     * supports them, or else on a shared pool of daemon threads that is bounded by the number of processors and
+     * whose idle threads end after a minute.
+     *
+     * @since 3.5.0
+     */
+    public void setAsyncExecutor(java.util.concurrent.Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public Map<String, CompiledRowMapper> getCompiledRowMappers() {
+        return compiledRowMappers;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public Map<MappedStatement, Map<Class<?>, ParameterBinder>> getParameterBinders() {
+        return parameterBinders;
+    }
+
     public String getDatabaseId() {
         return databaseId;
     }
@@ -591,99 +901,119 @@ public class Configuration {
     }
 
     public void addKeyGenerator(String id, KeyGenerator keyGenerator) {
-        keyGenerators.put(id, keyGenerator);
+        if (!frozen) {
+            keyGenerators.put(id, keyGenerator);
+            return;
+        }
+        keyGeneratorsSnapshot.put(id, keyGenerator);
     }
 
     public Collection<String> getKeyGeneratorNames() {
-        return keyGenerators.keySet();
+        return keyGeneratorsSnapshot.read().keySet();
     }
 
     public Collection<KeyGenerator> getKeyGenerators() {
-        return keyGenerators.values();
+        return keyGeneratorsSnapshot.read().values();
     }
 
     public KeyGenerator getKeyGenerator(String id) {
-        return keyGenerators.get(id);
+        return keyGeneratorsSnapshot.get(id);
     }
 
     public boolean hasKeyGenerator(String id) {
-        return keyGenerators.containsKey(id);
+        return keyGeneratorsSnapshot.containsKey(id);
     }
 
     public void addCache(Cache cache) {
-        caches.put(cache.getId(), cache);
+        if (!frozen) {
+            caches.put(cache.getId(), cache);
+            return;
+        }
+        cachesSnapshot.put(cache.getId(), cache);
     }
 
     public Collection<String> getCacheNames() {
-        return caches.keySet();
+        return cachesSnapshot.read().keySet();
     }
 
     public Collection<Cache> getCaches() {
-        return caches.values();
+        return cachesSnapshot.read().values();
     }
 
     public Cache getCache(String id) {
-        return caches.get(id);
+        return cachesSnapshot.get(id);
     }
 
     public boolean hasCache(String id) {
-        return caches.containsKey(id);
+        return cachesSnapshot.containsKey(id);
     }
 
     public void addResultMap(ResultMap rm) {
-        resultMaps.put(rm.getId(), rm);
+        if (!frozen) {
+            resultMaps.put(rm.getId(), rm);
+        } else {
+            resultMapsSnapshot.put(rm.getId(), rm);
+        }
         checkLocallyForDiscriminatedNestedResultMaps(rm);
         checkGloballyForDiscriminatedNestedResultMaps(rm);
     }
 
     public Collection<String> getResultMapNames() {
-        return resultMaps.keySet();
+        return resultMapsSnapshot.read().keySet();
     }
 
     public Collection<ResultMap> getResultMaps() {
-        return resultMaps.values();
+        return resultMapsSnapshot.read().values();
     }
 
     public ResultMap getResultMap(String id) {
-        return resultMaps.get(id);
+        return resultMapsSnapshot.get(id);
     }
 
     public boolean hasResultMap(String id) {
-        return resultMaps.containsKey(id);
+        return resultMapsSnapshot.containsKey(id);
     }
 
     public void addParameterMap(ParameterMap pm) {
-        parameterMaps.put(pm.getId(), pm);
+        if (!frozen) {
+            parameterMaps.put(pm.getId(), pm);
+            return;
+        }
+        parameterMapsSnapshot.put(pm.getId(), pm);
     }
 
     public Collection<String> getParameterMapNames() {
-        return parameterMaps.keySet();
+        return parameterMapsSnapshot.read().keySet();
     }
 
     public Collection<ParameterMap> getParameterMaps() {
-        return parameterMaps.values();
+        return parameterMapsSnapshot.read().values();
     }
 
     public ParameterMap getParameterMap(String id) {
-        return parameterMaps.get(id);
+        return parameterMapsSnapshot.get(id);
     }
 
     public boolean hasParameterMap(String id) {
-        return parameterMaps.containsKey(id);
+        return parameterMapsSnapshot.containsKey(id);
     }
 
     public void addMappedStatement(MappedStatement ms) {
-        mappedStatements.put(ms.getId(), ms);
+        if (!frozen) {
+            mappedStatements.put(ms.getId(), ms);
+            return;
+        }
+        mappedStatementsSnapshot.put(ms.getId(), ms);
     }
 
     public Collection<String> getMappedStatementNames() {
-        buildAllStatements();
-        return mappedStatements.keySet();
+        validateIncompleteElements();
+        return mappedStatementsSnapshot.read().keySet();
     }
 
     public Collection<MappedStatement> getMappedStatements() {
-        buildAllStatements();
-        return mappedStatements.values();
+        validateIncompleteElements();
+        return mappedStatementsSnapshot.read().values();
     }
 
     public Collection<XMLStatementBuilder> getIncompleteStatements() {
@@ -692,6 +1022,7 @@ public class Configuration {
 
     public void addIncompleteStatement(XMLStatementBuilder incompleteStatement) {
         incompleteStatements.add(incompleteStatement);
+        incompleteElements = true;
     }
 
     public Collection<CacheRefResolver> getIncompleteCacheRefs() {
@@ -700,6 +1031,7 @@ public class Configuration {
 
     public void addIncompleteCacheRef(CacheRefResolver incompleteCacheRef) {
         incompleteCacheRefs.add(incompleteCacheRef);
+        incompleteElements = true;
     }
 
     public Collection<ResultMapResolver> getIncompleteResultMaps() {
@@ -708,10 +1040,12 @@ public class Configuration {
 
     public void addIncompleteResultMap(ResultMapResolver resultMapResolver) {
         incompleteResultMaps.add(resultMapResolver);
+        incompleteElements = true;
     }
 
     public void addIncompleteMethod(MethodResolver builder) {
         incompleteMethods.add(builder);
+        incompleteElements = true;
     }
 
     public Collection<MethodResolver> getIncompleteMethods() {
@@ -724,9 +1058,9 @@ public class Configuration {
 
     public MappedStatement getMappedStatement(String id, boolean validateIncompleteStatements) {
         if (validateIncompleteStatements) {
-            buildAllStatements();
+            validateIncompleteElements();
         }
-        return mappedStatements.get(id);
+        return mappedStatementsSnapshot.get(id);
     }
 
     public Map<String, XNode> getSqlFragments() {
@@ -763,15 +1097,134 @@ public class Configuration {
 
     public boolean hasStatement(String statementName, boolean validateIncompleteStatements) {
         if (validateIncompleteStatements) {
-            buildAllStatements();
+            validateIncompleteElements();
         }
-        return mappedStatements.containsKey(statementName);
+        return mappedStatementsSnapshot.containsKey(statementName);
     }
 
     public void addCacheRef(String namespace, String referencedNamespace) {
         cacheRefMap.put(namespace, referencedNamespace);
     }
 
+    /*
+     * Once frozen, the incomplete elements are only checked when some have been added since the last check. The flag
+     * is cleared only once they have been built, so that concurrent readers wait for the build as before.
+     */
+    private void validateIncompleteElements() {
+        if (!frozen) {
+            buildAllStatements();
+        } else if (incompleteElements) {
+            synchronized (incompleteElementsLock) {
+                if (incompleteElements) {
+                    buildAllStatements();
+                    incompleteElements = false;
+                    // an incomplete element may have been added while building
+                    if (hasIncompleteElements()) {
+                        incompleteElements = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean hasIncompleteElements() {
+        return !incompleteResultMaps.isEmpty() || !incompleteCacheRefs.isEmpty()
+                || !incompleteStatements.isEmpty() || !incompleteMethods.isEmpty();
+    }
+
+    /**
+     * 冻结之后对 StrictMap 的读取：优先读取只读快照；注册新元素后快照失效，在重新复制之前加锁读取原集合，
+     * 读取次数达到元素个数时才重新复制，这样连续注册一个 mapper 的所有元素只需要复制一次
+     */
+    private static final class Snapshot<V> {
+
+        private final StrictMap<V> map;
+        private volatile boolean published;
+        private volatile Map<String, V> snapshot;
+        /**
+         * 快照失效之后的读取次数
+         */
+        private int staleReads;
+
+        private Snapshot(Map<String, V> map) {
+            this.map = (StrictMap<V>) map;
+        }
+
+        private void publish() {
+            synchronized (map) {
+                snapshot = copy();
+                published = true;
+            }
+        }
+
+        private void put(String key, V value) {
+            synchronized (map) {
+                map.put(key, value);
+                snapshot = null;
+                staleReads = 0;
+            }
+        }
+
+        private V get(String key) {
+            if (!published) {
+                return map.get(key);
+            }
+            Map<String, V> current = snapshot;
+            if (current != null) {
+                return current.get(key);
+            }
+            synchronized (map) {
+                V value = map.get(key);
+                staleRead();
+                return value;
+            }
+        }
+
+        private boolean containsKey(String key) {
+            if (!published) {
+                return map.containsKey(key);
+            }
+            Map<String, V> current = snapshot;
+            if (current != null) {
+                return current.containsKey(key);
+            }
+            synchronized (map) {
+                boolean contains = map.containsKey(key);
+                staleRead();
+                return contains;
+            }
+        }
+
+        /*
+         * The views of the collection are always read from a snapshot.
+         */
+        private Map<String, V> read() {
+            if (!published) {
+                return map;
+            }
+            Map<String, V> current = snapshot;
+            if (current != null) {
+                return current;
+            }
+            synchronized (map) {
+                if (snapshot == null) {
+                    snapshot = copy();
+                }
+                return snapshot;
+            }
+        }
+
+        private void staleRead() {
+            if (snapshot == null && ++staleReads >= map.size()) {
+                snapshot = copy();
+            }
+        }
+
+        private Map<String, V> copy() {
+            return Collections.unmodifiableMap(new StrictMap<>(map.name, map));
+        }
+    }
+
     /*
      * Parses all the unprocessed statement nodes in the cache. It is recommended
      * to call this method once all the mappers are added as it provides fail-fast
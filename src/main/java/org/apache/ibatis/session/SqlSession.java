@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.Flow;
 import org.apache.ibatis.executor.BatchResult;
 
 /**
@@ -143,6 +144,38 @@ public interface SqlSession extends Closeable {
    */
   <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds);
 
+  /**
+   * A Publisher emits the same results as a Cursor, mapping the rows only as its subscriber requests them.
+   * The statement runs in a session of its own for each subscription, which is closed once all the results are
+   * emitted, the select fails or the subscription is cancelled.
+   * @param <T> the returned publisher element type.
+   * @param statement Unique identifier matching the statement to use.
+   * @return Publisher of mapped objects
+   * @since 3.5.0
+   */
+  <T> Flow.Publisher<T> selectPublisher(String statement);
+
+  /**
+   * A Publisher emits the same results as a Cursor, mapping the rows only as its subscriber requests them.
+   * @param <T> the returned publisher element type.
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @return Publisher of mapped objects
+   * @since 3.5.0
+   */
+  <T> Flow.Publisher<T> selectPublisher(String statement, Object parameter);
+
+  /**
+   * A Publisher emits the same results as a Cursor, mapping the rows only as its subscriber requests them.
+   * @param <T> the returned publisher element type.
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @param rowBounds  Bounds to limit object retrieval
+   * @return Publisher of mapped objects
+   * @since 3.5.0
+   */
+  <T> Flow.Publisher<T> selectPublisher(String statement, Object parameter, RowBounds rowBounds);
+
   /**
    * Retrieve a single row mapped from the statement key and parameter
    * using a {@code ResultHandler}.
@@ -89,6 +89,7 @@ public class SqlSessionFactoryBuilder {
   }
     
   public SqlSessionFactory build(Configuration config) {
+    config.freeze();
     return new DefaultSqlSessionFactory(config);
   }
 
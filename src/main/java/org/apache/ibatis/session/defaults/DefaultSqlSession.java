@@ -26,6 +26,8 @@ import java.util.Map;
 
 import org.apache.ibatis.binding.BindingException;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.Flow;
+import org.apache.ibatis.cursor.defaults.CursorPublisher;
 import org.apache.ibatis.exceptions.ExceptionFactory;
 import org.apache.ibatis.exceptions.TooManyResultsException;
 import org.apache.ibatis.executor.BatchResult;
@@ -131,6 +133,29 @@ public class DefaultSqlSession implements SqlSession {
         }
     }
 
+    @Override
+    public <T> Flow.Publisher<T> selectPublisher(String statement) {
+        return selectPublisher(statement, null);
+    }
+
+    @Override
+    public <T> Flow.Publisher<T> selectPublisher(String statement, Object parameter) {
+        return selectPublisher(statement, parameter, RowBounds.DEFAULT);
+    }
+
+    @Override
+    public <T> Flow.Publisher<T> selectPublisher(String statement, Object parameter, RowBounds rowBounds) {
+        try {
+            // 语句在订阅时才执行，这里只检查它是否存在
+            configuration.getMappedStatement(statement);
+            return new CursorPublisher<>(configuration, statement, parameter, rowBounds);
+        } catch (Exception e) {
+            throw ExceptionFactory.wrapException("Error querying database.  Cause: " + e, e);
+        } finally {
+            ErrorContext.instance().reset();
+        }
+    }
+
     @Override
     public <E> List<E> selectList(String statement) {
         return this.selectList(statement, null);
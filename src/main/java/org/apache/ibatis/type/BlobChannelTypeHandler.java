@@ -0,0 +1,69 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The {@link TypeHandler} for {@link Blob}/{@link ReadableByteChannel} using method supported at JDBC 4.0.
+ * <p>
+ * The returned channel reads the stream of the {@link Blob} as it is consumed, so it can be used only while the
+ * result set is open (e.g. in a {@link org.apache.ibatis.cursor.Cursor} or a
+ * {@link org.apache.ibatis.session.ResultHandler}).
+ *
+ * @since 3.5.0
+ */
+public class BlobChannelTypeHandler extends BaseTypeHandler<ReadableByteChannel> {
+
+  @Override
+  public void setNonNullParameter(PreparedStatement ps, int i, ReadableByteChannel parameter, JdbcType jdbcType)
+      throws SQLException {
+    ps.setBinaryStream(i, Channels.newInputStream(parameter));
+  }
+
+  @Override
+  public ReadableByteChannel getNullableResult(ResultSet rs, String columnName)
+      throws SQLException {
+    return toChannel(rs.getBlob(columnName));
+  }
+
+  @Override
+  public ReadableByteChannel getNullableResult(ResultSet rs, int columnIndex)
+      throws SQLException {
+    return toChannel(rs.getBlob(columnIndex));
+  }
+
+  @Override
+  public ReadableByteChannel getNullableResult(CallableStatement cs, int columnIndex)
+      throws SQLException {
+    return toChannel(cs.getBlob(columnIndex));
+  }
+
+  private ReadableByteChannel toChannel(Blob blob) throws SQLException {
+    ReadableByteChannel value = null;
+    if (blob != null) {
+      value = Channels.newChannel(blob.getBinaryStream());
+    }
+    return value;
+  }
+
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The {@link TypeHandler} for {@link Blob}/{@link ByteBuffer}.
+ * <p>
+ * The remaining bytes of the buffer are bound with a stream of known length that reads the buffer directly, so heap
+ * and direct buffers are sent without being copied to an array first. The position of the buffer is not changed.
+ * A result is read into a heap buffer, so it is limited to blobs of at most {@link Integer#MAX_VALUE} bytes.
+ *
+ * @since 3.5.0
+ */
+public class ByteBufferTypeHandler extends BaseTypeHandler<ByteBuffer> {
+
+  @Override
+  public void setNonNullParameter(PreparedStatement ps, int i, ByteBuffer parameter, JdbcType jdbcType)
+      throws SQLException {
+    ps.setBinaryStream(i, new ByteBufferInputStream(parameter.duplicate()), parameter.remaining());
+  }
+
+  @Override
+  public ByteBuffer getNullableResult(ResultSet rs, String columnName)
+      throws SQLException {
+    return toByteBuffer(rs.getBlob(columnName));
+  }
+
+  @Override
+  public ByteBuffer getNullableResult(ResultSet rs, int columnIndex)
+      throws SQLException {
+    return toByteBuffer(rs.getBlob(columnIndex));
+  }
+
+  @Override
+  public ByteBuffer getNullableResult(CallableStatement cs, int columnIndex)
+      throws SQLException {
+    return toByteBuffer(cs.getBlob(columnIndex));
+  }
+
+  private ByteBuffer toByteBuffer(Blob blob) throws SQLException {
+    ByteBuffer value = null;
+    if (blob != null) {
+      long length = blob.length();
+      if (length > Integer.MAX_VALUE) {
+        throw new TypeException("Cannot read a blob of " + length + " bytes into a ByteBuffer.");
+      }
+      value = ByteBuffer.wrap(blob.getBytes(1, (int) length));
+    }
+    return value;
+  }
+
+  private static class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    private ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int count = Math.min(len, buffer.remaining());
+      buffer.get(b, off, count);
+      return count;
+    }
+
+    @Override
+    public long skip(long n) {
+      int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+      buffer.position(buffer.position() + count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+
+  }
+
+}
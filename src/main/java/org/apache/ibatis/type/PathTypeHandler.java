@@ -0,0 +1,183 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The {@link TypeHandler} for {@link Blob}/{@link Path}.
+ * <p>
+ * A parameter is bound with a stream of the file and its size. The file is only opened when the driver starts reading
+ * it, and is closed once that size has been read or the end of the file is reached. A result is copied from the stream of the {@link Blob} to a temporary file, whose path is returned; the caller
+ * is responsible for deleting it.
+ *
+ * @since 3.5.0
+ */
+public class PathTypeHandler extends BaseTypeHandler<Path> {
+
+  @Override
+  public void setNonNullParameter(PreparedStatement ps, int i, Path parameter, JdbcType jdbcType)
+      throws SQLException {
+    try {
+      long length = Files.size(parameter);
+      ps.setBinaryStream(i, new FileContentInputStream(parameter, length), length);
+    } catch (IOException e) {
+      throw new TypeException("Error reading file " + parameter + ".  Cause: " + e, e);
+    }
+  }
+
+  @Override
+  public Path getNullableResult(ResultSet rs, String columnName)
+      throws SQLException {
+    return toPath(rs.getBlob(columnName));
+  }
+
+  @Override
+  public Path getNullableResult(ResultSet rs, int columnIndex)
+      throws SQLException {
+    return toPath(rs.getBlob(columnIndex));
+  }
+
+  @Override
+  public Path getNullableResult(CallableStatement cs, int columnIndex)
+      throws SQLException {
+    return toPath(cs.getBlob(columnIndex));
+  }
+
+  private Path toPath(Blob blob) throws SQLException {
+    if (blob == null) {
+      return null;
+    }
+    Path file = null;
+    try (InputStream in = blob.getBinaryStream()) {
+      file = Files.createTempFile("mybatis-blob", null);
+      Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+      return file;
+    } catch (IOException e) {
+      deleteQuietly(file);
+      throw new TypeException("Error copying blob to a temporary file.  Cause: " + e, e);
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    if (file != null) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        // ignore
+      }
+    }
+  }
+
+  /*
+   * Reads at most the declared length of the file, so that a driver which stops there still releases it.
+   */
+  static class FileContentInputStream extends InputStream {
+
+    private final Path file;
+    private long remaining;
+    private InputStream in;
+    private boolean closed;
+
+    FileContentInputStream(Path file, long length) {
+      this.file = file;
+      this.remaining = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (!open()) {
+        return -1;
+      }
+      int b = in.read();
+      consumed(b < 0 ? -1 : 1);
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (!open()) {
+        return -1;
+      }
+      int n = in.read(b, off, (int) Math.min(len, remaining));
+      consumed(n);
+      return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return in == null ? 0 : (int) Math.min(in.available(), remaining);
+    }
+
+    @Override
+    public void close() throws IOException {
+      closed = true;
+      if (in != null) {
+        try {
+          in.close();
+        } finally {
+          in = null;
+        }
+      }
+    }
+
+    boolean isClosed() {
+      return closed;
+    }
+
+    private boolean open() throws IOException {
+      if (closed) {
+        if (remaining > 0) {
+          throw new IOException("Stream of file " + file + " is closed.");
+        }
+        return false;
+      }
+      if (remaining <= 0) {
+        close();
+        return false;
+      }
+      if (in == null) {
+        in = Files.newInputStream(file);
+      }
+      return true;
+    }
+
+    private void consumed(int n) throws IOException {
+      if (n < 0) {
+        remaining = 0;
+      } else {
+        remaining -= n;
+      }
+      if (remaining <= 0) {
+        close();
+      }
+    }
+
+  }
+
+}
@@ -40,6 +40,7 @@ import org.apache.ibatis.io.Resources;
 public class TypeAliasRegistry {
 
   private final Map<String, Class<?>> TYPE_ALIASES = new HashMap<>();
+  private boolean classIndexEnabled;
 
   public TypeAliasRegistry() {
     registerAlias("string", String.class);
@@ -129,6 +130,7 @@ public class TypeAliasRegistry {
 
   public void registerAliases(String packageName, Class<?> superType){
     ResolverUtil<Class<?>> resolverUtil = new ResolverUtil<>();
+    resolverUtil.setClassIndexEnabled(classIndexEnabled);
     resolverUtil.find(new ResolverUtil.IsA(superType), packageName);
     Set<Class<? extends Class<?>>> typeSet = resolverUtil.getClasses();
     for(Class<?> type : typeSet){
@@ -176,4 +178,14 @@ public class TypeAliasRegistry {
     return Collections.unmodifiableMap(TYPE_ALIASES);
   }
 
+  /**
+   * Sets whether the aliases of a package are registered from the classes listed by the
+   * {@link org.apache.ibatis.io.ClassIndex} instead of scanning the class path.
+   *
+   * @since 3.5.0
+   */
+  public void setClassIndexEnabled(boolean classIndexEnabled) {
+    this.classIndexEnabled = classIndexEnabled;
+  }
+
 }
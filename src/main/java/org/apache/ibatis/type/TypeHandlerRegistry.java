@@ -22,6 +22,7 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.channels.ReadableByteChannel;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -33,15 +34,18 @@ import java.time.Year;
 import java.time.YearMonth;
 import java.time.ZonedDateTime;
 import java.time.chrono.JapaneseDate;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.io.ResolverUtil;
@@ -72,6 +76,23 @@ public final class TypeHandlerRegistry {
      */
     private static final Map<JdbcType, TypeHandler<?>> NULL_TYPE_HANDLER_MAP = Collections.emptyMap();
 
+    /**
+     * 解析结果中表示没有 TypeHandler 的标记
+     */
+    private static final Object NO_TYPE_HANDLER = new Object();
+    private static final int JDBC_TYPE_COUNT = JdbcType.values().length;
+
+    /**
+     * 已经解析过的 TypeHandler，key 是 java 类型，value 按 jdbc 类型的 ordinal + 1 保存（下标 0 对应 null），
+     * 包括父类上找到的 TypeHandler 和没有找到的情况，注册新的 TypeHandler 时只移除受影响的 java 类型
+     */
+    private final Map<Type, AtomicReferenceArray<Object>> RESOLVED_TYPE_HANDLER_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 冻结之后不能再注册 TypeHandler
+     */
+    private volatile boolean frozen;
+
     private Class<? extends TypeHandler> defaultEnumTypeHandler = EnumTypeHandler.class;
 
     /**
@@ -135,6 +156,7 @@ public final class TypeHandlerRegistry {
         register(JdbcType.NUMERIC, new BigDecimalTypeHandler());
 
         register(InputStream.class, new BlobInputStreamTypeHandler());
+        register(ReadableByteChannel.class, new BlobChannelTypeHandler());
         register(Byte[].class, new ByteObjectArrayTypeHandler());
         register(Byte[].class, JdbcType.BLOB, new BlobByteObjectArrayTypeHandler());
         register(Byte[].class, JdbcType.LONGVARBINARY, new BlobByteObjectArrayTypeHandler());
@@ -185,9 +207,33 @@ public final class TypeHandlerRegistry {
      * @since 3.4.5
      */
     public void setDefaultEnumTypeHandler(Class<? extends TypeHandler> typeHandler) {
+        checkNotFrozen();
         this.defaultEnumTypeHandler = typeHandler;
     }
 
+    /**
+     * Rejects any further registration. The handlers resolved for the registered types, their subclasses and the
+     * types without handler are still cached as they are looked up.
+     *
+     * @since 3.5.0
+     */
+    public void freeze() {
+        frozen = true;
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new TypeException("Type handlers cannot be registered once the type handler registry is frozen.");
+        }
+    }
+
     /**
      * 根据 javaType 判断是否有指定的 TypeHandler 转换器
      *
@@ -250,6 +296,25 @@ public final class TypeHandlerRegistry {
 
     @SuppressWarnings("unchecked")
     private <T> TypeHandler<T> getTypeHandler(Type type, JdbcType jdbcType) {
+        AtomicReferenceArray<Object> resolvedHandlers = RESOLVED_TYPE_HANDLER_MAP.get(type);
+        if (resolvedHandlers == null) {
+            resolvedHandlers = new AtomicReferenceArray<>(JDBC_TYPE_COUNT + 1);
+            AtomicReferenceArray<Object> existing = RESOLVED_TYPE_HANDLER_MAP.putIfAbsent(type, resolvedHandlers);
+            if (existing != null) {
+                resolvedHandlers = existing;
+            }
+        }
+        int slot = jdbcType == null ? 0 : jdbcType.ordinal() + 1;
+        Object handler = resolvedHandlers.get(slot);
+        if (handler == null) {
+            handler = resolveTypeHandler(type, jdbcType);
+            resolvedHandlers.set(slot, handler == null ? NO_TYPE_HANDLER : handler);
+        }
+        // type drives generics here
+        return handler == NO_TYPE_HANDLER ? null : (TypeHandler<T>) handler;
+    }
+
+    private TypeHandler<?> resolveTypeHandler(Type type, JdbcType jdbcType) {
         if (ParamMap.class.equals(type)) {
             return null;
         }
@@ -265,8 +330,7 @@ public final class TypeHandlerRegistry {
                 handler = pickSoleHandler(jdbcHandlerMap);
             }
         }
-        // type drives generics here
-        return (TypeHandler<T>) handler;
+        return handler;
     }
 
     private Map<JdbcType, TypeHandler<?>> getJdbcHandlerMap(Type type) {
@@ -279,7 +343,11 @@ public final class TypeHandlerRegistry {
             if (clazz.isEnum()) {
                 jdbcHandlerMap = getJdbcHandlerMapForEnumInterfaces(clazz, clazz);
                 if (jdbcHandlerMap == null) {
-                    register(clazz, getInstance(clazz, defaultEnumTypeHandler));
+                    // the default handler of an enum is registered on first use, even once frozen
+                    TypeHandler<?> typeHandler = getInstance(clazz, defaultEnumTypeHandler);
+                    for (JdbcType jdbcType : getMappedJdbcTypes(typeHandler)) {
+                        putTypeHandler(clazz, jdbcType, typeHandler);
+                    }
                     return TYPE_HANDLER_MAP.get(clazz);
                 }
             } else {
@@ -340,6 +408,7 @@ public final class TypeHandlerRegistry {
     }
 
     public void register(JdbcType jdbcType, TypeHandler<?> handler) {
+        checkNotFrozen();
         JDBC_TYPE_HANDLER_MAP.put(jdbcType, handler);
     }
 
@@ -381,17 +450,23 @@ public final class TypeHandlerRegistry {
     }
 
     private <T> void register(Type javaType, TypeHandler<? extends T> typeHandler) {
+        for (JdbcType jdbcType : getMappedJdbcTypes(typeHandler)) {
+            register(javaType, jdbcType, typeHandler);
+        }
+    }
+
+    private static List<JdbcType> getMappedJdbcTypes(TypeHandler<?> typeHandler) {
         MappedJdbcTypes mappedJdbcTypes = typeHandler.getClass().getAnnotation(MappedJdbcTypes.class);
+        List<JdbcType> jdbcTypes = new ArrayList<>();
         if (mappedJdbcTypes != null) {
-            for (JdbcType handledJdbcType : mappedJdbcTypes.value()) {
-                register(javaType, handledJdbcType, typeHandler);
-            }
+            Collections.addAll(jdbcTypes, mappedJdbcTypes.value());
             if (mappedJdbcTypes.includeNullJdbcType()) {
-                register(javaType, null, typeHandler);
+                jdbcTypes.add(null);
             }
         } else {
-            register(javaType, null, typeHandler);
+            jdbcTypes.add(null);
         }
+        return jdbcTypes;
     }
 
     public <T> void register(TypeReference<T> javaTypeReference, TypeHandler<? extends T> handler) {
@@ -405,17 +480,34 @@ public final class TypeHandlerRegistry {
     }
 
     private void register(Type javaType, JdbcType jdbcType, TypeHandler<?> handler) {
+        checkNotFrozen();
+        putTypeHandler(javaType, jdbcType, handler);
+    }
+
+    private void putTypeHandler(Type javaType, JdbcType jdbcType, TypeHandler<?> handler) {
         if (javaType != null) {
             Map<JdbcType, TypeHandler<?>> map = TYPE_HANDLER_MAP.get(javaType);
             if (map == null || map == NULL_TYPE_HANDLER_MAP) {
                 map = new HashMap<>();
                 TYPE_HANDLER_MAP.put(javaType, map);
+            } else {
+                // the subclasses resolved earlier share the map of this type
+                invalidateResolvedTypeHandlers(map);
             }
             map.put(jdbcType, handler);
+            RESOLVED_TYPE_HANDLER_MAP.remove(javaType);
         }
         ALL_TYPE_HANDLERS_MAP.put(handler.getClass(), handler);
     }
 
+    private void invalidateResolvedTypeHandlers(Map<JdbcType, TypeHandler<?>> jdbcHandlerMap) {
+        for (Entry<Type, Map<JdbcType, TypeHandler<?>>> entry : TYPE_HANDLER_MAP.entrySet()) {
+            if (entry.getValue() == jdbcHandlerMap) {
+                RESOLVED_TYPE_HANDLER_MAP.remove(entry.getKey());
+            }
+        }
+    }
+
     //
     // REGISTER CLASS
     //
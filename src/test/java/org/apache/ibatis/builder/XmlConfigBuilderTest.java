@@ -88,6 +88,17 @@ public class XmlConfigBuilderTest {
       assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.SIMPLE);
       assertNull(config.getDefaultStatementTimeout());
       assertNull(config.getDefaultFetchSize());
+      assertNull(config.getMultiRowInsertSize());
+      assertThat(config.isParallelRowMappingEnabled()).isFalse();
+      assertThat(config.isParallelRowMappingOrdered()).isTrue();
+      assertThat(config.isFreezeTypeHandlers()).isFalse();
+      assertThat(config.isParallelMapperParsingEnabled()).isFalse();
+      assertThat(config.isClassIndexEnabled()).isFalse();
+      assertNull(config.getAsyncExecutor());
+      assertNull(config.getBatchAutoFlushStatements());
+      assertNull(config.getBatchAutoFlushSize());
+      assertNull(config.getBatchAutoFlushBytes());
+      assertNull(config.getBatchFlushListener());
       assertThat(config.isMapUnderscoreToCamelCase()).isFalse();
       assertThat(config.isSafeRowBoundsEnabled()).isFalse();
       assertThat(config.getLocalCacheScope()).isEqualTo(LocalCacheScope.SESSION);
@@ -181,6 +192,16 @@ public class XmlConfigBuilderTest {
         assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.BATCH);
         assertThat(config.getDefaultStatementTimeout()).isEqualTo(10);
         assertThat(config.getDefaultFetchSize()).isEqualTo(100);
+        assertThat(config.getMultiRowInsertSize()).isEqualTo(50);
+        assertThat(config.isParallelRowMappingEnabled()).isTrue();
+        assertThat(config.isParallelRowMappingOrdered()).isFalse();
+        assertThat(config.isFreezeTypeHandlers()).isTrue();
+        assertThat(config.isParallelMapperParsingEnabled()).isTrue();
+        assertThat(config.isClassIndexEnabled()).isTrue();
+        assertThat(config.getAsyncExecutor()).isInstanceOf(ExampleAsyncExecutor.class);
+        assertThat(config.getBatchAutoFlushStatements()).isEqualTo(20);
+        assertThat(config.getBatchAutoFlushSize()).isEqualTo(1000);
+        assertThat(config.getBatchAutoFlushBytes()).isEqualTo(1048576L);
         assertThat(config.isMapUnderscoreToCamelCase()).isTrue();
         assertThat(config.isSafeRowBoundsEnabled()).isTrue();
         assertThat(config.getLocalCacheScope()).isEqualTo(LocalCacheScope.STATEMENT);
@@ -255,6 +276,27 @@ public class XmlConfigBuilderTest {
     }
   }
 
+  @Test
+  public void shouldRegisterMappersParsedInParallelAsSequentially() throws Exception {
+    Configuration sequential;
+    try (InputStream inputStream = Resources.getResourceAsStream("org/apache/ibatis/builder/MapperConfig.xml")) {
+      sequential = new XMLConfigBuilder(inputStream).parse();
+    }
+    try (InputStream inputStream = Resources.getResourceAsStream("org/apache/ibatis/builder/ParallelMapperConfig.xml")) {
+      Configuration config = new XMLConfigBuilder(inputStream).parse();
+      assertThat(config.isParallelMapperParsingEnabled()).isTrue();
+      assertThat(config.getMappedStatementNames()).containsOnlyElementsOf(sequential.getMappedStatementNames())
+          .hasSameSizeAs(sequential.getMappedStatementNames());
+      assertThat(config.getResultMapNames()).containsOnlyElementsOf(sequential.getResultMapNames())
+          .hasSameSizeAs(sequential.getResultMapNames());
+      assertThat(config.getCacheNames()).containsOnlyElementsOf(sequential.getCacheNames())
+          .hasSameSizeAs(sequential.getCacheNames());
+      assertThat(config.getIncompleteStatements()).hasSameSizeAs(sequential.getIncompleteStatements());
+      assertThat(config.getMappedStatement("selectAllPosts").getResource())
+          .isEqualTo(sequential.getMappedStatement("selectAllPosts").getResource());
+    }
+  }
+
   @Test
   public void unknownSettings() {
     final String MAPPER_CONFIG = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
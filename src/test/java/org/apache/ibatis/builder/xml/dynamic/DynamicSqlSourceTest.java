@@ -16,6 +16,7 @@
 package org.apache.ibatis.builder.xml.dynamic;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -378,6 +379,64 @@ public class DynamicSqlSourceTest extends BaseDataTest {
     return new MixedSqlNode(Arrays.asList(contents));
   }
 
+  @Test
+  public void shouldReuseSqlTemplateForTheSameShape() {
+    final DynamicSqlSource source = new DynamicSqlSource(new Configuration(), blogSearch(), true);
+    final DynamicSqlSource uncachedSource = new DynamicSqlSource(new Configuration(), blogSearch());
+    final BoundSql first = source.getBoundSql(blogParameter("T1", 1, 2));
+    final BoundSql second = source.getBoundSql(blogParameter("T2", 3, 4));
+    assertEquals(uncachedSource.getBoundSql(blogParameter("T2", 3, 4)).getSql(), second.getSql());
+    assertSame(first.getParameterMappings(), second.getParameterMappings());
+    assertEquals(3, second.getAdditionalParameter("__frch_id_0"));
+    assertEquals(4, second.getAdditionalParameter("__frch_id_1"));
+
+    final BoundSql otherShape = source.getBoundSql(blogParameter(null, 1, 2, 3));
+    assertEquals(uncachedSource.getBoundSql(blogParameter(null, 1, 2, 3)).getSql(), otherShape.getSql());
+    assertEquals(3, otherShape.getParameterMappings().size());
+    assertEquals("__frch_id_2", otherShape.getParameterMappings().get(2).getProperty());
+  }
+
+  private SqlNode blogSearch() {
+    return mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG"),
+        new WhereSqlNode(new Configuration(), mixedContents(
+            new IfSqlNode(mixedContents(new TextSqlNode("AND title = #{title}")), "title != null"),
+            new ForEachSqlNode(new Configuration(), mixedContents(new TextSqlNode("#{id}")), "ids", null, "id", "AND id in (", ")", ","))));
+  }
+
+  @Test
+  public void shouldNotReuseSqlTemplateWhenTextSubstitutionDiffers() {
+    final DynamicSqlSource source = new DynamicSqlSource(new Configuration(), mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG ORDER BY ${orderBy}")), true);
+    final Map<String, Object> parameter = new HashMap<>();
+    parameter.put("orderBy", "title");
+    assertEquals("SELECT * FROM BLOG ORDER BY title", source.getBoundSql(parameter).getSql());
+    parameter.put("orderBy", "id");
+    assertEquals("SELECT * FROM BLOG ORDER BY id", source.getBoundSql(parameter).getSql());
+  }
+
+  @Test
+  public void shouldReparseSqlTemplateWhenForEachItemTypeChanges() {
+    final DynamicSqlSource source = new DynamicSqlSource(new Configuration(), mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE id in"),
+        new ForEachSqlNode(new Configuration(), mixedContents(new TextSqlNode("#{id}")), "ids", null, "id", "(", ")", ",")),
+        true);
+    final BoundSql integers = source.getBoundSql(blogParameter(null, 1));
+    assertEquals(Integer.class, integers.getParameterMappings().get(0).getJavaType());
+    final Map<String, Object> parameter = new HashMap<>();
+    parameter.put("ids", Arrays.asList("a"));
+    final BoundSql strings = source.getBoundSql(parameter);
+    assertEquals(integers.getSql(), strings.getSql());
+    assertEquals(String.class, strings.getParameterMappings().get(0).getJavaType());
+  }
+
+  private Map<String, Object> blogParameter(String title, Integer... ids) {
+    final Map<String, Object> parameter = new HashMap<>();
+    parameter.put("title", title);
+    parameter.put("ids", Arrays.asList(ids));
+    return parameter;
+  }
+
   @Test
   public void shouldMapNullStringsToEmptyStrings() {
     final String expected = "id=${id}";
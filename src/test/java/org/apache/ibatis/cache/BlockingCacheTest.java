@@ -0,0 +1,126 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.ibatis.cache.decorators.BlockingCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.junit.After;
+import org.junit.Test;
+
+public class BlockingCacheTest {
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldLetOtherThreadsWaitForTheLoadingThread() throws Exception {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    assertNull(cache.getObject("key"));
+    Future<Object> waiter = executor.submit(() -> cache.getObject("key"));
+    assertNotDone(waiter);
+    cache.putObject("key", "value");
+    assertEquals("value", waiter.get(1, TimeUnit.SECONDS));
+    assertEquals(1, cache.getLoadCount());
+    assertEquals(1, cache.getWaitCount());
+    assertEquals(0, cache.getPendingLoadCount());
+  }
+
+  @Test
+  public void shouldHandTheLoadOverWhenTheLoadingThreadRemovesTheKey() throws Exception {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    assertNull(cache.getObject("key"));
+    Future<Object> waiter = executor.submit(() -> cache.getObject("key"));
+    assertNotDone(waiter);
+    cache.removeObject("key");
+    assertNull(waiter.get(1, TimeUnit.SECONDS));
+    assertEquals(2, cache.getLoadCount());
+    assertEquals(1, cache.getPendingLoadCount());
+    // only the new loading thread can end its load with an empty result
+    cache.putObject("key", null);
+    assertEquals(1, cache.getPendingLoadCount());
+    executor.submit(() -> cache.putObject("key", null)).get(1, TimeUnit.SECONDS);
+    assertEquals(0, cache.getPendingLoadCount());
+  }
+
+  @Test
+  public void shouldGiveUpAfterTheTimeout() throws Exception {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    cache.setTimeout(50);
+    assertNull(cache.getObject("key"));
+    Future<Object> waiter = executor.submit(() -> cache.getObject("key"));
+    try {
+      waiter.get(1, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof CacheException);
+    }
+    assertEquals(1, cache.getTimeoutCount());
+    cache.putObject("key", "value");
+    assertEquals(0, cache.getPendingLoadCount());
+  }
+
+  @Test
+  public void shouldNotBlockTheLoadingThreadOnTheSameKey() {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    assertNull(cache.getObject("key"));
+    assertNull(cache.getObject("key"));
+    assertEquals(1, cache.getLoadCount());
+    cache.putObject("key", "value");
+    assertEquals("value", cache.getObject("key"));
+    assertEquals(0, cache.getPendingLoadCount());
+  }
+
+  @Test
+  public void shouldNotKeepFinishedLoads() {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    for (int i = 0; i < 100; i++) {
+      assertNull(cache.getObject(i));
+      if (i % 2 == 0) {
+        cache.putObject(i, i);
+      } else {
+        cache.removeObject(i);
+      }
+    }
+    // released without a pending load
+    cache.putObject("other", "value");
+    cache.removeObject("another");
+    assertEquals(0, cache.getPendingLoadCount());
+    assertEquals(51, cache.getSize());
+  }
+
+  private void assertNotDone(Future<Object> future) throws Exception {
+    try {
+      future.get(100, TimeUnit.MILLISECONDS);
+      fail();
+    } catch (TimeoutException e) {
+      // waiting
+    }
+  }
+
+}
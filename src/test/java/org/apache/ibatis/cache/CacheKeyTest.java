@@ -93,6 +93,43 @@ public class CacheKeyTest {
         assertTrue(key1.equals(key2));
     }
 
+    @Test
+    public void shouldKeepClonedCacheKeysIndependent() throws Exception {
+        CacheKey key1 = new CacheKey(new Object[]{"resultMap", "id", 1});
+        CacheKey key2 = key1.clone();
+        assertEquals(key1, key2);
+        assertEquals(key1.hashCode(), key2.hashCode());
+
+        key2.update("name");
+        key1.update("other");
+        assertEquals(4, key1.getUpdateCount());
+        assertEquals(4, key2.getUpdateCount());
+        assertNotEquals(key1, key2);
+        assertEquals(new CacheKey(new Object[]{"resultMap", "id", 1, "other"}), key1);
+        assertEquals(new CacheKey(new Object[]{"resultMap", "id", 1, "name"}), key2);
+    }
+
+    @Test
+    public void shouldCompareCacheKeysWithManyComponents() {
+        CacheKey key1 = new CacheKey();
+        CacheKey key2 = new CacheKey();
+        for (int i = 0; i < 100; i++) {
+            key1.update(i);
+            key2.update(i);
+        }
+        assertEquals(100, key1.getUpdateCount());
+        assertEquals(key1, key2);
+        assertEquals(key1.hashCode(), key2.hashCode());
+        key2.update(null);
+        assertNotEquals(key1, key2);
+    }
+
+    @Test
+    public void shouldTreatEmptyCacheKeyAsNullCacheKey() throws Exception {
+        assertEquals(CacheKey.NULL_CACHE_KEY, new CacheKey());
+        assertEquals(CacheKey.NULL_CACHE_KEY, CacheKey.NULL_CACHE_KEY.clone());
+    }
+
     @Test(expected = NotSerializableException.class)
     public void serializationExceptionTest() throws Exception {
         CacheKey cacheKey = new CacheKey();
@@ -107,6 +144,16 @@ public class CacheKeyTest {
         Assert.assertEquals(cacheKey, serialize(cacheKey));
     }
 
+    @Test
+    public void shouldUpdateDeserializedClone() throws Exception {
+        CacheKey cacheKey = new CacheKey(new Object[]{"a", "b"});
+        CacheKey deserialized = serialize(cacheKey.clone());
+        deserialized.update("c");
+        cacheKey.update("c");
+        Assert.assertEquals(cacheKey, deserialized);
+        Assert.assertEquals(cacheKey.hashCode(), deserialized.hashCode());
+    }
+
     private static <T> T serialize(T object) throws Exception {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         new ObjectOutputStream(baos).writeObject(object);
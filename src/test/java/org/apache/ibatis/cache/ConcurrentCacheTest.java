@@ -0,0 +1,114 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.ibatis.cache.impl.ConcurrentCache;
+import org.junit.Test;
+
+public class ConcurrentCacheTest {
+
+  @Test
+  public void shouldRemoveLeastRecentlyUsedItemInBeyondFiveEntries() {
+    ConcurrentCache cache = new ConcurrentCache("default");
+    cache.setSize(5);
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(0, cache.getObject(0));
+    cache.putObject(5, 5);
+    assertNull(cache.getObject(1));
+    assertEquals(5, cache.getSize());
+  }
+
+  @Test
+  public void shouldNotHoldMoreThanItsSize() {
+    ConcurrentCache cache = new ConcurrentCache("default");
+    cache.setSize(1000);
+    for (int i = 0; i < 10000; i++) {
+      cache.putObject(i, i);
+    }
+    assertTrue(cache.getSize() <= 1000);
+    assertEquals(9999, cache.getObject(9999));
+  }
+
+  @Test
+  public void shouldExpireEntries() throws Exception {
+    ConcurrentCache cache = new ConcurrentCache("default");
+    cache.setClearInterval(50);
+    cache.putObject(0, 0);
+    assertEquals(0, cache.getObject(0));
+    Thread.sleep(100);
+    assertNull(cache.getObject(0));
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  public void shouldRemoveItemOnDemand() {
+    Cache cache = new ConcurrentCache("default");
+    cache.putObject(0, 0);
+    assertNotNull(cache.getObject(0));
+    assertEquals(0, cache.removeObject(0));
+    assertNull(cache.getObject(0));
+  }
+
+  @Test
+  public void shouldFlushAllItemsOnDemand() {
+    Cache cache = new ConcurrentCache("default");
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    assertNotNull(cache.getObject(0));
+    assertNotNull(cache.getObject(4));
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertNull(cache.getObject(4));
+  }
+
+  @Test
+  public void shouldBeUsedByManyThreads() throws Exception {
+    final ConcurrentCache cache = new ConcurrentCache("default");
+    cache.setSize(512);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        final int offset = t * 10000;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 10000; i++) {
+            cache.putObject(offset + i, offset + i);
+            Object value = cache.getObject(offset + i / 2);
+            assertTrue(value == null || value.equals(offset + i / 2));
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertTrue(cache.getSize() <= 512);
+  }
+
+}
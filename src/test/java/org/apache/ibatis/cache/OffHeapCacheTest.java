@@ -0,0 +1,145 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.cache.impl.OffHeapCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.Test;
+
+public class OffHeapCacheTest {
+
+  @Test
+  public void shouldReturnCopiesOfTheStoredObjects() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setBlockSize(64);
+    List<String> value = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      value.add("value" + i);
+    }
+    cache.putObject("key", value);
+    Object copy = cache.getObject("key");
+    assertEquals(value, copy);
+    assertNotSame(value, copy);
+    assertNotSame(copy, cache.getObject("key"));
+  }
+
+  @Test
+  public void shouldKeepNullValues() {
+    Cache cache = new OffHeapCache("default");
+    cache.putObject("key", null);
+    assertEquals(1, cache.getSize());
+    assertNull(cache.getObject("key"));
+  }
+
+  @Test
+  public void shouldCountNullValuesTowardTheCapacity() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setBlockSize(128);
+    cache.setCapacity(128 * 5);
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(i, null);
+    }
+    assertEquals(5, cache.getSize());
+    assertEquals(0, cache.getUsedBytes());
+    cache.putObject("key", "value");
+    assertEquals(5, cache.getSize());
+    assertEquals("value", cache.getObject("key"));
+    cache.removeObject(99);
+    cache.putObject(100, null);
+    assertEquals(5, cache.getSize());
+    assertEquals("value", cache.getObject("key"));
+  }
+
+  @Test(expected = CacheException.class)
+  public void shouldRejectNonSerializableObjects() {
+    Cache cache = new OffHeapCache("default");
+    cache.putObject("key", new Object());
+  }
+
+  @Test
+  public void shouldRemoveLeastRecentlyUsedItemsWhenFull() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setBlockSize(128);
+    cache.setCapacity(128 * 5);
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(0, cache.getObject(0));
+    cache.putObject(5, 5);
+    assertNull(cache.getObject(1));
+    assertEquals(0, cache.getObject(0));
+    assertEquals(5, cache.getSize());
+    assertEquals(128 * 5, cache.getUsedBytes());
+  }
+
+  @Test
+  public void shouldReuseBlocksOfReplacedAndRemovedItems() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setBlockSize(16);
+    cache.setCapacity(16 * 1024);
+    for (int i = 0; i < 1000; i++) {
+      cache.putObject("key", "value" + i);
+      assertEquals("value" + i, cache.getObject("key"));
+    }
+    assertTrue(cache.getUsedBytes() <= 32);
+    assertEquals("value999", cache.removeObject("key"));
+    assertEquals(0, cache.getUsedBytes());
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  public void shouldNotCacheObjectsLargerThanTheCapacity() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setCapacity(256);
+    cache.putObject("key", "small");
+    cache.putObject("key", new byte[1024]);
+    assertNull(cache.getObject("key"));
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  public void shouldFlushAllItemsOnDemand() {
+    Cache cache = new OffHeapCache("default");
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    assertNotNull(cache.getObject(0));
+    assertNotNull(cache.getObject(4));
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertNull(cache.getObject(4));
+    cache.putObject(0, 0);
+    assertEquals(0, cache.getObject(0));
+  }
+
+  @Test
+  public void shouldBeConfiguredByTheCacheBuilder() {
+    Properties props = new Properties();
+    props.setProperty("capacity", "1048576");
+    props.setProperty("blockSize", "256");
+    Cache cache = new CacheBuilder("test").implementation(OffHeapCache.class).properties(props).build();
+    cache.putObject("key", "value");
+    assertEquals("value", cache.getObject("key"));
+    assertEquals(1, cache.getSize());
+  }
+
+}
@@ -15,7 +15,18 @@
  */
 package org.apache.ibatis.executor;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
 import org.junit.Test;
 
 public class ReuseExecutorTest extends BaseExecutorTest {
@@ -30,6 +41,56 @@ public class ReuseExecutorTest extends BaseExecutorTest {
     super.shouldFetchPostWithBlogWithCompositeKey();
   }
 
+  @Test
+  public void shouldReuseStatementsCachedOnPooledConnections() throws Exception {
+    PooledDataSource pooledDataSource = createPooledDataSource(BLOG_PROPERTIES);
+    try {
+      pooledDataSource.setPoolMaximumCachedStatements(5);
+      MappedStatement selectStatement = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      for (int i = 0; i < 3; i++) {
+        Executor executor = createExecutor(new JdbcTransaction(pooledDataSource, null, false));
+        try {
+          List<Author> authors = executor.query(selectStatement, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+          assertEquals(1, authors.size());
+        } finally {
+          executor.close(false);
+        }
+      }
+      assertEquals(1, pooledDataSource.getPoolState().getStatementCacheMissCount());
+      assertEquals(2, pooledDataSource.getPoolState().getStatementCacheHitCount());
+    } finally {
+      pooledDataSource.forceCloseAll();
+    }
+  }
+
+  @Test
+  public void shouldNotReuseCachedStatementsPreparedDifferently() throws Exception {
+    PooledDataSource pooledDataSource = createPooledDataSource(BLOG_PROPERTIES);
+    try {
+      pooledDataSource.setPoolMaximumCachedStatements(5);
+      MappedStatement selectStatement = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      MappedStatement fetchSizeStatement = new MappedStatement.Builder(config, "selectAuthorWithFetchSize",
+          selectStatement.getSqlSource(), SqlCommandType.SELECT)
+          .parameterMap(selectStatement.getParameterMap())
+          .resultMaps(selectStatement.getResultMaps())
+          .fetchSize(10)
+          .build();
+      for (MappedStatement ms : Arrays.asList(selectStatement, fetchSizeStatement, selectStatement)) {
+        Executor executor = createExecutor(new JdbcTransaction(pooledDataSource, null, false));
+        try {
+          List<Author> authors = executor.query(ms, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+          assertEquals(1, authors.size());
+        } finally {
+          executor.close(false);
+        }
+      }
+      assertEquals(2, pooledDataSource.getPoolState().getStatementCacheMissCount());
+      assertEquals(1, pooledDataSource.getPoolState().getStatementCacheHitCount());
+    } finally {
+      pooledDataSource.forceCloseAll();
+    }
+  }
+
   @Override
   protected Executor createExecutor(Transaction transaction) {
     return new ReuseExecutor(config,transaction);
@@ -16,12 +16,17 @@
 package org.apache.ibatis.executor.resultset;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.Reader;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
@@ -30,12 +35,15 @@ import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 
+import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.builder.StaticSqlSource;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultMap;
@@ -44,6 +52,11 @@ import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.submitted.cursor_nested.User;
+import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 import org.junit.Assert;
@@ -87,7 +100,7 @@ public class DefaultResultSetHandlerTest {
     when(rs.getMetaData()).thenReturn(rsmd);
     when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
     when(rs.next()).thenReturn(true).thenReturn(false);
-    when(rs.getInt("CoLuMn1")).thenReturn(100);
+    when(rs.getInt(1)).thenReturn(100);
     when(rsmd.getColumnCount()).thenReturn(1);
     when(rsmd.getColumnLabel(1)).thenReturn("CoLuMn1");
     when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
@@ -101,6 +114,51 @@ public class DefaultResultSetHandlerTest {
     assertEquals(Integer.valueOf(100), ((HashMap) results.get(0)).get("cOlUmN1"));
   }
 
+  @Test
+  public void shouldReadColumnsByIndex() throws Exception {
+    final MappedStatement ms = getMappedStatement();
+    final DefaultResultSetHandler fastResultSetHandler = new DefaultResultSetHandler(null, ms, null, null, null, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(true).thenReturn(false);
+    when(rs.getInt(2)).thenReturn(100).thenReturn(200);
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("OTHER");
+    when(rsmd.getColumnLabel(2)).thenReturn("COLUMN1");
+    when(rsmd.getColumnType(any(Integer.class))).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(any(Integer.class))).thenReturn(Integer.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false);
+
+    final List<Object> results = fastResultSetHandler.handleResultSets(stmt);
+    assertEquals(2, results.size());
+    assertEquals(Integer.valueOf(100), ((HashMap) results.get(0)).get("cOlUmN1"));
+    assertEquals(Integer.valueOf(200), ((HashMap) results.get(1)).get("cOlUmN1"));
+    verify(rs, never()).getInt(any(String.class));
+  }
+
+  @Test
+  public void shouldResolveColumnIndexIgnoringCase() throws Exception {
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(3);
+    when(rsmd.getColumnLabel(1)).thenReturn("ID");
+    when(rsmd.getColumnLabel(2)).thenReturn("post_ID");
+    when(rsmd.getColumnLabel(3)).thenReturn("id");
+    when(rsmd.getColumnType(any(Integer.class))).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(any(Integer.class))).thenReturn(Integer.class.getCanonicalName());
+
+    final ResultSetWrapper rsw = new ResultSetWrapper(rs, new Configuration());
+    assertEquals(1, rsw.getColumnIndex("id"));
+    assertEquals(1, rsw.getColumnIndex("Id"));
+    assertEquals(2, rsw.getColumnIndex("POST_id"));
+    assertEquals(-1, rsw.getColumnIndex("name"));
+    assertEquals(-1, rsw.getColumnIndex(null));
+    assertEquals(JdbcType.INTEGER, rsw.getJdbcType("post_id"));
+  }
+
   @Test
   public void shouldThrowExceptionWithColumnName() throws Exception {
     final MappedStatement ms = getMappedStatement();
@@ -129,6 +187,52 @@ public class DefaultResultSetHandlerTest {
     }
   }
 
+  @Test
+  public void shouldNotRetainCompletedGraphsOfResultOrderedNestedMaps() throws Exception {
+    final SqlSessionFactory sqlSessionFactory;
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cursor_nested/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/cursor_nested/CreateDB.sql");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      final Connection connection = sqlSession.getConnection();
+      try (PreparedStatement ps = connection.prepareStatement("insert into many_groups values(?, ?, ?, 1)")) {
+        for (int userId = 1; userId <= 3; userId++) {
+          // the last user is larger than the index of nested objects that is kept between items
+          final int groups = userId == 3 ? 2000 : 2;
+          for (int groupId = 1; groupId <= groups; groupId++) {
+            ps.setInt(1, userId);
+            ps.setString(2, "User" + userId);
+            ps.setInt(3, groupId);
+            ps.addBatch();
+          }
+        }
+        ps.executeBatch();
+      }
+
+      final MappedStatement ms = sqlSessionFactory.getConfiguration()
+          .getMappedStatement("org.apache.ibatis.submitted.cursor_nested.Mapper.getUsersWithManyGroups");
+      final BoundSql boundSql = ms.getBoundSql(null);
+      try (PreparedStatement ps = connection.prepareStatement(boundSql.getSql())) {
+        ps.execute();
+        final DefaultResultSetHandler handler = new DefaultResultSetHandler(null, ms, null, null, boundSql, RowBounds.DEFAULT);
+        final Iterator<User> iterator = handler.<User>handleCursorResultSets(ps).iterator();
+
+        assertEquals("User1", iterator.next().getName());
+        // only the first row of the next user has been mapped
+        assertEquals(3, handler.getNestedResultObjectCount());
+        assertEquals("User2", iterator.next().getName());
+        assertEquals(3, handler.getNestedResultObjectCount());
+
+        final User lastUser = iterator.next();
+        assertEquals(2000, lastUser.getGroups().size());
+        assertEquals(0, handler.getNestedResultObjectCount());
+        assertFalse(iterator.hasNext());
+      }
+    }
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
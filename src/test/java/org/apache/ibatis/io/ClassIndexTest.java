@@ -0,0 +1,139 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.domain.blog.Post;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClassIndexTest {
+
+  private Path classesDirectory;
+
+  @Before
+  public void setUp() throws Exception {
+    classesDirectory = Files.createTempDirectory("class-index");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    Files.walk(classesDirectory).map(Path::toFile).sorted(Collections.reverseOrder()).forEach(File::delete);
+  }
+
+  @Test
+  public void shouldWriteTheClassesOfADirectory() throws Exception {
+    touch("org/apache/ibatis/domain/blog/Blog.class");
+    touch("org/apache/ibatis/domain/blog/Author.class");
+    touch("org/apache/ibatis/domain/blog/Author$1.class");
+    touch("org/apache/ibatis/domain/blog/package-info.class");
+    touch("org/apache/ibatis/domain/blog/Author.java");
+
+    Path index = ClassIndex.write(classesDirectory);
+
+    assertEquals(classesDirectory.resolve(ClassIndex.INDEX_RESOURCE), index);
+    assertEquals(Arrays.asList("org.apache.ibatis.domain.blog.Author", "org.apache.ibatis.domain.blog.Author$1",
+        "org.apache.ibatis.domain.blog.Blog"), list("org.apache.ibatis.domain"));
+  }
+
+  @Test
+  public void shouldListTheClassesOfAPackageAndItsSubpackages() throws Exception {
+    writeIndex("# comment", "", "org.apache.ibatis.domain.blog.Author", "org.apache.ibatis.domain.misc.Employee",
+        "org.apache.ibatis.domainx.Other");
+
+    assertEquals(Arrays.asList("org.apache.ibatis.domain.blog.Author", "org.apache.ibatis.domain.misc.Employee"),
+        list("org.apache.ibatis.domain"));
+    assertEquals(Collections.singletonList("org.apache.ibatis.domain.blog.Author"), list("org.apache.ibatis.domain.blog"));
+    assertTrue(list("org.apache.ibatis.mapping").isEmpty());
+  }
+
+  @Test
+  public void shouldResolveTheIndexedClassesInsteadOfScanning() throws Exception {
+    writeIndex("org.apache.ibatis.domain.blog.Author", "org.apache.ibatis.domain.blog.Blog");
+
+    try (URLClassLoader classLoader = newClassLoader()) {
+      ResolverUtil<Object> resolverUtil = new ResolverUtil<>();
+      resolverUtil.setClassLoader(classLoader);
+      resolverUtil.setClassIndexEnabled(true);
+      resolverUtil.findImplementations(Object.class, "org.apache.ibatis.domain.blog");
+      assertEquals(new HashSet<>(Arrays.asList(Author.class, Blog.class)), resolverUtil.getClasses());
+    }
+  }
+
+  @Test
+  public void shouldScanWhenTheIndexIsNotEnabled() throws Exception {
+    writeIndex("org.apache.ibatis.domain.blog.Author", "org.apache.ibatis.domain.blog.Blog");
+
+    try (URLClassLoader classLoader = newClassLoader()) {
+      ResolverUtil<Object> resolverUtil = new ResolverUtil<>();
+      resolverUtil.setClassLoader(classLoader);
+      resolverUtil.findImplementations(Object.class, "org.apache.ibatis.domain.blog");
+      assertTrue(resolverUtil.getClasses().contains(Post.class));
+    }
+  }
+
+  @Test
+  public void shouldScanThePackagesWithoutIndexedClasses() throws Exception {
+    writeIndex("org.apache.ibatis.domain.blog.Author");
+
+    try (URLClassLoader classLoader = newClassLoader()) {
+      ResolverUtil<Object> resolverUtil = new ResolverUtil<>();
+      resolverUtil.setClassLoader(classLoader);
+      resolverUtil.setClassIndexEnabled(true);
+      resolverUtil.findImplementations(Object.class, "org.apache.ibatis.domain.jpetstore");
+      assertTrue(resolverUtil.getClasses().size() > 1);
+    }
+  }
+
+  private List<String> list(String packageName) throws Exception {
+    try (URLClassLoader classLoader = newClassLoader()) {
+      return ClassIndex.list(classLoader, packageName);
+    }
+  }
+
+  private URLClassLoader newClassLoader() throws Exception {
+    return new URLClassLoader(new URL[] { classesDirectory.toUri().toURL() }, getClass().getClassLoader());
+  }
+
+  private void writeIndex(String... lines) throws Exception {
+    Path index = classesDirectory.resolve(ClassIndex.INDEX_RESOURCE);
+    Files.createDirectories(index.getParent());
+    Files.write(index, Arrays.asList(lines), StandardCharsets.UTF_8);
+  }
+
+  private void touch(String path) throws Exception {
+    Path file = classesDirectory.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.createFile(file);
+  }
+
+}
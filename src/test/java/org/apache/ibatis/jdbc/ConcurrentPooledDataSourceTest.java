@@ -0,0 +1,211 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.jdbc;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.pooled.ConcurrentPooledDataSource;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
+import org.apache.ibatis.io.Resources;
+import org.junit.Test;
+
+public class ConcurrentPooledDataSourceTest extends BaseDataTest {
+
+  @Test
+  public void shouldProperlyMaintainPoolOf3ActiveAnd2IdleConnections() throws Exception {
+    ConcurrentPooledDataSource ds = createConcurrentPooledDataSource();
+    try {
+      runScript(ds, JPETSTORE_DDL);
+      ds.setDefaultAutoCommit(false);
+      ds.setPoolMaximumActiveConnections(3);
+      ds.setPoolMaximumIdleConnections(2);
+      ds.setPoolMaximumCheckoutTime(10000);
+      ds.setPoolPingConnectionsNotUsedFor(1);
+      ds.setPoolPingEnabled(true);
+      ds.setPoolPingQuery("SELECT * FROM PRODUCT");
+      ds.setPoolTimeToWait(10000);
+      List<Connection> connections = new ArrayList<Connection>();
+      for (int i = 0; i < 3; i++) {
+        connections.add(ds.getConnection());
+      }
+      assertEquals(3, ds.getPoolState().getActiveConnectionCount());
+      for (Connection c : connections) {
+        c.close();
+      }
+      assertEquals(0, ds.getPoolState().getActiveConnectionCount());
+      assertEquals(2, ds.getPoolState().getIdleConnectionCount());
+      assertEquals(4, ds.getPoolState().getRequestCount());
+      assertEquals(0, ds.getPoolState().getBadConnectionCount());
+      assertEquals(0, ds.getPoolState().getHadToWaitCount());
+      assertEquals(0, ds.getPoolState().getClaimedOverdueConnectionCount());
+      assertNotNull(ds.getPoolState().toString());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  public void shouldReuseTheConnectionReturnedByTheSameThread() throws Exception {
+    ConcurrentPooledDataSource ds = createConcurrentPooledDataSource();
+    try {
+      Connection c = ds.getConnection();
+      Connection realConnection = PooledDataSource.unwrapConnection(c);
+      c.close();
+      c = ds.getConnection();
+      assertSame(realConnection, PooledDataSource.unwrapConnection(c));
+      c.close();
+      assertEquals(1, ds.getPoolState().getIdleConnectionCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  public void shouldHandOffReturnedConnectionToWaitingThread() throws Exception {
+    final ConcurrentPooledDataSource ds = createConcurrentPooledDataSource();
+    ds.setPoolMaximumActiveConnections(1);
+    ds.setPoolMaximumIdleConnections(1);
+    ds.setPoolTimeToWait(10000);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Connection c = ds.getConnection();
+      Connection realConnection = PooledDataSource.unwrapConnection(c);
+      final CountDownLatch started = new CountDownLatch(1);
+      Future<Connection> waiter = executor.submit(() -> {
+        started.countDown();
+        try (Connection conn = ds.getConnection()) {
+          return PooledDataSource.unwrapConnection(conn);
+        }
+      });
+      started.await();
+      while (ds.getPoolState().getHadToWaitCount() == 0) {
+        Thread.sleep(10);
+      }
+      c.close();
+      assertSame(realConnection, waiter.get(10, TimeUnit.SECONDS));
+      assertEquals(1, ds.getPoolState().getHadToWaitCount());
+      assertEquals(2, ds.getPoolState().getRequestCount());
+      assertEquals(0, ds.getPoolState().getActiveConnectionCount());
+    } finally {
+      executor.shutdownNow();
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  public void shouldKeepCountersAccurateUnderContention() throws Exception {
+    final ConcurrentPooledDataSource ds = createConcurrentPooledDataSource();
+    ds.setPoolMaximumActiveConnections(4);
+    ds.setPoolMaximumIdleConnections(4);
+    ds.setPoolTimeToWait(10000);
+    final int threads = 16;
+    final int iterations = 200;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<Future<?>>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < iterations; j++) {
+            try (Connection conn = ds.getConnection()) {
+              assertTrue(ds.getPoolState().getActiveConnectionCount() <= 4);
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+      assertEquals(threads * iterations, ds.getPoolState().getRequestCount());
+      assertEquals(0, ds.getPoolState().getActiveConnectionCount());
+      assertTrue(ds.getPoolState().getIdleConnectionCount() <= 4);
+      assertEquals(0, ds.getPoolState().getBadConnectionCount());
+    } finally {
+      executor.shutdownNow();
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  public void shouldCloseCachedStatementsOfAClaimedOverdueConnectionWhenItIsReturned() throws Exception {
+    ConcurrentPooledDataSource ds = createConcurrentPooledDataSource();
+    try {
+      runScript(ds, JPETSTORE_DDL);
+      ds.setPoolMaximumCachedStatements(2);
+      ds.setPoolMaximumActiveConnections(1);
+      ds.setPoolMaximumCheckoutTime(10);
+      Connection overdue = ds.getConnection();
+      PreparedStatement statement = overdue.prepareStatement("SELECT * FROM PRODUCT");
+      PooledDataSource.getStatementCache(overdue).put("first", statement);
+      Thread.sleep(50);
+      Connection c = ds.getConnection();
+      assertEquals(1, ds.getPoolState().getClaimedOverdueConnectionCount());
+      // the thread of the overdue connection may still use its statements
+      assertFalse(statement.isClosed());
+      assertNotSame(PooledDataSource.getStatementCache(overdue), PooledDataSource.getStatementCache(c));
+      assertEquals(0, PooledDataSource.getStatementCache(c).getSize());
+      overdue.close();
+      assertTrue(statement.isClosed());
+      assertEquals(0, PooledDataSource.getStatementCache(overdue).getSize());
+      c.close();
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  public void shouldBeSelectedByPoolTypeProperty() throws Exception {
+    Properties props = Resources.getResourceAsProperties(JPETSTORE_PROPERTIES);
+    props.setProperty("poolType", "concurrent");
+    PooledDataSourceFactory factory = new PooledDataSourceFactory();
+    factory.setProperties(props);
+    assertTrue(factory.getDataSource() instanceof ConcurrentPooledDataSource);
+    ConcurrentPooledDataSource ds = (ConcurrentPooledDataSource) factory.getDataSource();
+    assertEquals(props.getProperty("url"), ds.getUrl());
+  }
+
+  @Test
+  public void shouldUseSynchronizedPoolByDefault() throws Exception {
+    Properties props = Resources.getResourceAsProperties(JPETSTORE_PROPERTIES);
+    PooledDataSourceFactory factory = new PooledDataSourceFactory();
+    factory.setProperties(props);
+    assertEquals(PooledDataSource.class, factory.getDataSource().getClass());
+  }
+
+  private ConcurrentPooledDataSource createConcurrentPooledDataSource() throws Exception {
+    Properties props = Resources.getResourceAsProperties(JPETSTORE_PROPERTIES);
+    ConcurrentPooledDataSource ds = new ConcurrentPooledDataSource();
+    ds.setDriver(props.getProperty("driver"));
+    ds.setUrl(props.getProperty("url"));
+    ds.setUsername(props.getProperty("username"));
+    ds.setPassword(props.getProperty("password"));
+    return ds;
+  }
+
+}
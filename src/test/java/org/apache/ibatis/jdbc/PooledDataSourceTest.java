@@ -28,6 +28,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.datasource.pooled.PooledStatementCache;
 import org.hsqldb.jdbc.JDBCConnection;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -144,4 +145,70 @@ public class PooledDataSourceTest extends BaseDataTest {
       }
     }
   }
+  @Test
+  public void shouldKeepCachedStatementsOfARealConnectionAcrossCheckouts() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      runScript(ds, JPETSTORE_DDL);
+      ds.setPoolMaximumCachedStatements(2);
+      Connection c = ds.getConnection();
+      PooledStatementCache statementCache = PooledDataSource.getStatementCache(c);
+      PreparedStatement first = c.prepareStatement("SELECT * FROM PRODUCT");
+      statementCache.put("first", first);
+      c.close();
+      c = ds.getConnection();
+      assertSame(statementCache, PooledDataSource.getStatementCache(c));
+      assertSame(first, statementCache.take("first"));
+      assertNull(statementCache.take("second"));
+      statementCache.put("first", first);
+      statementCache.put("second", c.prepareStatement("SELECT * FROM ITEM"));
+      statementCache.put("third", c.prepareStatement("SELECT * FROM CATEGORY"));
+      assertTrue(first.isClosed());
+      assertEquals(2, statementCache.getSize());
+      assertEquals(1, ds.getPoolState().getStatementCacheHitCount());
+      assertEquals(1, ds.getPoolState().getStatementCacheMissCount());
+      assertEquals(1, ds.getPoolState().getStatementCacheEvictionCount());
+      c.close();
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  public void shouldCloseCachedStatementsOfAClaimedOverdueConnectionWhenItIsReturned() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      runScript(ds, JPETSTORE_DDL);
+      ds.setPoolMaximumCachedStatements(2);
+      ds.setPoolMaximumActiveConnections(1);
+      ds.setPoolMaximumCheckoutTime(10);
+      Connection overdue = ds.getConnection();
+      PreparedStatement statement = overdue.prepareStatement("SELECT * FROM PRODUCT");
+      PooledDataSource.getStatementCache(overdue).put("first", statement);
+      Thread.sleep(50);
+      Connection c = ds.getConnection();
+      assertEquals(1, ds.getPoolState().getClaimedOverdueConnectionCount());
+      // the thread of the overdue connection may still use its statements
+      assertFalse(statement.isClosed());
+      assertNotSame(PooledDataSource.getStatementCache(overdue), PooledDataSource.getStatementCache(c));
+      assertEquals(0, PooledDataSource.getStatementCache(c).getSize());
+      overdue.close();
+      assertTrue(statement.isClosed());
+      assertEquals(0, PooledDataSource.getStatementCache(overdue).getSize());
+      c.close();
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  public void shouldNotCacheStatementsByDefault() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try (Connection c = ds.getConnection()) {
+      assertNull(PooledDataSource.getStatementCache(c));
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
 }
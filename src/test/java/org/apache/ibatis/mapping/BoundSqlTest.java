@@ -58,6 +58,19 @@ public class BoundSqlTest {
     assertTrue("should return true even if the element does not exists.", boundSql.hasAdditionalParameter("array[99]"));
   }
 
+  @Test
+  public void shouldShareOnlyThePathsOfStaticProperties() {
+    Configuration configuration = new Configuration();
+    ParameterMapping first = new ParameterMapping.Builder(configuration, "person.id", Object.class).build();
+    ParameterMapping second = new ParameterMapping.Builder(configuration, "person.id", Object.class).build();
+    assertSame(first.getPropertyPath(), second.getPropertyPath());
+
+    ParameterMapping firstItem = new ParameterMapping.Builder(configuration, "__frch_person_0.id", Object.class).build();
+    ParameterMapping secondItem = new ParameterMapping.Builder(configuration, "__frch_person_0.id", Object.class).build();
+    assertNotSame(firstItem.getPropertyPath(), secondItem.getPropertyPath());
+    assertSame(firstItem.getPropertyPath(), firstItem.getPropertyPath());
+  }
+
   public static class Person {
     public Integer id;
   }
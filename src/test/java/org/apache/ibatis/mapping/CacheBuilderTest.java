@@ -18,6 +18,11 @@ package org.apache.ibatis.mapping;
 import org.apache.ibatis.builder.InitializingObject;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.decorators.FifoCache;
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.impl.ConcurrentCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.assertj.core.api.Assertions;
 import org.junit.Test;
@@ -43,6 +48,28 @@ public class CacheBuilderTest {
       .hasMessage("Failed cache initialization for 'test' on 'org.apache.ibatis.mapping.CacheBuilderTest$InitializingFailureCache'");
   }
 
+  @Test
+  public void shouldNotSynchronizeThreadSafeCaches() {
+    Cache cache = new CacheBuilder("test").implementation(ConcurrentCache.class).addDecorator(LruCache.class)
+        .size(100).clearInterval(60000L).build();
+    Assertions.assertThat(cache).isInstanceOf(LoggingCache.class);
+    Assertions.assertThat((Cache) unwrap(cache)).isInstanceOf(ConcurrentCache.class);
+  }
+
+  @Test
+  public void shouldSynchronizeWhenADecoratorIsNotThreadSafe() {
+    Cache cache = new CacheBuilder("test").implementation(ConcurrentCache.class).addDecorator(FifoCache.class).build();
+    Assertions.assertThat(cache).isInstanceOf(SynchronizedCache.class);
+    Cache logging = unwrap(cache);
+    Assertions.assertThat((Cache) unwrap(logging)).isInstanceOf(FifoCache.class);
+  }
+
+  @Test
+  public void shouldSynchronizePerpetualCaches() {
+    Cache cache = new CacheBuilder("test").build();
+    Assertions.assertThat(cache).isInstanceOf(SynchronizedCache.class);
+  }
+
   @SuppressWarnings("unchecked")
   private <T> T unwrap(Cache cache){
     Field field;
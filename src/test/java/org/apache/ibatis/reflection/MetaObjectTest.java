@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -28,10 +29,12 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
 import org.apache.ibatis.domain.blog.Section;
 import org.apache.ibatis.domain.misc.CustomBeanWrapper;
 import org.apache.ibatis.domain.misc.CustomBeanWrapperFactory;
 import org.apache.ibatis.domain.misc.RichType;
+import org.apache.ibatis.reflection.property.PropertyPath;
 import org.junit.Test;
 
 public class MetaObjectTest {
@@ -302,4 +305,76 @@ public class MetaObjectTest {
     assertTrue(meta.hasGetter("filterParams[2]"));
   }
 
+
+  @Test
+  public void shouldGetAndSetNestedValuesWithPropertyPath() {
+    RichType rich = new RichType();
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    meta.setValue(PropertyPath.of("richType.richProperty"), "foo");
+    meta.setValue(PropertyPath.of("richType.richField"), "bar");
+    meta.setValue(PropertyPath.of("richType.richMap.key"), "baz");
+    assertEquals("foo", meta.getValue(PropertyPath.of("richType.richProperty")));
+    assertEquals("bar", meta.getValue(PropertyPath.of("richType.richField")));
+    assertEquals("baz", meta.getValue(PropertyPath.of("richType.richMap.key")));
+    assertEquals("baz", meta.getValue(PropertyPath.of("richType.richMap[key]")));
+    assertNull(meta.getValue(PropertyPath.of("richType.richType.richProperty")));
+  }
+
+  @Test
+  public void shouldGetIndexedValuesWithPropertyPath() {
+    RichType rich = new RichType();
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    meta.setValue("richType.richList[0]", "foo");
+    RichType other = new RichType();
+    other.setRichProperty("bar");
+    List<Object> list = new ArrayList<>();
+    list.add(other);
+    rich.setRichList(list);
+    assertEquals("foo", meta.getValue(PropertyPath.of("richType.richList[0]")));
+    assertEquals("bar", meta.getValue(PropertyPath.of("richList[0].richProperty")));
+  }
+
+  @Test
+  public void shouldReuseInternedPropertyPath() {
+    PropertyPath path = PropertyPath.of("richType.richMap[key].value");
+    assertSame(path, PropertyPath.of("richType.richMap[key].value"));
+    assertEquals(3, path.getDepth());
+    assertEquals("richMap", path.getSegment(1).getName());
+    assertEquals("key", path.getSegment(1).getIndex());
+    assertEquals("richMap[key].value", path.getPath(1));
+  }
+
+  @Test
+  public void shouldGetAndSetWithPropertyPathOnBeansOfDifferentTypes() {
+    PropertyPath path = PropertyPath.of("id");
+    for (int i = 0; i < 2; i++) {
+      MetaObject author = SystemMetaObject.forObject(new Author());
+      MetaObject blog = SystemMetaObject.forObject(new Blog());
+      author.setValue(path, 1);
+      blog.setValue(path, 2);
+      assertEquals(1, author.getValue(path));
+      assertEquals(2, blog.getValue(path));
+      Reflector reflector = author.getReflectorFactory().findForClass(Author.class);
+      assertEquals("id", reflector.getGetablePropertyNames()[path.getSegment(0).getGetterSlot(reflector)]);
+    }
+  }
+
+  @Test
+  public void shouldResolveTheGetterOfAPropertyPathForEachType() throws Throwable {
+    PropertyPath path = PropertyPath.of("id");
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    for (int i = 0; i < 2; i++) {
+      assertEquals(1, path.getGetter(0, Author.class, reflectorFactory).get(new Author(1)));
+      assertEquals(2, path.getGetter(0, Blog.class, reflectorFactory).get(new Blog(2, null, null, null)));
+      assertNull(path.getGetter(0, Section.class, reflectorFactory));
+    }
+  }
+
+  @Test(expected = ReflectionException.class)
+  public void shouldFailToGetMissingNestedPropertyWithPropertyPath() {
+    RichType rich = new RichType();
+    rich.setRichType(new RichType());
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    meta.getValue(PropertyPath.of("richType.missing"));
+  }
 }
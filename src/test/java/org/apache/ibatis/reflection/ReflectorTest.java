@@ -210,4 +210,82 @@ public class ReflectorTest {
     Reflector reflector = reflectorFactory.findForClass(Bean.class);
     assertTrue((Boolean)reflector.getGetInvoker("bool").invoke(new Bean(), new Byte[0]));
   }
+
+  @Test
+  public void shouldGetAndSetThroughSlots() throws Throwable {
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(PublicBean.class);
+    PublicBean bean = new PublicBean();
+    reflector.getSetter(reflector.getSetterSlot("name")).set(bean, "foo");
+    reflector.getSetter(reflector.getSetterSlot("count")).set(bean, 3);
+    reflector.getSetter(reflector.getSetterSlot("field")).set(bean, "bar");
+    assertEquals("foo", reflector.getGetter(reflector.getGetterSlot("name")).get(bean));
+    assertEquals(3, reflector.getGetter(reflector.getGetterSlot("count")).get(bean));
+    assertEquals("bar", reflector.getGetter(reflector.getGetterSlot("field")).get(bean));
+    assertEquals("name", reflector.getGetablePropertyNames()[reflector.getGetterSlot("name")]);
+    assertSame(reflector.getGetter(reflector.getGetterSlot("name")), reflector.getGetter(reflector.getGetterSlot("name")));
+  }
+
+  @Test
+  public void shouldShareGeneratedAccessorsBetweenReflectors() throws Exception {
+    Reflector reflector = new Reflector(PublicBean.class);
+    Reflector other = new Reflector(PublicBean.class);
+    assertSame(reflector.getGetter(reflector.getGetterSlot("name")), other.getGetter(other.getGetterSlot("name")));
+    assertSame(reflector.getSetter(reflector.getSetterSlot("name")), other.getSetter(other.getSetterSlot("name")));
+  }
+
+  @Test
+  public void shouldGetAndSetNonPublicClassThroughSlots() throws Throwable {
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(Section.class);
+    Section section = new Section();
+    reflector.getSetter(reflector.getSetterSlot("id")).set(section, 1L);
+    assertEquals(1L, reflector.getGetter(reflector.getGetterSlot("id")).get(section));
+  }
+
+  @Test
+  public void shouldNotWrapExceptionsThrownByAccessors() throws Throwable {
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(PublicBean.class);
+    when(reflector.getGetter(reflector.getGetterSlot("failing"))).get(new PublicBean());
+    then(caughtException()).isInstanceOf(IllegalStateException.class).hasMessage("failing");
+  }
+
+  @Test
+  public void shouldThrowWhenThereIsNoSlot() throws Exception {
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(PublicBean.class);
+    when(reflector).getGetterSlot("missing");
+    then(caughtException()).isInstanceOf(ReflectionException.class)
+      .hasMessageContaining("There is no getter for property named 'missing'");
+    when(reflector).getSetterSlot("failing");
+    then(caughtException()).isInstanceOf(ReflectionException.class)
+      .hasMessageContaining("There is no setter for property named 'failing'");
+  }
+
+  public static class PublicBean {
+    private String name;
+    private int count;
+    private String field;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public int getCount() {
+      return count;
+    }
+
+    public void setCount(int count) {
+      this.count = count;
+    }
+
+    public String getFailing() {
+      throw new IllegalStateException("failing");
+    }
+  }
 }
@@ -21,8 +21,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
 import org.apache.ibatis.mapping.*;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
@@ -36,6 +39,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -70,6 +74,86 @@ public class DefaultParameterHandlerTest {
 
   }
 
+  @Test
+  public void shouldBindBeanPropertiesWithACachedBinder() throws SQLException {
+    final MappedStatement mappedStatement = getMappedStatement();
+    final Configuration config = mappedStatement.getConfiguration();
+    final List<ParameterMapping> parameterMappings = parameterMappings(config, "username", "id");
+    for (int i = 1; i <= 2; i++) {
+      PreparedStatement ps = mock(PreparedStatement.class);
+      Author author = new Author(i, "user" + i, null, null, null, null);
+      BoundSql boundSql = new BoundSql(config, "some insert", parameterMappings, author);
+      new DefaultParameterHandler(mappedStatement, author, boundSql).setParameters(ps);
+      verify(ps).setString(1, "user" + i);
+      verify(ps).setInt(2, i);
+    }
+    Map<Class<?>, ParameterBinder> binders = config.getParameterBinders().get(mappedStatement);
+    Assert.assertEquals(1, binders.size());
+    Assert.assertTrue(binders.get(Author.class).isFor(parameterMappings));
+  }
+
+  @Test
+  public void shouldBindMapEntriesNestedPropertiesAndSimpleParameters() throws SQLException {
+    final MappedStatement mappedStatement = getMappedStatement();
+    final Configuration config = mappedStatement.getConfiguration();
+
+    Map<String, Object> map = new HashMap<>();
+    map.put("username", "user1");
+    List<ParameterMapping> parameterMappings = parameterMappings(config, "username", "missing");
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new DefaultParameterHandler(mappedStatement, map, new BoundSql(config, "some insert", parameterMappings, map)).setParameters(ps);
+    verify(ps).setString(1, "user1");
+    verify(ps).setNull(2, JdbcType.OTHER.TYPE_CODE);
+
+    Blog blog = new Blog(1, "title", new Author(2, "user2", null, null, null, null), null);
+    parameterMappings = parameterMappings(config, "author.username");
+    ps = mock(PreparedStatement.class);
+    new DefaultParameterHandler(mappedStatement, blog, new BoundSql(config, "some insert", parameterMappings, blog)).setParameters(ps);
+    verify(ps).setString(1, "user2");
+
+    parameterMappings = parameterMappings(config, "value");
+    ps = mock(PreparedStatement.class);
+    new DefaultParameterHandler(mappedStatement, "user3", new BoundSql(config, "some insert", parameterMappings, "user3")).setParameters(ps);
+    verify(ps).setString(1, "user3");
+    Assert.assertEquals(3, config.getParameterBinders().get(mappedStatement).size());
+  }
+
+  @Test
+  public void shouldNotCacheBindersOfChangingParameterMappings() throws SQLException {
+    final MappedStatement mappedStatement = getMappedStatement();
+    final Configuration config = mappedStatement.getConfiguration();
+    for (int i = 1; i <= 3; i++) {
+      PreparedStatement ps = mock(PreparedStatement.class);
+      Author author = new Author(i, "user" + i, null, null, null, null);
+      BoundSql boundSql = new BoundSql(config, "some insert", parameterMappings(config, "username"), author);
+      new DefaultParameterHandler(mappedStatement, author, boundSql).setParameters(ps);
+      verify(ps).setString(1, "user" + i);
+    }
+    Assert.assertSame(ParameterBinder.UNSUPPORTED, config.getParameterBinders().get(mappedStatement).get(Author.class));
+  }
+
+  @Test
+  public void shouldResolveAdditionalParametersWithoutBinder() throws SQLException {
+    final MappedStatement mappedStatement = getMappedStatement();
+    final Configuration config = mappedStatement.getConfiguration();
+    Author author = new Author(1, "user1", null, null, null, null);
+    BoundSql boundSql = new BoundSql(config, "some insert", parameterMappings(config, "username"), author);
+    boundSql.setAdditionalParameter("username", "additional");
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new DefaultParameterHandler(mappedStatement, author, boundSql).setParameters(ps);
+    verify(ps).setString(1, "additional");
+    Assert.assertNull(config.getParameterBinders().get(mappedStatement));
+  }
+
+  private List<ParameterMapping> parameterMappings(Configuration config, String... properties) {
+    List<ParameterMapping> parameterMappings = new ArrayList<>();
+    for (String property : properties) {
+      Class<?> javaType = "id".equals(property) ? Integer.class : String.class;
+      parameterMappings.add(new ParameterMapping.Builder(config, property, javaType).build());
+    }
+    return parameterMappings;
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
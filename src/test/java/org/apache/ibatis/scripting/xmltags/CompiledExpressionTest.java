@@ -0,0 +1,125 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Test;
+
+public class CompiledExpressionTest {
+
+  private static final String[] EXPRESSIONS = {
+      "username != null",
+      "username == null",
+      "username == 'cbegin'",
+      "username eq \"cbegin\"",
+      "username neq 'jdoe' and id > 0",
+      "id >= 1 && id <= 1",
+      "id lt 2 or bio == null",
+      "!(id gt 2) || favouriteSection == null",
+      "not (username != null)",
+      "email != null and email.trim().length() > 0",
+      "email.isEmpty()",
+      "id == 1.0",
+      "id",
+      "bio and username",
+      "bio or username",
+      "null == null",
+      "true and false",
+      "tags != null and tags.size() > 1",
+      "tags.isEmpty() or tags.size() == 0",
+      "_parameter != null",
+      "_databaseId == null",
+  };
+
+  @Test
+  public void shouldEvaluateLikeOgnlWithBeanParameter() {
+    Author author = new Author(1, "cbegin", "******", "cbegin@apache.org", "N/A", Section.NEWS);
+    assertSameValuesAsOgnl(new DynamicContext(new Configuration(), author).getBindings(), "tags");
+  }
+
+  @Test
+  public void shouldEvaluateLikeOgnlWithMapParameter() {
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("id", 1L);
+    parameter.put("username", "cbegin");
+    parameter.put("email", " ");
+    parameter.put("bio", "");
+    parameter.put("tags", Arrays.asList("a", "b"));
+    assertSameValuesAsOgnl(new DynamicContext(new Configuration(), parameter).getBindings(), "favouriteSection");
+  }
+
+  @Test
+  public void shouldFallBackToOgnlForUnsupportedExpressions() {
+    assertFalse(CompiledExpression.isCompilable("username.equals('cbegin')"));
+    assertFalse(CompiledExpression.isCompilable("id + 1 > 2"));
+    assertFalse(CompiledExpression.isCompilable("tags[0] == 'a'"));
+    assertFalse(CompiledExpression.isCompilable("@java.lang.Math@abs(id) > 0"));
+    assertFalse(CompiledExpression.isCompilable("id > 010"));
+    assertFalse(CompiledExpression.isCompilable("id > 1L"));
+    assertFalse(CompiledExpression.isCompilable("username == 'a\\'b'"));
+    Author author = new Author(1, "cbegin", "******", "cbegin@apache.org", "N/A", Section.NEWS);
+    Map<String, Object> bindings = new DynamicContext(new Configuration(), author).getBindings();
+    assertEquals(Boolean.TRUE, CompiledExpression.getValue("username.equals('cbegin')", bindings));
+    assertEquals(Boolean.TRUE, CompiledExpression.getValue("id + 1 > 1", bindings));
+  }
+
+  @Test
+  public void shouldFallBackToOgnlAtRuntime() {
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("items", new HashMap<String, Object>());
+    Map<String, Object> bindings = new DynamicContext(new Configuration(), parameter).getBindings();
+    assertTrue(CompiledExpression.isCompilable("items.size == 0"));
+    // special property of maps in OGNL
+    assertEquals(Boolean.TRUE, CompiledExpression.getValue("items.size == 0", bindings));
+    try {
+      CompiledExpression.getValue("missing.name == null", bindings);
+      fail();
+    } catch (BuilderException e) {
+      // reported by OGNL
+    }
+  }
+
+  @Test
+  public void shouldCompileCommonTestExpressions() {
+    assertTrue(CompiledExpression.isCompilable("name != null and name != ''"));
+    assertTrue(CompiledExpression.isCompilable("list != null and list.size() > 0"));
+    assertTrue(CompiledExpression.isCompilable("author.username == \"cbegin\" or (id >= 10 and !archived)"));
+  }
+
+  private void assertSameValuesAsOgnl(Map<String, Object> bindings, String nullProperty) {
+    if (!bindings.containsKey(nullProperty)) {
+      bindings.put(nullProperty, null);
+    }
+    if (bindings.get("tags") == null) {
+      bindings.put("tags", new ArrayList<String>());
+    }
+    for (String expression : EXPRESSIONS) {
+      assertTrue(expression, CompiledExpression.isCompilable(expression));
+      assertEquals(expression, OgnlCache.getValue(expression, bindings), CompiledExpression.getValue(expression, bindings));
+    }
+  }
+
+}
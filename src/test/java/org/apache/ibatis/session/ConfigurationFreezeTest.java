@@ -0,0 +1,199 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.builder.CacheRefResolver;
+import org.apache.ibatis.builder.IncompleteElementException;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.type.StringTypeHandler;
+import org.apache.ibatis.type.TypeException;
+import org.junit.Test;
+
+public class ConfigurationFreezeTest {
+
+  @Test
+  public void shouldFreezeWhenBuilt() {
+    Configuration configuration = new Configuration();
+    configuration.addMapper(FirstMapper.class);
+    assertThat(configuration.isFrozen()).isFalse();
+    new SqlSessionFactoryBuilder().build(configuration);
+    assertThat(configuration.isFrozen()).isTrue();
+    assertThat(configuration.hasStatement(FirstMapper.class.getName() + ".selectOne")).isTrue();
+    assertThat(configuration.getMappedStatement("selectOne").getId()).isEqualTo(FirstMapper.class.getName() + ".selectOne");
+    try {
+      configuration.getMappedStatementNames().clear();
+      fail();
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void shouldPublishElementsAddedAfterFreeze() {
+    Configuration configuration = new Configuration();
+    configuration.addMapper(FirstMapper.class);
+    new SqlSessionFactoryBuilder().build(configuration);
+    configuration.addMapper(SecondMapper.class);
+    assertThat(configuration.hasStatement(SecondMapper.class.getName() + ".selectTwo")).isTrue();
+    assertThat(configuration.getMappedStatement("selectTwo").getId()).isEqualTo(SecondMapper.class.getName() + ".selectTwo");
+    try {
+      configuration.getMappedStatement("selectOne");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage()).contains("is ambiguous");
+    }
+    try {
+      configuration.addMappedStatement(configuration.getMappedStatement("selectTwo"));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage()).contains("already contains value");
+    }
+  }
+
+  @Test
+  public void shouldReadEachAdditionBeforeTheSnapshotIsCopied() {
+    Configuration configuration = new Configuration();
+    configuration.addMapper(FirstMapper.class);
+    new SqlSessionFactoryBuilder().build(configuration);
+    for (int i = 0; i < 10; i++) {
+      configuration.addMappedStatement(new MappedStatement.Builder(configuration, "added.select" + i,
+          new StaticSqlSource(configuration, "select " + i), SqlCommandType.SELECT).build());
+      assertThat(configuration.hasStatement("added.select" + i)).isTrue();
+      assertThat(configuration.getMappedStatement("select" + i).getId()).isEqualTo("added.select" + i);
+    }
+    assertThat(configuration.getMappedStatementNames()).contains("added.select0", "added.select9");
+    try {
+      configuration.getMappedStatementNames().clear();
+      fail();
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void shouldValidateIncompleteElementsAddedAfterFreeze() {
+    Configuration configuration = new Configuration();
+    configuration.addMapper(FirstMapper.class);
+    new SqlSessionFactoryBuilder().build(configuration);
+    MapperBuilderAssistant assistant = new MapperBuilderAssistant(configuration, "test");
+    assistant.setCurrentNamespace("incomplete");
+    configuration.addIncompleteCacheRef(new CacheRefResolver(assistant, "missing"));
+    for (int i = 0; i < 2; i++) {
+      try {
+        configuration.getMappedStatement("selectOne");
+        fail();
+      } catch (IncompleteElementException e) {
+        // expected
+      }
+    }
+    configuration.getIncompleteCacheRefs().clear();
+    assertThat(configuration.getMappedStatement("selectOne")).isNotNull();
+  }
+
+  @Test
+  public void shouldWaitForIncompleteElementsBeingBuilt() throws Exception {
+    final CountDownLatch building = new CountDownLatch(1);
+    final CountDownLatch built = new CountDownLatch(1);
+    final Configuration configuration = new Configuration() {
+      @Override
+      protected void buildAllStatements() {
+        if (isFrozen() && !getIncompleteCacheRefs().isEmpty()) {
+          building.countDown();
+          try {
+            built.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          addMappedStatement(new MappedStatement.Builder(this, "incomplete.selectTwo",
+              new StaticSqlSource(this, "select 2"), SqlCommandType.SELECT).build());
+          getIncompleteCacheRefs().clear();
+        }
+        super.buildAllStatements();
+      }
+    };
+    new SqlSessionFactoryBuilder().build(configuration);
+    MapperBuilderAssistant assistant = new MapperBuilderAssistant(configuration, "test");
+    assistant.setCurrentNamespace("incomplete");
+    configuration.addIncompleteCacheRef(new CacheRefResolver(assistant, "missing"));
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<Boolean> first = executor.submit(() -> configuration.hasStatement("incomplete.selectTwo"));
+      assertThat(building.await(10, TimeUnit.SECONDS)).isTrue();
+      Future<Boolean> second = executor.submit(() -> configuration.hasStatement("incomplete.selectTwo"));
+      try {
+        second.get(100, TimeUnit.MILLISECONDS);
+        fail();
+      } catch (TimeoutException e) {
+        // expected, waits for the build
+      }
+      built.countDown();
+      assertThat(first.get(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(second.get(10, TimeUnit.SECONDS)).isTrue();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldRejectTypeHandlersOnceFrozen() {
+    Configuration configuration = new Configuration();
+    configuration.setFreezeTypeHandlers(true);
+    new SqlSessionFactoryBuilder().build(configuration);
+    try {
+      configuration.getTypeHandlerRegistry().register(FirstMapper.class, StringTypeHandler.class);
+      fail();
+    } catch (TypeException e) {
+      assertThat(e.getMessage()).contains("frozen");
+    }
+  }
+
+  @Test
+  public void shouldAcceptTypeHandlersByDefault() {
+    Configuration configuration = new Configuration();
+    new SqlSessionFactoryBuilder().build(configuration);
+    configuration.getTypeHandlerRegistry().register(FirstMapper.class, StringTypeHandler.class);
+    assertThat(configuration.getTypeHandlerRegistry().hasTypeHandler(FirstMapper.class)).isTrue();
+  }
+
+  interface FirstMapper {
+    @Select("select 1")
+    int selectOne();
+  }
+
+  interface SecondMapper {
+    @Select("select 1")
+    int selectOne();
+
+    @Select("select 2")
+    int selectTwo();
+  }
+
+}
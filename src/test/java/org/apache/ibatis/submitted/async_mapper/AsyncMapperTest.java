@@ -0,0 +1,106 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.submitted.async_mapper;
+
+import static org.junit.Assert.*;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncMapperTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/async_mapper/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/async_mapper/CreateDB.sql");
+  }
+
+  @Test
+  public void shouldSelectAsynchronously() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      CompletableFuture<User> user = mapper.getUser(1);
+      CompletableFuture<List<User>> users = mapper.getUsers().toCompletableFuture();
+      CompletableFuture<Map<Integer, User>> usersById = mapper.getUsersById();
+      CompletableFuture<String[]> names = mapper.getNames();
+      assertEquals("User1", user.get(5, TimeUnit.SECONDS).getName());
+      assertEquals(3, users.get(5, TimeUnit.SECONDS).size());
+      assertEquals("User2", usersById.get(5, TimeUnit.SECONDS).get(2).getName());
+      assertArrayEquals(new String[] { "User1", "User2", "User3" }, names.get(5, TimeUnit.SECONDS));
+      assertTrue(mapper.findUser(1).get(5, TimeUnit.SECONDS).isPresent());
+      assertFalse(mapper.findUser(9).get(5, TimeUnit.SECONDS).isPresent());
+    }
+  }
+
+  @Test
+  public void shouldCommitEachCallInItsOwnSession() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User();
+      user.setId(4);
+      user.setName("User4");
+      assertEquals(Integer.valueOf(1), mapper.insertUser(user).get(5, TimeUnit.SECONDS));
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals("User4", sqlSession.getMapper(Mapper.class).getUser(4).get(5, TimeUnit.SECONDS).getName());
+    }
+  }
+
+  @Test
+  public void shouldCompleteExceptionally() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertIntoMissingTable(new User()).get(5, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof PersistenceException);
+    }
+  }
+
+  @Test
+  public void shouldRunOnTheConfiguredExecutor() throws Exception {
+    AtomicInteger tasks = new AtomicInteger();
+    sqlSessionFactory.getConfiguration().setAsyncExecutor(runnable -> {
+      tasks.incrementAndGet();
+      new Thread(runnable).start();
+    });
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals("User1", mapper.getUser(1).get(5, TimeUnit.SECONDS).getName());
+      assertEquals(1, tasks.get());
+    }
+  }
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_auto_flush;
+
+import static org.junit.Assert.*;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchAutoFlushTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private final List<List<BatchResult>> flushes = new ArrayList<>();
+
+  @Before
+  public void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_auto_flush/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_auto_flush/CreateDB.sql");
+    sqlSessionFactory.getConfiguration().setBatchFlushListener(flushes::add);
+  }
+
+  @Test
+  public void shouldFlushWhenAStatementReachesTheBatchSize() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 1; i <= 7; i++) {
+        mapper.insertUser(newUser(null, "User" + i));
+      }
+      assertEquals(2, flushes.size());
+      assertEquals(3, flushes.get(0).get(0).getParameterObjects().size());
+      assertArrayEquals(new int[] { 1, 1, 1 }, flushes.get(1).get(0).getUpdateCounts());
+
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(1, results.size());
+      assertEquals(1, results.get(0).getParameterObjects().size());
+      assertEquals(3, flushes.size());
+      assertSame(results, flushes.get(2));
+      assertEquals(7, mapper.countUsers());
+    }
+  }
+
+  @Test
+  public void shouldFlushWhenThereAreEnoughStatements() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setBatchAutoFlushSize(null);
+    configuration.setBatchAutoFlushStatements(2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertUser(newUser(null, "User1"));
+      mapper.insertUser(newUser(null, "User2"));
+      assertTrue(flushes.isEmpty());
+      mapper.updateUser(newUser(1, "Updated"));
+      assertEquals(1, flushes.size());
+      assertEquals(2, flushes.get(0).size());
+      mapper.insertUser(newUser(null, "User3"));
+      assertEquals(1, flushes.size());
+    }
+  }
+
+  @Test
+  public void shouldFlushWhenTheValuesTakeEnoughMemory() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setBatchAutoFlushSize(null);
+    configuration.setBatchAutoFlushBytes(1000L);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      int rows = 0;
+      while (flushes.isEmpty() && rows < 100) {
+        mapper.insertUser(newUser(null, "User" + rows++));
+      }
+      assertTrue(rows > 10);
+      assertEquals(rows, flushes.get(0).get(0).getParameterObjects().size());
+      assertEquals(1, flushes.size());
+      assertTrue(sqlSession.flushStatements().isEmpty());
+    }
+  }
+
+  @Test
+  public void shouldNotCallTheListenerOnRollback() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertUser(newUser(null, "User1"));
+      sqlSession.rollback();
+      assertTrue(flushes.isEmpty());
+      assertEquals(0, mapper.countUsers());
+    }
+  }
+
+  private User newUser(Integer id, String name) {
+    User user = new User();
+    user.setId(id);
+    user.setName(name);
+    return user;
+  }
+
+}
@@ -0,0 +1,119 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_nested_select;
+
+import static org.junit.Assert.*;
+
+import java.io.Reader;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchNestedSelectTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_nested_select/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_nested_select/CreateDB.sql");
+    StatementCounter.count.set(0);
+  }
+
+  @Test
+  public void shouldLoadEagerAssociationsInChunks() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).getOrders();
+      assertEquals(11, orders.size());
+      // 1 for the orders + 2 for the 5 customers with a batchSize of 3
+      assertEquals(3, StatementCounter.count.get());
+      for (Order order : orders) {
+        if (order.getCustomerId() == null) {
+          assertNull(order.getCustomer());
+        } else {
+          assertEquals(order.getCustomerId().intValue(), order.getCustomer().getId().intValue());
+          assertEquals("c" + order.getCustomerId(), order.getCustomer().getName());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void shouldLoadAllPendingLazyAssociationsAtOnce() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).getOrdersLazily();
+      assertEquals(1, StatementCounter.count.get());
+      assertEquals("c1", orders.get(0).getCustomer().getName());
+      assertEquals(2, StatementCounter.count.get());
+      for (Order order : orders) {
+        if (order.getCustomerId() != null) {
+          assertEquals("c" + order.getCustomerId(), order.getCustomer().getName());
+        }
+      }
+      assertNull(orders.get(10).getCustomer());
+      assertEquals(2, StatementCounter.count.get());
+    }
+  }
+
+  @Test
+  public void shouldDistributeCollectionsToTheirParents() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Customer> customers = sqlSession.getMapper(Mapper.class).getCustomersWithOrders();
+      assertEquals(6, customers.size());
+      assertEquals(2, StatementCounter.count.get());
+      for (Customer customer : customers) {
+        if (customer.getId() == 6) {
+          assertTrue(customer.getOrders().isEmpty());
+        } else {
+          assertEquals(2, customer.getOrders().size());
+          for (Order order : customer.getOrders()) {
+            assertEquals(customer.getId().longValue(), order.getCustomerId().longValue());
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void shouldReadBatchAttributes() {
+    ResultMapping customerMapping = sqlSessionFactory.getConfiguration()
+        .getResultMap("org.apache.ibatis.submitted.batch_nested_select.Mapper.orderResult").getPropertyResultMappings().get(3);
+    assertEquals("org.apache.ibatis.submitted.batch_nested_select.Mapper.getCustomers", customerMapping.getBatchQueryId());
+    assertEquals("id", customerMapping.getBatchKeyProperty());
+    assertEquals(3, customerMapping.getBatchSize());
+    ResultMapping lazyMapping = sqlSessionFactory.getConfiguration()
+        .getResultMap("org.apache.ibatis.submitted.batch_nested_select.Mapper.lazyOrderResult").getPropertyResultMappings().get(3);
+    assertEquals(ResultMapping.DEFAULT_BATCH_SIZE, lazyMapping.getBatchSize());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldRequireBatchKeyProperty() {
+    new ResultMapping.Builder(new Configuration(), "customer", "customer_id", Object.class)
+        .nestedQueryId("getCustomer").batchQueryId("getCustomers").build();
+  }
+
+}
@@ -0,0 +1,48 @@
+--
+--    Copyright 2009-2018 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table orders if exists;
+drop table customer if exists;
+
+create table customer (
+  id int,
+  name varchar(20)
+);
+
+create table orders (
+  id int,
+  customer_id int,
+  note varchar(20)
+);
+
+insert into customer (id, name) values (1, 'c1');
+insert into customer (id, name) values (2, 'c2');
+insert into customer (id, name) values (3, 'c3');
+insert into customer (id, name) values (4, 'c4');
+insert into customer (id, name) values (5, 'c5');
+insert into customer (id, name) values (6, 'c6');
+
+insert into orders (id, customer_id, note) values (1, 1, 'o1');
+insert into orders (id, customer_id, note) values (2, 2, 'o2');
+insert into orders (id, customer_id, note) values (3, 3, 'o3');
+insert into orders (id, customer_id, note) values (4, 4, 'o4');
+insert into orders (id, customer_id, note) values (5, 5, 'o5');
+insert into orders (id, customer_id, note) values (6, 1, 'o6');
+insert into orders (id, customer_id, note) values (7, 2, 'o7');
+insert into orders (id, customer_id, note) values (8, 3, 'o8');
+insert into orders (id, customer_id, note) values (9, 4, 'o9');
+insert into orders (id, customer_id, note) values (10, 5, 'o10');
+insert into orders (id, customer_id, note) values (11, null, 'o11');
@@ -0,0 +1,120 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mapper;
+
+import static org.junit.Assert.*;
+
+import java.io.Reader;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompiledRowMapperTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mapper/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/compiled_row_mapper/CreateDB.sql");
+  }
+
+  @Test
+  public void shouldReadCompiledRowMappersEnabledSetting() {
+    assertTrue(sqlSessionFactory.getConfiguration().isCompiledRowMappersEnabled());
+    assertFalse(new Configuration().isCompiledRowMappersEnabled());
+  }
+
+  @Test
+  public void shouldMapAutoMappedRowsLikeMetaObject() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsersAutoMapped();
+      assertUsers(users);
+      assertEquals(Integer.valueOf(1), users.get(0).getGroupId());
+      assertNull(users.get(2).getGroupId());
+    }
+    assertEquals(1, sqlSessionFactory.getConfiguration().getCompiledRowMappers().size());
+  }
+
+  @Test
+  public void shouldReuseCompiledRowMapperInLaterSessions() {
+    for (int i = 0; i < 3; i++) {
+      try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+        assertUsers(sqlSession.getMapper(Mapper.class).getUsersAutoMapped());
+      }
+    }
+    assertEquals(1, sqlSessionFactory.getConfiguration().getCompiledRowMappers().size());
+  }
+
+  @Test
+  public void shouldMapResultMapWithPropertyAndAutomaticMappings() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertUsers(sqlSession.getMapper(Mapper.class).getUsersMapped());
+    }
+  }
+
+  @Test
+  public void shouldReturnNullForEmptyRowUnlessReturnInstanceForEmptyRow() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getNamesAndAges();
+      assertEquals(3, users.size());
+      assertEquals(-1, users.get(1).getAge());
+      assertNull(users.get(2));
+    }
+    sqlSessionFactory.getConfiguration().setReturnInstanceForEmptyRow(true);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getNamesAndAges();
+      assertNotNull(users.get(2));
+      assertNull(users.get(2).getName());
+    }
+  }
+
+  @Test
+  public void shouldFallBackToMetaObjectForNestedResultMaps() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsersWithGroup();
+      assertEquals(3, users.size());
+      assertEquals("admins", users.get(0).getGroup().getName());
+      assertEquals("admins", users.get(1).getGroup().getName());
+      assertNull(users.get(2).getGroup());
+    }
+    assertTrue(sqlSessionFactory.getConfiguration().getCompiledRowMappers().isEmpty());
+  }
+
+  private void assertUsers(List<User> users) {
+    assertEquals(3, users.size());
+    assertEquals(Integer.valueOf(1), users.get(0).getId());
+    assertEquals("User1", users.get(0).getName());
+    assertEquals(30, users.get(0).getAge());
+    assertEquals(Integer.valueOf(2), users.get(1).getId());
+    assertEquals("User2", users.get(1).getName());
+    // a null value is not passed to a primitive setter
+    assertEquals(-1, users.get(1).getAge());
+    assertEquals(Integer.valueOf(3), users.get(2).getId());
+    assertNull(users.get(2).getName());
+  }
+
+}
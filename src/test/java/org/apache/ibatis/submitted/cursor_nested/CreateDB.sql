@@ -15,6 +15,7 @@
 --
 
 drop table users if exists;
+drop table many_groups if exists;
 
 create table users (
   id int,
@@ -37,4 +38,11 @@ insert into users values(3, 'User3', 3, 1);
 insert into users values(4, 'User4', 1, 1);
 insert into users values(4, 'User4', 1, 2);
 insert into users values(4, 'User4', 2, 1);
-insert into users values(4, 'User4', 2, 2);
\ No newline at end of file
+insert into users values(4, 'User4', 2, 2);
+
+create table many_groups (
+  id int,
+  name varchar(20),
+  group_id int,
+  rol_id int
+);
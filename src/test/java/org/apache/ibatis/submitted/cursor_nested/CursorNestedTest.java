@@ -27,6 +27,8 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.util.Iterator;
 
 public class CursorNestedTest {
@@ -102,4 +104,35 @@ public class CursorNestedTest {
             Assert.assertTrue(usersCursor.isConsumed());
         }
     }
+
+    @Test
+    public void shouldMapItemsAfterALargeItem() throws Exception {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+            Connection conn = sqlSession.getConnection();
+            try (PreparedStatement ps = conn.prepareStatement("insert into many_groups values(?, ?, ?, 1)")) {
+                for (int userId = 1; userId <= 4; userId++) {
+                    // the first user is larger than the index of nested objects that is kept between items
+                    int groups = userId == 1 ? 2000 : 2;
+                    for (int groupId = 1; groupId <= groups; groupId++) {
+                        ps.setInt(1, userId);
+                        ps.setString(2, "User" + userId);
+                        ps.setInt(3, groupId);
+                        ps.addBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+
+            Cursor<User> usersCursor = sqlSession.getMapper(Mapper.class).getUsersWithManyGroups();
+            Iterator<User> iterator = usersCursor.iterator();
+            User user = iterator.next();
+            Assert.assertEquals(2000, user.getGroups().size());
+            for (int userId = 2; userId <= 4; userId++) {
+                user = iterator.next();
+                Assert.assertEquals("User" + userId, user.getName());
+                Assert.assertEquals(2, user.getGroups().size());
+            }
+            Assert.assertFalse(iterator.hasNext());
+        }
+    }
 }
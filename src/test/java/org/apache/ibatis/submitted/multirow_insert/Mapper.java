@@ -0,0 +1,42 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.submitted.multirow_insert;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.SelectKey;
+import org.apache.ibatis.annotations.Update;
+
+public interface Mapper {
+
+  @Insert("insert into users (name) values (#{name})")
+  @Options(useGeneratedKeys = true, keyProperty = "id")
+  int insertUser(User user);
+
+  @Insert("insert into users (id, name) values (#{id}, #{name})")
+  @SelectKey(statement = "select max(id) + 100 from users", keyProperty = "id", before = true, resultType = Integer.class)
+  int insertUserWithSelectKey(User user);
+
+  @Update("update users set name = #{name} where id = #{id}")
+  int updateUser(User user);
+
+  @Select("select * from users order by id")
+  List<User> getUsers();
+
+}
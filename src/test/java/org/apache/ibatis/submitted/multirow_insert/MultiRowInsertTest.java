@@ -0,0 +1,134 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.submitted.multirow_insert;
+
+import static org.junit.Assert.*;
+
+import java.io.Reader;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.BatchExecutorException;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MultiRowInsertTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/multirow_insert/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/multirow_insert/CreateDB.sql");
+  }
+
+  @Test
+  public void shouldInsertSeveralRowsPerStatementAndAssignTheKeys() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User[] users = new User[5];
+      for (int i = 0; i < users.length; i++) {
+        users[i] = newUser(null, "User" + (i + 1));
+        mapper.insertUser(users[i]);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(3, results.size());
+      assertEquals("insert into users (name) values (?)", results.get(0).getSql());
+      assertArrayEquals(new int[] { 1, 1 }, results.get(0).getUpdateCounts());
+      assertArrayEquals(new int[] { 1, 1 }, results.get(1).getUpdateCounts());
+      assertArrayEquals(new int[] { 1 }, results.get(2).getUpdateCounts());
+      assertEquals(2, results.get(1).getParameterObjects().size());
+      for (int i = 0; i < users.length; i++) {
+        assertEquals(Integer.valueOf(i + 1), users[i].getId());
+      }
+      sqlSession.commit();
+
+      List<User> inserted = mapper.getUsers();
+      assertEquals(5, inserted.size());
+      assertEquals("User5", inserted.get(4).getName());
+    }
+  }
+
+  @Test
+  public void shouldBindTheValuesOfEachRowWhenItIsAdded() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = newUser(null, "User1");
+      mapper.insertUser(user);
+      user.setName("User2");
+      mapper.insertUser(newUser(null, "User3"));
+      sqlSession.flushStatements();
+      assertEquals("User1", mapper.getUsers().get(0).getName());
+    }
+  }
+
+  @Test
+  public void shouldKeepTheOrderOfOtherStatements() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertUser(newUser(null, "User1"));
+      mapper.updateUser(newUser(1, "Updated"));
+      mapper.insertUser(newUser(null, "User2"));
+      mapper.insertUserWithSelectKey(newUser(null, "User3"));
+      mapper.insertUserWithSelectKey(newUser(null, "User4"));
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(4, results.size());
+      assertArrayEquals(new int[] { 1 }, results.get(1).getUpdateCounts());
+      assertArrayEquals(new int[] { 1, 1 }, results.get(3).getUpdateCounts());
+
+      List<User> users = mapper.getUsers();
+      assertEquals(4, users.size());
+      assertEquals("Updated", users.get(0).getName());
+      assertEquals("User2", users.get(1).getName());
+    }
+  }
+
+  @Test
+  public void shouldReportTheFailedStatement() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertUser(newUser(null, "User1"));
+      mapper.updateUser(newUser(1, "Updated"));
+      mapper.insertUser(newUser(null, null));
+      try {
+        sqlSession.flushStatements();
+        fail();
+      } catch (PersistenceException e) {
+        BatchExecutorException cause = (BatchExecutorException) e.getCause();
+        assertEquals(2, cause.getSuccessfulBatchResults().size());
+        assertEquals("org.apache.ibatis.submitted.multirow_insert.Mapper.insertUser", cause.getFailingStatementId());
+      }
+    }
+  }
+
+  private User newUser(Integer id, String name) {
+    User user = new User();
+    user.setId(id);
+    user.setName(name);
+    return user;
+  }
+
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.submitted.parallel_row_mapping;
+
+import static org.junit.Assert.*;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelRowMappingTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/parallel_row_mapping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/parallel_row_mapping/CreateDB.sql");
+  }
+
+  @Test
+  public void shouldMapAllRowsInOrder() {
+    assertTrue(sqlSessionFactory.getConfiguration().isParallelRowMappingOrdered());
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers();
+      assertEquals(2000, users.size());
+      for (int i = 0; i < users.size(); i++) {
+        assertEquals(Integer.valueOf(i + 1), users.get(i).getId());
+        assertEquals("User" + (i + 1), users.get(i).getName());
+      }
+    }
+  }
+
+  @Test
+  public void shouldCreateTheResultObjectsInTheForkJoinPool() {
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    sqlSessionFactory.getConfiguration().setObjectFactory(new DefaultObjectFactory() {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public <T> T create(Class<T> type) {
+        threads.add(Thread.currentThread());
+        return super.create(type);
+      }
+    });
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(2000, sqlSession.getMapper(Mapper.class).getUsers().size());
+    }
+    threads.remove(Thread.currentThread());
+    assertFalse(threads.isEmpty());
+  }
+
+  @Test
+  public void shouldMapAllRowsUnordered() {
+    sqlSessionFactory.getConfiguration().setParallelRowMappingOrdered(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers();
+      assertEquals(2000, users.size());
+      BitSet ids = new BitSet();
+      for (User user : users) {
+        assertEquals("User" + user.getId(), user.getName());
+        ids.set(user.getId());
+      }
+      assertEquals(2000, ids.cardinality());
+    }
+  }
+
+  @Test
+  public void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getSomeUsers(new RowBounds(10, 700));
+      assertEquals(700, users.size());
+      assertEquals(Integer.valueOf(11), users.get(0).getId());
+      assertEquals(Integer.valueOf(710), users.get(699).getId());
+    }
+  }
+
+  @Test
+  public void shouldStopWhenTheResultHandlerStops() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = new ArrayList<>();
+      sqlSession.getMapper(Mapper.class).handleUsers(context -> {
+        users.add(context.getResultObject());
+        if (context.getResultCount() == 600) {
+          context.stop();
+        }
+      });
+      assertEquals(600, users.size());
+      assertEquals(Integer.valueOf(600), users.get(599).getId());
+    }
+  }
+
+  @Test
+  public void shouldMapLikeTheSequentialMapping() {
+    List<User> parallel;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      parallel = sqlSession.getMapper(Mapper.class).getUsers();
+    }
+    sqlSessionFactory.getConfiguration().setParallelRowMappingEnabled(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> sequential = sqlSession.getMapper(Mapper.class).getUsers();
+      assertEquals(sequential.size(), parallel.size());
+      assertEquals(sequential.get(1999).getName(), parallel.get(1999).getName());
+    }
+  }
+
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.submitted.publisher_select;
+
+import static org.junit.Assert.*;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Flow;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PublisherSelectTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/publisher_select/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/publisher_select/CreateDB.sql");
+  }
+
+  @Test
+  public void shouldPublishOnlyTheRequestedRows() {
+    Flow.Publisher<User> publisher;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      publisher = sqlSession.getMapper(Mapper.class).getUsers();
+    }
+    RecordingSubscriber<User> subscriber = new RecordingSubscriber<>();
+    publisher.subscribe(subscriber);
+    assertTrue(subscriber.items.isEmpty());
+    assertEquals(0, getActiveConnectionCount());
+
+    subscriber.subscription.request(2);
+    assertEquals(2, subscriber.items.size());
+    assertEquals("User2", subscriber.items.get(1).getName());
+    assertFalse(subscriber.completed);
+    assertEquals(1, getActiveConnectionCount());
+
+    subscriber.subscription.request(10);
+    assertEquals(5, subscriber.items.size());
+    assertTrue(subscriber.completed);
+    assertNull(subscriber.error);
+    assertEquals(0, getActiveConnectionCount());
+  }
+
+  @Test
+  public void shouldReleaseTheConnectionWhenCancelled() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      RecordingSubscriber<User> subscriber = new RecordingSubscriber<>();
+      sqlSession.<User>selectPublisher("org.apache.ibatis.submitted.publisher_select.Mapper.getUsers").subscribe(subscriber);
+      subscriber.subscription.request(1);
+      assertEquals(1, getActiveConnectionCount());
+      subscriber.subscription.cancel();
+      assertEquals(0, getActiveConnectionCount());
+      subscriber.subscription.request(1);
+      assertEquals(1, subscriber.items.size());
+      assertFalse(subscriber.completed);
+    }
+  }
+
+  @Test
+  public void shouldRequestFromOnNextWithoutRecursion() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      RecordingSubscriber<User> subscriber = new RecordingSubscriber<User>() {
+        @Override
+        public void onNext(User item) {
+          super.onNext(item);
+          subscription.request(1);
+        }
+      };
+      sqlSession.getMapper(Mapper.class).getSomeUsers(new RowBounds(1, 3)).subscribe(subscriber);
+      subscriber.subscription.request(1);
+      assertEquals(3, subscriber.items.size());
+      assertEquals("User2", subscriber.items.get(0).getName());
+      assertTrue(subscriber.completed);
+      assertEquals(0, getActiveConnectionCount());
+    }
+  }
+
+  @Test
+  public void shouldPublishAnErrorAndReleaseTheConnection() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      RecordingSubscriber<User> subscriber = new RecordingSubscriber<>();
+      sqlSession.getMapper(Mapper.class).getMissingUsers().subscribe(subscriber);
+      subscriber.subscription.request(Long.MAX_VALUE);
+      assertTrue(subscriber.error instanceof PersistenceException);
+      assertEquals(0, getActiveConnectionCount());
+    }
+  }
+
+  @Test
+  public void shouldReleaseTheConnectionWhenOnNextThrowsAnError() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      final AssertionError thrown = new AssertionError("failed in onNext");
+      RecordingSubscriber<User> subscriber = new RecordingSubscriber<User>() {
+        @Override
+        public void onNext(User item) {
+          throw thrown;
+        }
+      };
+      sqlSession.getMapper(Mapper.class).getUsers().subscribe(subscriber);
+      subscriber.subscription.request(1);
+      assertSame(thrown, subscriber.error);
+      assertEquals(0, getActiveConnectionCount());
+    }
+  }
+
+  @Test
+  public void shouldPublishAnErrorForANonPositiveRequest() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      RecordingSubscriber<User> subscriber = new RecordingSubscriber<>();
+      sqlSession.getMapper(Mapper.class).getUsers().subscribe(subscriber);
+      subscriber.subscription.request(1);
+      subscriber.subscription.request(0);
+      assertTrue(subscriber.error instanceof IllegalArgumentException);
+      assertEquals(0, getActiveConnectionCount());
+    }
+  }
+
+  @Test(expected = PersistenceException.class)
+  public void shouldFailForAnUnknownStatement() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.selectPublisher("unknown");
+    }
+  }
+
+  private int getActiveConnectionCount() {
+    PooledDataSource dataSource = (PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment().getDataSource();
+    return dataSource.getPoolState().getActiveConnectionCount();
+  }
+
+  private static class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+
+    protected Flow.Subscription subscription;
+    private final List<T> items = new ArrayList<>();
+    private boolean completed;
+    private Throwable error;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(T item) {
+      items.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+
+}
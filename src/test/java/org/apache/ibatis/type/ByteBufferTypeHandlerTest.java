@@ -0,0 +1,122 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.sql.Blob;
+
+import org.apache.ibatis.executor.result.ResultMapException;
+import org.junit.Test;
+import org.mockito.Mock;
+
+public class ByteBufferTypeHandlerTest extends BaseTypeHandlerTest {
+
+  private static final TypeHandler<ByteBuffer> TYPE_HANDLER = new ByteBufferTypeHandler();
+
+  @Mock
+  protected Blob blob;
+
+  @Override
+  @Test
+  public void shouldSetParameter() throws Exception {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(16);
+    buffer.put("--Hello".getBytes());
+    buffer.flip();
+    buffer.position(2);
+    final byte[] sent = new byte[5];
+    doAnswer(invocation -> {
+      InputStream in = invocation.getArgument(1);
+      assertThat(in.read(sent)).isEqualTo(5);
+      assertThat(in.read()).isEqualTo(-1);
+      return null;
+    }).when(ps).setBinaryStream(eq(1), any(InputStream.class), eq(5));
+    TYPE_HANDLER.setParameter(ps, 1, buffer, null);
+    assertThat(new String(sent)).isEqualTo("Hello");
+    assertThat(buffer.position()).isEqualTo(2);
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultFromResultSetByName() throws Exception {
+    byte[] bytes = "Hello".getBytes();
+    when(rs.getBlob("column")).thenReturn(blob);
+    when(blob.length()).thenReturn((long) bytes.length);
+    when(blob.getBytes(1, bytes.length)).thenReturn(bytes);
+    assertThat(TYPE_HANDLER.getResult(rs, "column")).isEqualTo(ByteBuffer.wrap(bytes));
+  }
+
+  @Test
+  public void shouldRejectBlobLargerThanAByteBuffer() throws Exception {
+    when(rs.getBlob("column")).thenReturn(blob);
+    when(blob.length()).thenReturn(Integer.MAX_VALUE + 1L);
+    try {
+      TYPE_HANDLER.getResult(rs, "column");
+      fail("Should have failed");
+    } catch (ResultMapException e) {
+      assertThat(e.getCause()).isInstanceOf(TypeException.class).hasMessageContaining("2147483648 bytes");
+    }
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultNullFromResultSetByName() throws Exception {
+    when(rs.getBlob("column")).thenReturn(null);
+    assertThat(TYPE_HANDLER.getResult(rs, "column")).isNull();
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultFromResultSetByPosition() throws Exception {
+    byte[] bytes = "Hello".getBytes();
+    when(rs.getBlob(1)).thenReturn(blob);
+    when(blob.length()).thenReturn((long) bytes.length);
+    when(blob.getBytes(1, bytes.length)).thenReturn(bytes);
+    assertThat(TYPE_HANDLER.getResult(rs, 1)).isEqualTo(ByteBuffer.wrap(bytes));
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultNullFromResultSetByPosition() throws Exception {
+    when(rs.getBlob(1)).thenReturn(null);
+    assertThat(TYPE_HANDLER.getResult(rs, 1)).isNull();
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultFromCallableStatement() throws Exception {
+    byte[] bytes = "Hello".getBytes();
+    when(cs.getBlob(1)).thenReturn(blob);
+    when(blob.length()).thenReturn((long) bytes.length);
+    when(blob.getBytes(1, bytes.length)).thenReturn(bytes);
+    assertThat(TYPE_HANDLER.getResult(cs, 1)).isEqualTo(ByteBuffer.wrap(bytes));
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultNullFromCallableStatement() throws Exception {
+    when(cs.getBlob(1)).thenReturn(null);
+    assertThat(TYPE_HANDLER.getResult(cs, 1)).isNull();
+  }
+
+}
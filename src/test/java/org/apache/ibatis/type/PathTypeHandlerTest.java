@@ -0,0 +1,234 @@
+/**
+ * Copyright 2009-2015 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.sql.Blob;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.TransactionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mock;
+
+public class PathTypeHandlerTest extends BaseTypeHandlerTest {
+
+  private static final TypeHandler<Path> TYPE_HANDLER = new PathTypeHandler();
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @Mock
+  protected Blob blob;
+
+  @BeforeClass
+  public static void setupSqlSessionFactory() throws Exception {
+    DataSource dataSource = BaseDataTest.createUnpooledDataSource("org/apache/ibatis/type/jdbc.properties");
+    TransactionFactory transactionFactory = new JdbcTransactionFactory();
+    Environment environment = new Environment("Production", transactionFactory, dataSource);
+    Configuration configuration = new Configuration(environment);
+    configuration.getTypeHandlerRegistry().register(Path.class, PathTypeHandler.class);
+    configuration.addMapper(Mapper.class);
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/type/BlobInputStreamTypeHandlerTest.sql");
+  }
+
+  @Override
+  @Test
+  public void shouldSetParameter() throws Exception {
+    Path file = Files.createTempFile("mybatis-test", null);
+    try {
+      Files.write(file, "Hello".getBytes());
+      TYPE_HANDLER.setParameter(ps, 1, file, null);
+      verify(ps).setBinaryStream(eq(1), any(InputStream.class), eq(5L));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void shouldCloseTheFileOnceTheDeclaredLengthHasBeenRead() throws Exception {
+    Path file = Files.createTempFile("mybatis-test", null);
+    try {
+      Files.write(file, "Hello".getBytes());
+      final byte[] read = new byte[5];
+      final InputStream[] bound = new InputStream[1];
+      doAnswer(invocation -> {
+        // a driver that reads exactly the declared length, without waiting for the end of the stream
+        InputStream in = invocation.getArgument(1);
+        long length = invocation.getArgument(2);
+        int offset = 0;
+        while (offset < length) {
+          offset += in.read(read, offset, (int) length - offset);
+        }
+        bound[0] = in;
+        return null;
+      }).when(ps).setBinaryStream(eq(1), any(InputStream.class), eq(5L));
+      TYPE_HANDLER.setParameter(ps, 1, file, null);
+      assertThat(new String(read)).isEqualTo("Hello");
+      assertThat(((PathTypeHandler.FileContentInputStream) bound[0]).isClosed()).isTrue();
+      assertThat(bound[0].read()).isEqualTo(-1);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void shouldNotOpenTheFileUntilItIsRead() throws Exception {
+    Path file = Files.createTempFile("mybatis-test", null);
+    Files.write(file, "Hello".getBytes());
+    InputStream in = new PathTypeHandler.FileContentInputStream(file, Files.size(file));
+    assertThat(in.available()).isEqualTo(0);
+    Files.delete(file);
+    try {
+      in.read();
+      fail();
+    } catch (NoSuchFileException e) {
+      // opened on the first read
+    }
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultFromResultSetByName() throws Exception {
+    when(rs.getBlob("column")).thenReturn(blob);
+    when(blob.getBinaryStream()).thenReturn(new ByteArrayInputStream("Hello".getBytes()));
+    assertThat(readAndDelete(TYPE_HANDLER.getResult(rs, "column"))).isEqualTo("Hello");
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultNullFromResultSetByName() throws Exception {
+    when(rs.getBlob("column")).thenReturn(null);
+    assertThat(TYPE_HANDLER.getResult(rs, "column")).isNull();
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultFromResultSetByPosition() throws Exception {
+    when(rs.getBlob(1)).thenReturn(blob);
+    when(blob.getBinaryStream()).thenReturn(new ByteArrayInputStream("Hello".getBytes()));
+    assertThat(readAndDelete(TYPE_HANDLER.getResult(rs, 1))).isEqualTo("Hello");
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultNullFromResultSetByPosition() throws Exception {
+    when(rs.getBlob(1)).thenReturn(null);
+    assertThat(TYPE_HANDLER.getResult(rs, 1)).isNull();
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultFromCallableStatement() throws Exception {
+    when(cs.getBlob(1)).thenReturn(blob);
+    when(blob.getBinaryStream()).thenReturn(new ByteArrayInputStream("Hello".getBytes()));
+    assertThat(readAndDelete(TYPE_HANDLER.getResult(cs, 1))).isEqualTo("Hello");
+  }
+
+  @Override
+  @Test
+  public void shouldGetResultNullFromCallableStatement() throws Exception {
+    when(cs.getBlob(1)).thenReturn(null);
+    assertThat(TYPE_HANDLER.getResult(cs, 1)).isNull();
+  }
+
+  @Test
+  public void integrationTest() throws Exception {
+    Path file = Files.createTempFile("mybatis-test", null);
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      Files.write(file, "Hello".getBytes());
+      Mapper mapper = session.getMapper(Mapper.class);
+      // insert (Path -> Blob)
+      {
+        BlobContent blobContent = new BlobContent();
+        blobContent.setId(1);
+        blobContent.setContent(file);
+        mapper.insert(blobContent);
+        session.commit();
+      }
+      // select (Blob -> Path)
+      {
+        BlobContent blobContent = mapper.findOne(1);
+        assertThat(blobContent.getContent()).isNotEqualTo(file);
+        assertThat(readAndDelete(blobContent.getContent())).isEqualTo("Hello");
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  private static String readAndDelete(Path file) throws Exception {
+    try {
+      return new String(Files.readAllBytes(file));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  interface Mapper {
+    @Select("SELECT ID, CONTENT FROM TEST_BLOB WHERE ID = #{id}")
+    BlobContent findOne(int id);
+
+    @Insert("INSERT INTO TEST_BLOB (ID, CONTENT) VALUES(#{id}, #{content})")
+    void insert(BlobContent blobContent);
+  }
+
+  static class BlobContent {
+    private int id;
+    private Path content;
+
+    public int getId() {
+      return id;
+    }
+
+    public void setId(int id) {
+      this.id = id;
+    }
+
+    public Path getContent() {
+      return content;
+    }
+
+    public void setContent(Path content) {
+      this.content = content;
+    }
+  }
+
+}
@@ -18,6 +18,8 @@ package org.apache.ibatis.type;
 import static org.junit.Assert.*;
 
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -38,6 +40,12 @@ public class TypeHandlerRegistryTest {
     typeHandlerRegistry = new TypeHandlerRegistry();
   }
 
+  @Test
+  public void shouldNotRegisterByteBufferAndPathTypeHandlersByDefault() {
+    assertFalse(typeHandlerRegistry.hasTypeHandler(ByteBuffer.class));
+    assertFalse(typeHandlerRegistry.hasTypeHandler(Path.class));
+  }
+
   @Test
   public void shouldRegisterAndRetrieveTypeHandler() {
     TypeHandler<String> stringTypeHandler = typeHandlerRegistry.getTypeHandler(String.class);
@@ -214,4 +222,54 @@ public class TypeHandlerRegistryTest {
     typeHandlerRegistry.register(Address.class, StringTypeHandler.class);
     assertTrue(typeHandlerRegistry.hasTypeHandler(Address.class));
   }
+
+  @Test
+  public void shouldResolveRegisteredAfterCachedLookup() {
+    class Address {}
+    class HomeAddress extends Address {}
+    assertNull(typeHandlerRegistry.getTypeHandler(HomeAddress.class, JdbcType.VARCHAR));
+    assertNull(typeHandlerRegistry.getTypeHandler(Address.class, JdbcType.VARCHAR));
+    typeHandlerRegistry.register(Address.class, JdbcType.VARCHAR, StringTypeHandler.class);
+    TypeHandler<?> typeHandler = typeHandlerRegistry.getTypeHandler(Address.class, JdbcType.VARCHAR);
+    assertTrue(typeHandler instanceof StringTypeHandler);
+    assertSame(typeHandler, typeHandlerRegistry.getTypeHandler(Address.class, JdbcType.VARCHAR));
+    assertSame(typeHandler, typeHandlerRegistry.getTypeHandler(Address.class, JdbcType.CHAR));
+  }
+
+  @Test
+  public void shouldResolveRegisteredOnSuperclassAfterCachedLookup() {
+    class Address {}
+    class HomeAddress extends Address {}
+    typeHandlerRegistry.register(Address.class, JdbcType.VARCHAR, StringTypeHandler.class);
+    TypeHandler<?> stringTypeHandler = typeHandlerRegistry.getTypeHandler(HomeAddress.class, JdbcType.VARCHAR);
+    assertTrue(stringTypeHandler instanceof StringTypeHandler);
+    TypeHandler<?> integerTypeHandler = typeHandlerRegistry.getTypeHandler(Integer.class, JdbcType.INTEGER);
+    typeHandlerRegistry.register(Address.class, JdbcType.CLOB, ClobTypeHandler.class);
+    TypeHandler<?> clobTypeHandler = typeHandlerRegistry.getTypeHandler(HomeAddress.class, JdbcType.CLOB);
+    assertTrue(clobTypeHandler instanceof ClobTypeHandler);
+    assertSame(stringTypeHandler, typeHandlerRegistry.getTypeHandler(HomeAddress.class, JdbcType.VARCHAR));
+    assertSame(integerTypeHandler, typeHandlerRegistry.getTypeHandler(Integer.class, JdbcType.INTEGER));
+  }
+
+  @Test
+  public void shouldRejectRegistrationOnceFrozen() {
+    class Address {}
+    typeHandlerRegistry.freeze();
+    assertTrue(typeHandlerRegistry.isFrozen());
+    try {
+      typeHandlerRegistry.register(Address.class, StringTypeHandler.class);
+      fail();
+    } catch (TypeException e) {
+      assertTrue(e.getMessage().contains("frozen"));
+    }
+    try {
+      typeHandlerRegistry.register(JdbcType.OTHER, new StringTypeHandler());
+      fail();
+    } catch (TypeException e) {
+      assertTrue(e.getMessage().contains("frozen"));
+    }
+    assertFalse(typeHandlerRegistry.hasTypeHandler(Address.class));
+    assertTrue(typeHandlerRegistry.getTypeHandler(String.class) instanceof StringTypeHandler);
+    assertSame(EnumTypeHandler.class, typeHandlerRegistry.getTypeHandler(NoTypeHandlerInterfaceEnum.class).getClass());
+  }
 }